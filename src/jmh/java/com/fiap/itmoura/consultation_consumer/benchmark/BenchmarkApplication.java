@@ -0,0 +1,49 @@
+package com.fiap.itmoura.consultation_consumer.benchmark;
+
+import com.fiap.itmoura.consultation_consumer.ConsultationConsumerApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    // args de linha de comando têm precedência sobre o application.yml (Postgres)
+    static ConfigurableApplicationContext start(String database, String... extraArgs) {
+        String[] defaults = {
+            "--spring.datasource.url=" + datasourceUrl(database),
+            "--spring.datasource.driver-class-name=" + (usePostgres() ? "org.postgresql.Driver" : "org.h2.Driver"),
+            "--spring.datasource.username=" + System.getenv().getOrDefault("BENCHMARK_DB_USER", usePostgres() ? "postgres" : "sa"),
+            "--spring.datasource.password=" + System.getenv().getOrDefault("BENCHMARK_DB_PASSWORD", ""),
+            // no PostgreSQL o schema vem das migrações (partições e índices reais); no H2, do Hibernate
+            "--spring.flyway.enabled=" + usePostgres(),
+            "--spring.jpa.hibernate.ddl-auto=" + (usePostgres() ? "validate" : "create-drop"),
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect." + (usePostgres() ? "PostgreSQLDialect" : "H2Dialect"),
+            "--spring.jpa.properties.hibernate.format_sql=false",
+            "--spring.jpa.properties.hibernate.use_sql_comments=false",
+            "--spring.kafka.listener.auto-startup=false",
+            "--consultation.reminder.outbox.relay-enabled=false",
+            // os benchmarks medem as consultas ao banco
+            "--consultation.cache.enabled=false",
+            "--logging.level.root=WARN"
+        };
+        String[] args = new String[defaults.length + extraArgs.length];
+        System.arraycopy(defaults, 0, args, 0, defaults.length);
+        System.arraycopy(extraArgs, 0, args, defaults.length, extraArgs.length);
+
+        return new SpringApplicationBuilder(ConsultationConsumerApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(args);
+    }
+
+    // BENCHMARK_DB_URL aponta para um PostgreSQL descartável (as migrações são aplicadas); sem ela, H2 em memória
+    static boolean usePostgres() {
+        return System.getenv("BENCHMARK_DB_URL") != null;
+    }
+
+    private static String datasourceUrl(String database) {
+        return usePostgres() ? System.getenv("BENCHMARK_DB_URL") : "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1";
+    }
+}
@@ -0,0 +1,109 @@
+package com.fiap.itmoura.consultation_consumer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization.ConsultationEventAvroCodec;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization.ConsultationEventDeserializer;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o caminho antigo (byte[] -> String -> ObjectMapper em Consultation) com o
+ * ConsultationEventDeserializer lendo direto do byte[] do registro, em JSON e no formato binário (negociado pelo
+ * header content-type). O tamanho médio de cada payload é impresso no setup.
+ * Rodar com: ./gradlew jmh -PjmhIncludes=ConsultationDecodeBenchmark -PjmhProfilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsultationDecodeBenchmark {
+
+    private static final String TOPIC = "consultation.service.request.topic.scheduling";
+    private static final int PAYLOADS = 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ConsultationEventDeserializer deserializer = new ConsultationEventDeserializer();
+
+    private byte[][] payloads;
+    private byte[][] binaryPayloads;
+    private Headers jsonHeaders;
+    private Headers binaryHeaders;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        LocalDateTime base = LocalDateTime.of(2030, 1, 15, 8, 0);
+        payloads = new byte[PAYLOADS][];
+        binaryPayloads = new byte[PAYLOADS][];
+        for (int i = 0; i < PAYLOADS; i++) {
+            LocalDateTime start = base.plusMinutes(30L * (i % 20));
+            UUID id = UUID.randomUUID();
+            String json = "{\"id\":\"" + id + "\","
+                + "\"startDate\":\"" + formatter.format(start) + "\","
+                + "\"finalDate\":\"" + formatter.format(start.plusMinutes(30)) + "\","
+                + "\"status\":\"SCHEDULED\",\"description\":\"Consulta de rotina " + i + "\"}";
+            payloads[i] = json.getBytes(StandardCharsets.UTF_8);
+            binaryPayloads[i] = ConsultationEventAvroCodec.encode(new ConsultationEvent(id, start, start.plusMinutes(30),
+                ConsultationStatusEnum.SCHEDULED, "Consulta de rotina " + i));
+        }
+        jsonHeaders = new RecordHeaders().add(ConsultationEventDeserializer.CONTENT_TYPE_HEADER,
+            "application/json".getBytes(StandardCharsets.US_ASCII));
+        binaryHeaders = new RecordHeaders().add(ConsultationEventDeserializer.CONTENT_TYPE_HEADER,
+            ConsultationEventAvroCodec.CONTENT_TYPE.getBytes(StandardCharsets.US_ASCII));
+        System.out.printf("payload bytes: json=%.1f binary=%.1f%n", averageLength(payloads), averageLength(binaryPayloads));
+    }
+
+    @Benchmark
+    public Consultation stringObjectMapper() throws Exception {
+        return objectMapper.readValue(new String(next(), StandardCharsets.UTF_8), Consultation.class);
+    }
+
+    @Benchmark
+    public ConsultationEvent typedDeserializer() {
+        return deserializer.deserialize(TOPIC, next());
+    }
+
+    @Benchmark
+    public ConsultationEvent jsonWithContentType() {
+        return deserializer.deserialize(TOPIC, jsonHeaders, next());
+    }
+
+    @Benchmark
+    public ConsultationEvent binaryWithContentType() {
+        return deserializer.deserialize(TOPIC, binaryHeaders, binaryPayloads[cursor++ & (PAYLOADS - 1)]);
+    }
+
+    private byte[] next() {
+        return payloads[cursor++ & (PAYLOADS - 1)];
+    }
+
+    private static double averageLength(byte[][] values) {
+        long total = 0;
+        for (byte[] value : values) {
+            total += value.length;
+        }
+        return (double) total / values.length;
+    }
+}
@@ -0,0 +1,98 @@
+package com.fiap.itmoura.consultation_consumer.benchmark;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ConsultationRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Linhas/s gravadas em consultation por três caminhos: saveAll do JPA com batching JDBC do Hibernate, o upsert em
+ * batch (ON CONFLICT / MERGE) e o COPY binário com staging. O COPY só existe no PostgreSQL; no H2 padrão ele cai
+ * no upsert em batch, então para comparar os três defina BENCHMARK_DB_URL (e BENCHMARK_DB_USER/PASSWORD).
+ * Rodar com: BENCHMARK_DB_URL=jdbc:postgresql://localhost:5432/bench ./gradlew jmh -PjmhIncludes=ConsultationIngestBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ConsultationIngestBenchmark {
+
+    private static final int BATCH = 5_000;
+
+    @Param({"jpaSaveAll", "jdbcUpsert", "copy"})
+    private String strategy;
+
+    private ConfigurableApplicationContext context;
+    private ConsultationRepository repository;
+    private JdbcTemplate jdbcTemplate;
+    private List<Consultation> batch;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("consultation_ingest",
+            "--consultation.ingest.copy-threshold=" + ("copy".equals(strategy) ? 1 : 0),
+            "--spring.jpa.properties.hibernate.jdbc.batch_size=500",
+            "--spring.jpa.properties.hibernate.order_inserts=true");
+        repository = context.getBean(ConsultationRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // tabela vazia a cada iteração para que o tamanho dos índices não domine as iterações finais
+    @Setup(Level.Iteration)
+    public void truncate() {
+        // no PostgreSQL o upsert também grava consultation_key, que precisa começar vazia junto
+        jdbcTemplate.execute(BenchmarkApplication.usePostgres() ? "TRUNCATE TABLE consultation, consultation_key" : "TRUNCATE TABLE consultation");
+    }
+
+    @Setup(Level.Invocation)
+    public void nextBatch() {
+        LocalDateTime base = LocalDateTime.of(2030, 1, 15, 8, 0);
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            long n = sequence++;
+            Consultation consultation = new Consultation();
+            consultation.setStartDate(base.plusMinutes(n % 525_600));
+            consultation.setFinalDate(consultation.getStartDate().plusMinutes(30));
+            consultation.setStatus(ConsultationStatusEnum.SCHEDULED);
+            consultation.setDescription("Consulta de rotina " + n);
+            batch.add(consultation);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int ingest() {
+        if ("jpaSaveAll".equals(strategy)) {
+            return repository.saveAll(batch).size();
+        }
+        return repository.upsertAll(batch);
+    }
+}
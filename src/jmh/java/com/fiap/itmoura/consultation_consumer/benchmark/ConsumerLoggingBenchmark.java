@@ -0,0 +1,109 @@
+package com.fiap.itmoura.consultation_consumer.benchmark;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ConsultationConsumerProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.ConsultationEventProcessor;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.SchedulingKafkaConsumer;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization.ConsultationEventDeserializer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão do listener do modo single com 4 threads de consumer: o caminho antigo (duas linhas em
+ * {@code System.out.println} por mensagem, disputando o lock do PrintStream) contra o listener atual (payload
+ * amostrado, MDC do registro e async loggers do Log4j2). O processamento (gravação e envio) é trocado por um no-op
+ * para medir só o log.
+ * Rodar com: ./gradlew jmh -PjmhIncludes=ConsumerLoggingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=classpath:log4j2-spring.xml")
+public class ConsumerLoggingBenchmark {
+
+    private static final String TOPIC = "consultation.service.request.topic.scheduling";
+    private static final int PAYLOADS = 1024;
+
+    private String[] payloads;
+    private ConsumerRecord<String, ConsultationEvent>[] records;
+    private SchedulingKafkaConsumer listener;
+    private PrintStream originalOut;
+    private PrintStream stdout;
+    private File stdoutFile;
+
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        payloads = new String[PAYLOADS];
+        records = new ConsumerRecord[PAYLOADS];
+        ConsultationEventDeserializer deserializer = new ConsultationEventDeserializer();
+        for (int i = 0; i < PAYLOADS; i++) {
+            payloads[i] = "{\"id\":\"" + UUID.randomUUID() + "\",\"startDate\":\"15/01/2030 08:00\","
+                + "\"finalDate\":\"15/01/2030 08:30\",\"status\":\"SCHEDULED\",\"description\":\"Consulta de rotina " + i + "\"}";
+            ConsultationEvent event = deserializer.deserialize(TOPIC, payloads[i].getBytes(StandardCharsets.UTF_8));
+            records[i] = new ConsumerRecord<>(TOPIC, i % 6, i, null, event);
+        }
+
+        ConsultationEventProcessor noOpProcessor = new ConsultationEventProcessor(null, null, null) {
+            @Override
+            public Result process(List<ConsumerRecord<String, ConsultationEvent>> records) {
+                return new Result(0, records.size());
+            }
+        };
+        listener = new SchedulingKafkaConsumer(noOpProcessor, new ConsultationConsumerProperties());
+
+        // stdout vai para um arquivo com autoflush, como um console redirecionado em produção
+        stdoutFile = File.createTempFile("consumer-logging-benchmark", ".log");
+        originalOut = System.out;
+        stdout = new PrintStream(new FileOutputStream(stdoutFile), true);
+        System.setOut(stdout);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+        stdout.close();
+        stdoutFile.delete();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public void systemOutListener(Cursor cursor) {
+        String payload = payloads[cursor.next++ & (PAYLOADS - 1)];
+        System.out.println("===== MESSAGE RECEIVED =====");
+        System.out.println(payload);
+    }
+
+    @Benchmark
+    public void asyncLoggingListener(Cursor cursor) {
+        listener.consume(records[cursor.next++ & (PAYLOADS - 1)]);
+    }
+}
@@ -0,0 +1,101 @@
+package com.fiap.itmoura.consultation_consumer.benchmark;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.SchedulingBatchKafkaConsumer;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.SchedulingKafkaConsumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registros/s tratados pelo listener depois de decodificados: checagem de idempotência, upsert, confirmação no
+ * outbox e marcação em processed_event, sobre o H2 (ou BENCHMARK_DB_URL). Compara o modo single, com uma
+ * transação por registro, ao modo batch, com uma por lote. Cada invocação é um lote novo de {@value #BATCH}
+ * eventos, então nenhum é descartado como duplicado.
+ * Rodar com: ./gradlew jmh -PjmhIncludes=RecordHandlingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class RecordHandlingBenchmark {
+
+    private static final String TOPIC = "consultation.service.request.topic.scheduling";
+    private static final int BATCH = 500;
+
+    @Param({"single", "batch"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private SchedulingKafkaConsumer singleListener;
+    private SchedulingBatchKafkaConsumer batchListener;
+    private List<ConsumerRecord<String, ConsultationEvent>> batch;
+    private long offset;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("record_handling",
+            "--spring.kafka.consumer.consultation.mode=" + mode,
+            // o envio não pode virar o gargalo do benchmark
+            "--consultation.notification.rate-limits.email.permits-per-second=1000000000",
+            "--consultation.notification.rate-limits.email.burst=1000000000");
+        // só o listener do modo pedido existe no contexto
+        if ("single".equals(mode)) {
+            singleListener = context.getBean(SchedulingKafkaConsumer.class);
+        } else {
+            batchListener = context.getBean(SchedulingBatchKafkaConsumer.class);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void nextBatch() {
+        LocalDateTime base = LocalDateTime.of(2030, 1, 15, 8, 0);
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            long n = offset++;
+            LocalDateTime start = base.plusMinutes(n % 100_000);
+            ConsultationEvent event = new ConsultationEvent(UUID.randomUUID(), start, start.plusMinutes(30),
+                ConsultationStatusEnum.SCHEDULED, "Consulta de rotina " + n);
+            batch.add(new ConsumerRecord<>(TOPIC, (int) (n % 6), n, event.id().toString(), event));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void listener() {
+        if (singleListener == null) {
+            batchListener.consume(batch);
+            return;
+        }
+        for (ConsumerRecord<String, ConsultationEvent> record : batch) {
+            singleListener.consume(record);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.fiap.itmoura.consultation_consumer.benchmark;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ConsultationService;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ConsultationRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Antes/depois do lembrete: entidades gerenciadas (findAllConsultationTomorrow) contra a projeção
+ * ConsultationReminder paginada por keyset, sobre um H2 em memória com {@code rows} consultas amanhã.
+ * Rodar com: ./gradlew jmh -PjmhIncludes=ReminderQueryBenchmark -PjmhProfilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ReminderQueryBenchmark {
+
+    @Param({"10000", "200000"})
+    private int rows;
+
+    @Param({"500"})
+    private int chunkSize;
+
+    private ConfigurableApplicationContext context;
+    private ConsultationService consultationService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("reminder_query");
+        consultationService = context.getBean(ConsultationService.class);
+        seed(context.getBean(ConsultationRepository.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int managedEntities() {
+        return consultationService.findAllConsultationTomorrow().size();
+    }
+
+    @Benchmark
+    public long keysetProjection(Blackhole blackhole) {
+        return consultationService.forEachReminderTomorrow(chunkSize, blackhole::consume);
+    }
+
+    private void seed(ConsultationRepository repository) {
+        LocalDateTime tomorrow = LocalDate.now().plusDays(1).atStartOfDay();
+        List<Consultation> batch = new ArrayList<>(1000);
+        for (int i = 0; i < rows; i++) {
+            Consultation consultation = new Consultation();
+            consultation.setStartDate(tomorrow.plusSeconds(i % 86_400));
+            consultation.setFinalDate(consultation.getStartDate().plusMinutes(30));
+            consultation.setStatus(ConsultationStatusEnum.SCHEDULED);
+            consultation.setDescription("Consulta de rotina " + i);
+            batch.add(consultation);
+            if (batch.size() == 1000) {
+                repository.upsertAll(batch);
+                batch.clear();
+            }
+        }
+        repository.upsertAll(batch);
+    }
+}
@@ -0,0 +1,172 @@
+package com.fiap.itmoura.consultation_consumer.loadtest;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ConsultationConsumerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Produz eventos no broker embutido e acompanha, a cada segundo, a vazão produzida e consumida e o lag do grupo.
+ * Com {@code --step} a taxa sobe em degraus até o lag passar a crescer (ou o gerador não sustentar a taxa), e a
+ * maior taxa aceita é a vazão máxima sustentada; sem ele a taxa fica fixa por {@code --duration} (soak).
+ */
+final class ConsumeSoak {
+
+    private static final Duration SAMPLE = Duration.ofSeconds(1);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(2);
+
+    private final MeterRegistry meterRegistry;
+    private final String bootstrapServers;
+    private final ConsultationConsumerProperties consumerProperties;
+    private final LoadTestOptions options;
+    private final long startedAt = System.nanoTime();
+
+    private record Step(int rate, double produced, double consumed, boolean lagGrowing, String latency, String fetch) {
+
+        boolean sustained() {
+            // o gerador também tem limite: se ele não entregou a taxa, o degrau não prova nada sobre o consumer
+            return produced >= rate * 0.95 && !lagGrowing;
+        }
+    }
+
+    /** Resultado do soak inteiro, usado na comparação de perfis de fetch. */
+    record Summary(String throughput, String latency, String fetch) {
+
+        @Override
+        public String toString() {
+            return throughput + "  " + latency + "  " + fetch;
+        }
+    }
+
+    ConsumeSoak(ConfigurableApplicationContext context, String bootstrapServers, LoadTestOptions options) {
+        this.meterRegistry = context.getBean(MeterRegistry.class);
+        this.bootstrapServers = bootstrapServers;
+        this.consumerProperties = context.getBean(ConsultationConsumerProperties.class);
+        this.options = options;
+    }
+
+    Summary run() throws Exception {
+        String topic = consumerProperties.getTopic();
+        System.out.printf("consume: mode=%s fetch-profile=%s partitions=%d keys=%d skew=%.2f payload=%dB format=%s compression=%s%n",
+            options.mode(), consumerProperties.getFetchProfile(), options.partitions(), options.keys(), options.skew(),
+            options.payloadBytes(), options.format(), options.compression());
+        List<Step> steps = new ArrayList<>();
+        LatencyWindow overall = LatencyWindow.start(endToEnd(topic));
+        FetchStats overallFetch = FetchStats.start(meterRegistry, consumerProperties.getGroupId());
+        try (TrafficGenerator generator = new TrafficGenerator(bootstrapServers, topic, options);
+             ConsumerLagProbe lag = new ConsumerLagProbe(bootstrapServers, consumerProperties.getGroupId(), topic,
+                 options.partitions())) {
+            if (options.ramp()) {
+                for (int rate = options.rate(); rate <= options.maxRate(); rate += options.step()) {
+                    Step step = observe(generator, lag, topic, rate, options.stepDuration());
+                    steps.add(step);
+                    if (!step.sustained()) {
+                        break;
+                    }
+                }
+            } else {
+                steps.add(observe(generator, lag, topic, options.rate(), options.duration()));
+            }
+            generator.rate(0);
+            drain(lag);
+            System.out.printf("producer: acked=%d failed=%d%n", generator.acked(), generator.failed());
+        }
+        String fetch = overallFetch.summary();
+
+        System.out.println("--- end-to-end latency (produce -> processing done) ---");
+        for (Step step : steps) {
+            System.out.printf("%6d/s  produced=%.0f/s consumed=%.0f/s lag %s  %s%n        %s%n", step.rate(), step.produced(),
+                step.consumed(), step.lagGrowing() ? "growing" : "stable", step.latency(), step.fetch());
+        }
+        String latency = overall.summary(endToEnd(topic));
+        System.out.println("overall: " + latency);
+        System.out.println("overall fetch: " + fetch);
+        String throughput;
+        if (options.ramp()) {
+            OptionalInt best = steps.stream().filter(Step::sustained).mapToInt(Step::rate).max();
+            String maxSustained = best.isPresent() ? best.getAsInt() + " events/s" : "below " + options.rate() + " events/s";
+            System.out.println("max sustained throughput: " + maxSustained);
+            throughput = "max sustained " + maxSustained;
+        } else {
+            Step step = steps.get(0);
+            throughput = String.format("consumed=%.0f/s lag %s", step.consumed(), step.lagGrowing() ? "growing" : "stable");
+        }
+        return new Summary(throughput, latency, fetch);
+    }
+
+    private Step observe(TrafficGenerator generator, ConsumerLagProbe lag, String topic, int rate, Duration duration)
+        throws Exception {
+        generator.rate(rate);
+        LatencyWindow latency = LatencyWindow.start(endToEnd(topic));
+        FetchStats fetch = FetchStats.start(meterRegistry, consumerProperties.getGroupId());
+        long producedBefore = generator.acked();
+        double consumedBefore = consumed(topic);
+        long stepStartedAt = System.nanoTime();
+        long samples = Math.max(2, duration.dividedBy(SAMPLE));
+        List<Long> lagSamples = new ArrayList<>();
+        long lastProduced = producedBefore;
+        double lastConsumed = consumedBefore;
+        for (long i = 0; i < samples; i++) {
+            Thread.sleep(SAMPLE.toMillis());
+            long produced = generator.acked();
+            double consumed = consumed(topic);
+            long currentLag = lag.totalLag();
+            lagSamples.add(currentLag);
+            System.out.printf("t=%5ds target=%6d/s produced=%6d/s consumed=%6.0f/s lag=%d%n", elapsedSeconds(), rate,
+                produced - lastProduced, consumed - lastConsumed, currentLag);
+            lastProduced = produced;
+            lastConsumed = consumed;
+        }
+        double seconds = (System.nanoTime() - stepStartedAt) / 1e9;
+        return new Step(rate, (generator.acked() - producedBefore) / seconds, (consumed(topic) - consumedBefore) / seconds,
+            lagGrowing(lagSamples, rate), latency.summary(endToEnd(topic)), fetch.summary());
+    }
+
+    /**
+     * O lag cresce quando a tendência (mínimos quadrados) da segunda metade do degrau é positiva e o backlog
+     * final passa de {@code --lag-tolerance} segundos de produção; oscilações entre polls ficam abaixo disso.
+     */
+    private boolean lagGrowing(List<Long> samples, int rate) {
+        List<Long> tail = samples.subList(samples.size() / 2, samples.size());
+        double n = tail.size();
+        double meanX = (n - 1) / 2;
+        double meanY = tail.stream().mapToLong(Long::longValue).average().orElse(0);
+        double covariance = 0;
+        double variance = 0;
+        for (int x = 0; x < tail.size(); x++) {
+            covariance += (x - meanX) * (tail.get(x) - meanY);
+            variance += (x - meanX) * (x - meanX);
+        }
+        double slope = variance == 0 ? 0 : covariance / variance;
+        return slope > 0 && tail.get(tail.size() - 1) > rate * options.lagTolerance();
+    }
+
+    private void drain(ConsumerLagProbe lag) throws Exception {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        long remaining = lag.totalLag();
+        while (remaining > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(SAMPLE.toMillis());
+            remaining = lag.totalLag();
+        }
+        System.out.printf("drain: lag=%d after %ds%n", remaining, elapsedSeconds());
+    }
+
+    private double consumed(String topic) {
+        return meterRegistry.find("consultation.consumer.records").tag("topic", topic).counters().stream()
+            .mapToDouble(Counter::count).sum();
+    }
+
+    private Timer endToEnd(String topic) {
+        return meterRegistry.find("consultation.consumer.end_to_end").tag("topic", topic).timer();
+    }
+
+    private long elapsedSeconds() {
+        return (System.nanoTime() - startedAt) / 1_000_000_000L;
+    }
+}
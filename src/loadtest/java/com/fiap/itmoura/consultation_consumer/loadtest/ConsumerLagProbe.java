@@ -0,0 +1,48 @@
+package com.fiap.itmoura.consultation_consumer.loadtest;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lag do grupo medido no broker (fim de cada partição menos o offset commitado). Não depende do gauge
+ * {@code consultation.consumer.lag}, que congela enquanto os listeners estão pausados pelo backpressure.
+ */
+final class ConsumerLagProbe implements AutoCloseable {
+
+    private final Admin admin;
+    private final String groupId;
+    private final Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+
+    ConsumerLagProbe(String bootstrapServers, String groupId, String topic, int partitions) {
+        this.admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers));
+        this.groupId = groupId;
+        for (int partition = 0; partition < partitions; partition++) {
+            latest.put(new TopicPartition(topic, partition), OffsetSpec.latest());
+        }
+    }
+
+    long totalLag() throws ExecutionException, InterruptedException, TimeoutException {
+        Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId)
+            .partitionsToOffsetAndMetadata().get(5, TimeUnit.SECONDS);
+        long lag = 0;
+        for (var end : admin.listOffsets(latest).all().get(5, TimeUnit.SECONDS).entrySet()) {
+            OffsetAndMetadata position = committed.get(end.getKey());
+            lag += end.getValue().offset() - (position == null ? 0 : position.offset());
+        }
+        return lag;
+    }
+
+    @Override
+    public void close() {
+        admin.close();
+    }
+}
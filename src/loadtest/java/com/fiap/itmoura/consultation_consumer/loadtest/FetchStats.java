@@ -0,0 +1,70 @@
+package com.fiap.itmoura.consultation_consumer.loadtest;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collection;
+import java.util.function.Predicate;
+
+/**
+ * Estatísticas de fetch dos consumers do grupo entre dois instantes, a partir das métricas do cliente Kafka
+ * ({@code kafka.consumer.fetch.manager.*}, registradas pelo MicrometerConsumerListener). Os totais vêm da diferença
+ * dos contadores cumulativos; latência do fetch e ociosidade do poll são as médias móveis do próprio cliente.
+ */
+final class FetchStats {
+
+    private static final String FETCHES = "kafka.consumer.fetch.manager.fetch.total";
+    private static final String RECORDS = "kafka.consumer.fetch.manager.records.consumed.total";
+    private static final String BYTES = "kafka.consumer.fetch.manager.bytes.consumed.total";
+
+    private final MeterRegistry meterRegistry;
+    private final Predicate<Meter> groupConsumer;
+    private final long startedAt = System.nanoTime();
+    private final double fetchesBefore;
+    private final double recordsBefore;
+    private final double bytesBefore;
+
+    private FetchStats(MeterRegistry meterRegistry, String groupId) {
+        this.meterRegistry = meterRegistry;
+        // o client.id padrão é consumer-<group>-<n>; as métricas por tópico repetem os totais e ficam de fora
+        this.groupConsumer = meter -> {
+            String clientId = meter.getId().getTag("client.id");
+            return clientId != null && clientId.contains(groupId) && meter.getId().getTag("topic") == null;
+        };
+        this.fetchesBefore = total(FETCHES);
+        this.recordsBefore = total(RECORDS);
+        this.bytesBefore = total(BYTES);
+    }
+
+    static FetchStats start(MeterRegistry meterRegistry, String groupId) {
+        return new FetchStats(meterRegistry, groupId);
+    }
+
+    /** Ex.: {@code fetches=85/s records/fetch=117.6 kB/fetch=62.3 fetch-latency=12.4ms poll-idle=0.41}. */
+    String summary() {
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        double fetches = total(FETCHES) - fetchesBefore;
+        if (fetches <= 0) {
+            return "fetches=0";
+        }
+        return String.format("fetches=%.0f/s records/fetch=%.1f kB/fetch=%.1f fetch-latency=%.1fms poll-idle=%.2f",
+            fetches / seconds, (total(RECORDS) - recordsBefore) / fetches, (total(BYTES) - bytesBefore) / fetches / 1024,
+            mean("kafka.consumer.fetch.manager.fetch.latency.avg"), mean("kafka.consumer.poll.idle.ratio.avg"));
+    }
+
+    private double total(String name) {
+        return meters(name).stream().filter(FunctionCounter.class::isInstance)
+            .mapToDouble(meter -> ((FunctionCounter) meter).count()).sum();
+    }
+
+    private double mean(String name) {
+        return meters(name).stream().filter(Gauge.class::isInstance)
+            .mapToDouble(meter -> ((Gauge) meter).value()).filter(Double::isFinite).average().orElse(Double.NaN);
+    }
+
+    private Collection<Meter> meters(String name) {
+        return meterRegistry.find(name).meters().stream().filter(groupConsumer).toList();
+    }
+}
@@ -0,0 +1,62 @@
+package com.fiap.itmoura.consultation_consumer.loadtest;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Percentis de um timer entre dois instantes, pela diferença dos buckets cumulativos do histograma
+ * ({@code publishPercentileHistogram}). A precisão é a do bucket: o valor reportado é o limite superior dele.
+ * O timer só existe depois do primeiro registro processado, então o início pode ser vazio.
+ */
+final class LatencyWindow {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final HistogramSnapshot start;
+
+    private LatencyWindow(HistogramSnapshot start) {
+        this.start = start;
+    }
+
+    static LatencyWindow start(Timer timer) {
+        return new LatencyWindow(timer == null ? null : timer.takeSnapshot());
+    }
+
+    /** Ex.: {@code n=120000 mean=35.2ms p50<=28.6ms p99<=143.2ms p99.9<=357.9ms}. */
+    String summary(Timer timer) {
+        if (timer == null) {
+            return "n=0";
+        }
+        HistogramSnapshot end = timer.takeSnapshot();
+        long count = end.count() - (start == null ? 0 : start.count());
+        if (count == 0) {
+            return "n=0";
+        }
+        double total = end.total(TimeUnit.MILLISECONDS) - (start == null ? 0 : start.total(TimeUnit.MILLISECONDS));
+        StringBuilder summary = new StringBuilder(String.format("n=%d mean=%.1fms", count, total / count));
+        for (double quantile : QUANTILES) {
+            summary.append(" p").append(format(quantile * 100)).append(percentile(end, count, quantile));
+        }
+        return summary.toString();
+    }
+
+    private String percentile(HistogramSnapshot end, long count, double quantile) {
+        CountAtBucket[] after = end.histogramCounts();
+        CountAtBucket[] before = start == null ? null : start.histogramCounts();
+        long rank = (long) Math.ceil(quantile * count);
+        for (int i = 0; i < after.length; i++) {
+            double inWindow = after[i].count() - (before == null ? 0 : before[i].count());
+            if (inWindow >= rank) {
+                return "<=" + format(after[i].bucket(TimeUnit.MILLISECONDS)) + "ms";
+            }
+        }
+        return after.length == 0 ? "=?" : ">" + format(after[after.length - 1].bucket(TimeUnit.MILLISECONDS)) + "ms";
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format("%.1f", value);
+    }
+}
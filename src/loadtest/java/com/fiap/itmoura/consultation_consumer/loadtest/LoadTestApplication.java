@@ -0,0 +1,57 @@
+package com.fiap.itmoura.consultation_consumer.loadtest;
+
+import com.fiap.itmoura.consultation_consumer.ConsultationConsumerApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class LoadTestApplication {
+
+    private LoadTestApplication() {
+    }
+
+    // args de linha de comando têm precedência sobre o application.yml; os listeners sobem ligados ao broker embutido
+    static ConfigurableApplicationContext start(String bootstrapServers, LoadTestOptions options, String fetchProfile) {
+        List<String> args = new ArrayList<>(List.of(
+            "--spring.datasource.url=" + datasourceUrl(),
+            "--spring.datasource.driver-class-name=" + (usePostgres() ? "org.postgresql.Driver" : "org.h2.Driver"),
+            "--spring.datasource.username=" + System.getenv().getOrDefault("LOADTEST_DB_USER", usePostgres() ? "postgres" : "sa"),
+            "--spring.datasource.password=" + System.getenv().getOrDefault("LOADTEST_DB_PASSWORD", ""),
+            // no PostgreSQL o schema vem das migrações (partições e índices reais); no H2, do Hibernate
+            "--spring.flyway.enabled=" + usePostgres(),
+            "--spring.jpa.hibernate.ddl-auto=" + (usePostgres() ? "validate" : "create-drop"),
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect." + (usePostgres() ? "PostgreSQLDialect" : "H2Dialect"),
+            "--spring.jpa.properties.hibernate.format_sql=false",
+            "--spring.jpa.properties.hibernate.use_sql_comments=false",
+            "--spring.kafka.bootstrap-servers=" + bootstrapServers,
+            "--spring.kafka.consumer.auto-offset-reset=earliest",
+            "--spring.kafka.consumer.consultation.mode=" + options.mode(),
+            // só o consumer e o job são medidos: sem relay, sem cache e sem teto de envio
+            "--consultation.reminder.outbox.relay-enabled=false",
+            "--consultation.cache.enabled=false",
+            "--consultation.notification.rate-limits.email.permits-per-second=1000000000",
+            "--consultation.notification.rate-limits.email.burst=1000000000",
+            // backlog de minutos precisa caber nos buckets do histograma ponta a ponta
+            "--management.metrics.distribution.maximum-expected-value.consultation.consumer.end_to_end=10m",
+            "--logging.level.root=WARN"));
+        // vazio fica com o perfil padrão do application.yml
+        if (!fetchProfile.isEmpty()) {
+            args.add("--spring.kafka.consumer.consultation.fetch-profile=" + fetchProfile);
+        }
+        return new SpringApplicationBuilder(ConsultationConsumerApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(args.toArray(String[]::new));
+    }
+
+    // LOADTEST_DB_URL aponta para um PostgreSQL descartável (as migrações são aplicadas); sem ela, H2 em memória
+    static boolean usePostgres() {
+        return System.getenv("LOADTEST_DB_URL") != null;
+    }
+
+    private static String datasourceUrl() {
+        return usePostgres() ? System.getenv("LOADTEST_DB_URL") : "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1";
+    }
+}
@@ -0,0 +1,112 @@
+package com.fiap.itmoura.consultation_consumer.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opções do harness, no formato {@code --nome=valor}. Os padrões estão no README ("Teste de carga e soak").
+ */
+record LoadTestOptions(
+    String scenario,
+    String mode,
+    int partitions,
+    int rate,
+    int step,
+    Duration stepDuration,
+    int maxRate,
+    Duration duration,
+    int keys,
+    double skew,
+    int payloadBytes,
+    String format,
+    String compression,
+    String fetchProfile,
+    List<String> fetchProfiles,
+    double lagTolerance,
+    int seedRows,
+    int seedDays
+) {
+
+    private static final Set<String> SCENARIOS = Set.of("consume", "job", "all", "profiles");
+    private static final Set<String> FORMATS = Set.of("json", "binary");
+    private static final Set<String> COMPRESSIONS = Set.of("none", "gzip", "snappy", "lz4", "zstd");
+    private static final Set<String> NAMES = Set.of("scenario", "mode", "partitions", "rate", "step", "step-duration",
+        "max-rate", "duration", "keys", "skew", "payload-bytes", "format", "compression", "fetch-profile", "fetch-profiles",
+        "lag-tolerance", "seed-rows", "seed-days");
+
+    static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+            values.put(name, arg.substring(separator + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions(
+            values.getOrDefault("scenario", "consume"),
+            values.getOrDefault("mode", "batch"),
+            Integer.parseInt(values.getOrDefault("partitions", "6")),
+            Integer.parseInt(values.getOrDefault("rate", "2000")),
+            Integer.parseInt(values.getOrDefault("step", "0")),
+            DurationStyle.detectAndParse(values.getOrDefault("step-duration", "30s")),
+            Integer.parseInt(values.getOrDefault("max-rate", "50000")),
+            DurationStyle.detectAndParse(values.getOrDefault("duration", "2m")),
+            Integer.parseInt(values.getOrDefault("keys", "100000")),
+            Double.parseDouble(values.getOrDefault("skew", "0.99")),
+            Integer.parseInt(values.getOrDefault("payload-bytes", "512")),
+            values.getOrDefault("format", "json"),
+            values.getOrDefault("compression", "lz4"),
+            values.getOrDefault("fetch-profile", ""),
+            Arrays.stream(values.getOrDefault("fetch-profiles", "latency,throughput").split(","))
+                .map(String::trim).filter(profile -> !profile.isEmpty()).toList(),
+            Double.parseDouble(values.getOrDefault("lag-tolerance", "2")),
+            Integer.parseInt(values.getOrDefault("seed-rows", "3000000")),
+            Integer.parseInt(values.getOrDefault("seed-days", "30")));
+        if (!SCENARIOS.contains(options.scenario())) {
+            throw new IllegalArgumentException("--scenario must be one of " + SCENARIOS);
+        }
+        if (!FORMATS.contains(options.format())) {
+            throw new IllegalArgumentException("--format must be one of " + FORMATS);
+        }
+        if (!COMPRESSIONS.contains(options.compression())) {
+            throw new IllegalArgumentException("--compression must be one of " + COMPRESSIONS);
+        }
+        if (options.comparesFetchProfiles() && options.fetchProfiles().isEmpty()) {
+            throw new IllegalArgumentException("--fetch-profiles must name at least one profile");
+        }
+        if (options.rate() <= 0 || options.keys() <= 0 || options.partitions() <= 0 || options.seedDays() <= 0) {
+            throw new IllegalArgumentException("--rate, --keys, --partitions and --seed-days must be positive");
+        }
+        return options;
+    }
+
+    boolean comparesFetchProfiles() {
+        return "profiles".equals(scenario);
+    }
+
+    boolean runsConsume() {
+        return !"job".equals(scenario);
+    }
+
+    boolean runsJob() {
+        return !"consume".equals(scenario);
+    }
+
+    boolean ramp() {
+        return step > 0;
+    }
+}
@@ -0,0 +1,78 @@
+package com.fiap.itmoura.consultation_consumer.loadtest;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ConsultationConsumerProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Harness de carga e soak: broker Kafka embutido (KRaft, um nó) mais a aplicação inteira no mesmo processo.
+ * Rodar com: ./gradlew loadTest -PloadTestArgs="--rate=5000 --duration=10m"
+ */
+public final class LoadTestRunner {
+
+    // mesmo tópico do application.yml; criado antes da aplicação para nascer com --partitions partições
+    private static final String CONSULTATION_TOPIC = "consultation.service.request.topic.scheduling";
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, options.partitions(), CONSULTATION_TOPIC);
+        broker.afterPropertiesSet();
+        int exitCode = 0;
+        try {
+            if (options.comparesFetchProfiles()) {
+                compareFetchProfiles(broker.getBrokersAsString(), options);
+            } else {
+                run(broker.getBrokersAsString(), options);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            broker.destroy();
+        }
+        // threads não-daemon do Kafka e do scheduler não podem segurar o JavaExec
+        System.exit(exitCode);
+    }
+
+    private static void run(String bootstrapServers, LoadTestOptions options) throws Exception {
+        try (ConfigurableApplicationContext context = LoadTestApplication.start(bootstrapServers, options, options.fetchProfile())) {
+            checkTopic(context);
+            if (options.runsConsume()) {
+                new ConsumeSoak(context, bootstrapServers, options).run();
+            }
+            if (options.runsJob()) {
+                new ReminderJobSoak(context, options).run();
+            }
+        }
+    }
+
+    /**
+     * Mesma carga para cada perfil de {@code --fetch-profiles}, cada um numa aplicação nova sobre o mesmo broker e
+     * grupo: o perfil seguinte começa do offset em que o anterior terminou de drenar.
+     */
+    private static void compareFetchProfiles(String bootstrapServers, LoadTestOptions options) throws Exception {
+        Map<String, ConsumeSoak.Summary> results = new LinkedHashMap<>();
+        for (String profile : options.fetchProfiles()) {
+            System.out.println("=== fetch profile " + profile + " ===");
+            try (ConfigurableApplicationContext context = LoadTestApplication.start(bootstrapServers, options, profile)) {
+                checkTopic(context);
+                results.put(profile, new ConsumeSoak(context, bootstrapServers, options).run());
+            }
+        }
+        System.out.println("--- fetch profiles ---");
+        results.forEach((profile, summary) -> System.out.printf("%-12s %s%n", profile, summary));
+    }
+
+    private static void checkTopic(ConfigurableApplicationContext context) {
+        String topic = context.getBean(ConsultationConsumerProperties.class).getTopic();
+        if (!CONSULTATION_TOPIC.equals(topic)) {
+            throw new IllegalStateException("Consultation topic changed to " + topic + "; update LoadTestRunner");
+        }
+    }
+}
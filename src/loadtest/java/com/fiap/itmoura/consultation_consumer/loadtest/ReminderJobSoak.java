@@ -0,0 +1,81 @@
+package com.fiap.itmoura.consultation_consumer.loadtest;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.application.job.ConsultationScheduling;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ConsultationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Semeia {@code --seed-rows} consultas espalhadas por {@code --seed-days} dias em volta de amanhã e roda o job
+ * noturno uma vez, como às 23h: a consulta de amanhã percorre uma tabela grande, não só as linhas do dia.
+ */
+final class ReminderJobSoak {
+
+    private static final int SEED_BATCH = 5_000;
+
+    private final ConsultationRepository repository;
+    private final ConsultationScheduling scheduling;
+    private final MeterRegistry meterRegistry;
+    private final LoadTestOptions options;
+
+    ReminderJobSoak(ConfigurableApplicationContext context, LoadTestOptions options) {
+        this.repository = context.getBean(ConsultationRepository.class);
+        this.scheduling = context.getBean(ConsultationScheduling.class);
+        this.meterRegistry = context.getBean(MeterRegistry.class);
+        this.options = options;
+    }
+
+    void run() {
+        seed();
+        long startedAt = System.nanoTime();
+        scheduling.schedule();
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        double reminders = meterRegistry.get("consultation.reminder.job.reminders").counter().count();
+        System.out.println("--- nightly reminder job ---");
+        System.out.printf("rows=%d reminders=%.0f total=%dms (%.0f reminders/s) query=%.0fms dispatch=%.0fms%n",
+            options.seedRows(), reminders, millis, reminders * 1000 / Math.max(1, millis), phase("query"), phase("dispatch"));
+    }
+
+    private void seed() {
+        LocalDateTime tomorrow = LocalDate.now().plusDays(1).atStartOfDay();
+        int days = options.seedDays();
+        long startedAt = System.nanoTime();
+        List<Consultation> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < options.seedRows(); i++) {
+            // dia i % days em volta de amanhã; amanhã fica com seed-rows / seed-days linhas
+            LocalDateTime start = tomorrow.plusDays(i % days - days / 2).plusSeconds((i / days) % 86_400);
+            Consultation consultation = new Consultation();
+            consultation.setStartDate(start);
+            consultation.setFinalDate(start.plusMinutes(30));
+            consultation.setStatus(ConsultationStatusEnum.SCHEDULED);
+            consultation.setDescription("Consulta de rotina " + i);
+            batch.add(consultation);
+            if (batch.size() == SEED_BATCH) {
+                repository.upsertAll(batch);
+                batch.clear();
+            }
+            if ((i + 1) % 500_000 == 0) {
+                System.out.printf("seed: %d rows in %ds%n", i + 1, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt));
+            }
+        }
+        repository.upsertAll(batch);
+        System.out.printf("seed: %d rows over %d days in %ds%n", options.seedRows(), days,
+            TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt));
+    }
+
+    private double phase(String phase) {
+        Timer timer = meterRegistry.find("consultation.reminder.job.phase").tag("phase", phase).timer();
+        return timer == null ? 0 : timer.totalTime(TimeUnit.MILLISECONDS);
+    }
+}
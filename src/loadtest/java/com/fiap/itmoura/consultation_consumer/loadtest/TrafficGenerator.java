@@ -0,0 +1,140 @@
+package com.fiap.itmoura.consultation_consumer.loadtest;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization.ConsultationEventAvroCodec;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization.ConsultationEventDeserializer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publica eventos de consulta no tópico em uma taxa ajustável, de uma thread própria. Cada evento remarca uma
+ * das {@code keys} consultas (chave sorteada por {@link ZipfKeys}) para um horário diferente, então nenhum é
+ * descartado como duplicado pelo consumer. O timestamp do registro (CreateTime) é o instante do send. Com
+ * {@code --format=binary} os eventos vão no formato do {@link ConsultationEventAvroCodec}, com o header content-type.
+ */
+final class TrafficGenerator implements AutoCloseable {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final int MINUTES_PER_YEAR = 525_600;
+    private static final byte[] BINARY_CONTENT_TYPE = ConsultationEventAvroCodec.CONTENT_TYPE.getBytes(StandardCharsets.US_ASCII);
+    private static final AtomicInteger RUNS = new AtomicInteger();
+
+    private final KafkaProducer<String, byte[]> producer;
+    private final String topic;
+    private final boolean binary;
+    private final UUID[] ids;
+    private final String[] keys;
+    private final ZipfKeys zipf;
+    private final String padding;
+    // entra na descrição: na comparação de perfis cada geração de eventos é nova e não cai no dedup
+    private final int run = RUNS.incrementAndGet();
+    private final LocalDateTime base = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.MINUTES);
+    private final AtomicLong issued = new AtomicLong();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Thread thread;
+    private volatile Pace pace = new Pace(0, System.nanoTime(), 0);
+    private volatile boolean running = true;
+
+    // a taxa vale a partir de 'since', contando o que já tinha sido emitido até ali
+    private record Pace(int rate, long since, long issuedBefore) {
+    }
+
+    TrafficGenerator(String bootstrapServers, String topic, LoadTestOptions options) {
+        this.producer = new KafkaProducer<>(Map.of(
+            ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+            ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+            ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class,
+            ProducerConfig.ACKS_CONFIG, "1",
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, options.compression(),
+            ProducerConfig.LINGER_MS_CONFIG, 5,
+            ProducerConfig.BATCH_SIZE_CONFIG, 131_072,
+            ProducerConfig.BUFFER_MEMORY_CONFIG, 134_217_728L));
+        this.topic = topic;
+        this.binary = "binary".equals(options.format());
+        this.ids = new UUID[options.keys()];
+        this.keys = new String[options.keys()];
+        for (int i = 0; i < keys.length; i++) {
+            ids[i] = new UUID(0x10AD7E57L, i);
+            keys[i] = ids[i].toString();
+        }
+        this.zipf = new ZipfKeys(options.keys(), options.skew());
+        int unpadded = payload(0, 0, LocalDateTime.now(), "").length;
+        this.padding = "x".repeat(Math.max(0, options.payloadBytes() - unpadded));
+        this.thread = Thread.ofPlatform().name("load-generator").start(this::generate);
+    }
+
+    void rate(int rate) {
+        pace = new Pace(rate, System.nanoTime(), issued.get());
+    }
+
+    long acked() {
+        return acked.sum();
+    }
+
+    long failed() {
+        return failed.sum();
+    }
+
+    private void generate() {
+        SplittableRandom random = new SplittableRandom(42);
+        while (running) {
+            Pace current = pace;
+            long due = current.issuedBefore() + (long) ((System.nanoTime() - current.since()) / 1e9 * current.rate());
+            long next = issued.get();
+            if (next >= due) {
+                LockSupport.parkNanos(100_000);
+                continue;
+            }
+            int key = zipf.next(random);
+            ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, keys[key],
+                payload(next, key, base.plusMinutes(next % MINUTES_PER_YEAR), padding));
+            if (binary) {
+                record.headers().add(ConsultationEventDeserializer.CONTENT_TYPE_HEADER, BINARY_CONTENT_TYPE);
+            }
+            producer.send(record, (metadata, exception) -> {
+                if (exception == null) {
+                    acked.increment();
+                } else {
+                    failed.increment();
+                }
+            });
+            issued.incrementAndGet();
+        }
+    }
+
+    private byte[] payload(long sequence, int key, LocalDateTime start, String padding) {
+        if (binary) {
+            return ConsultationEventAvroCodec.encode(new ConsultationEvent(ids[key], start, start.plusMinutes(30),
+                ConsultationStatusEnum.SCHEDULED, "Consulta " + run + "." + sequence + padding));
+        }
+        return ("{\"id\":\"" + keys[key] + "\",\"startDate\":\"" + FORMAT.format(start) + "\",\"finalDate\":\""
+            + FORMAT.format(start.plusMinutes(30)) + "\",\"status\":\"SCHEDULED\",\"description\":\"Consulta " + run + "."
+            + sequence + padding + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        thread.join();
+        producer.flush();
+        producer.close();
+    }
+}
@@ -0,0 +1,30 @@
+package com.fiap.itmoura.consultation_consumer.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sorteia o índice de uma chave com probabilidade proporcional a {@code 1 / (rank + 1)^skew}: poucas consultas
+ * concentram a maior parte das remarcações, como em produção. Com skew 0 a distribuição é uniforme.
+ */
+final class ZipfKeys {
+
+    private final double[] cumulative;
+
+    ZipfKeys(int keys, double skew) {
+        cumulative = new double[keys];
+        double sum = 0;
+        for (int rank = 0; rank < keys; rank++) {
+            sum += 1 / Math.pow(rank + 1, skew);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < keys; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    int next(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
@@ -1,22 +1,69 @@
 package com.fiap.itmoura.consultation_consumer.scheduling.application.job;
 
 import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ConsultationService;
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ReminderOutboxService;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ReminderProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Log4j2
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "consultation.reminder.mode", havingValue = "cron", matchIfMissing = true)
 public class ConsultationScheduling {
 
     private final ConsultationService consultationService;
+    private final ReminderProperties reminderProperties;
+    private final ShardedReminderRunner shardedReminderRunner;
+    private final ReminderOutboxService reminderOutboxService;
+    private final MeterRegistry meterRegistry;
 
     @Scheduled(cron = "0 0 23 * * *", zone = "America/Sao_Paulo")
 //    @Scheduled(fixedDelay = 1000) caso queira testar a cada segundo
     public void schedule() {
-        System.out.println("===== SCHEDULING JOB =====");
-        System.out.println("===== LEMBRETE DE CONSULTA =====");
-        consultationService.findAllConsultationTomorrow().forEach(System.out::println);
-        System.out.println("===== FINALIZANDO JOB =====");
+        LocalDate day = LocalDate.now().plusDays(1);
+        log.info("Reminder job started for {}", day);
+        long startedAt = System.nanoTime();
+        AtomicLong dispatchNanos = new AtomicLong();
+        AtomicLong reminders = new AtomicLong();
+        // cada página vira uma transação: consultas marcadas como lembradas + linhas no outbox
+        Consumer<List<ConsultationReminder>> sendReminders = chunk -> {
+            long chunkStartedAt = System.nanoTime();
+            reminderOutboxService.record(chunk);
+            dispatchNanos.addAndGet(System.nanoTime() - chunkStartedAt);
+            reminders.addAndGet(chunk.size());
+        };
+        if (reminderProperties.getSharding().isEnabled()) {
+            shardedReminderRunner.run(day, sendReminders);
+        } else {
+            consultationService.forEachReminderTomorrow(reminderProperties.getChunkSize(), sendReminders);
+        }
+        // leitura e envio se alternam página a página; o que não foi envio é consulta (e lease dos shards)
+        long totalNanos = System.nanoTime() - startedAt;
+        phase("dispatch").record(dispatchNanos.get(), TimeUnit.NANOSECONDS);
+        phase("query").record(totalNanos - dispatchNanos.get(), TimeUnit.NANOSECONDS);
+        Counter.builder("consultation.reminder.job.reminders").register(meterRegistry).increment(reminders.get());
+        log.info("Reminder job finished for {}: {} reminders, query {} ms, dispatch {} ms", day, reminders.get(),
+            TimeUnit.NANOSECONDS.toMillis(totalNanos - dispatchNanos.get()), TimeUnit.NANOSECONDS.toMillis(dispatchNanos.get()));
+    }
+
+    private Timer phase(String phase) {
+        return Timer.builder("consultation.reminder.job.phase")
+            .description("Time spent by the nightly reminder job in each phase")
+            .tag("phase", phase)
+            .register(meterRegistry);
     }
 }
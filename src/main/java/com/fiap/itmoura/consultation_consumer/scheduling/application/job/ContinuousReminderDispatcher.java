@@ -0,0 +1,113 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.application.job;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ConsultationService;
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ReminderOutboxService;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ReminderProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderWatermark;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderWatermarkRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Alternativa ao job das 23h: a cada poucos segundos envia os lembretes das consultas que acabaram de
+ * entrar na janela de antecedência. O ponto (startDate, id) da última consulta tratada fica persistido em
+ * reminder_watermark, então um restart continua de onde parou, e o lock pessimista na linha do watermark
+ * impede que duas réplicas enviem o mesmo trecho.
+ *
+ * <p>Uma consulta marcada (ou remarcada) para antes do watermark já ficou para trás do keyset. Depois de avançar,
+ * cada volta varre também [agora, watermark] atrás de consultas com reminder_sent_at nulo.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "consultation.reminder.mode", havingValue = "continuous")
+public class ContinuousReminderDispatcher {
+
+    static final String WATERMARK = "reminder-dispatcher";
+
+    private final ConsultationService consultationService;
+    private final ReminderWatermarkRepository watermarkRepository;
+    private final ReminderProperties reminderProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ReminderOutboxService reminderOutboxService;
+
+    @Scheduled(fixedDelayString = "${consultation.reminder.continuous.poll-interval:PT5S}")
+    public void dispatch() {
+        ensureWatermark();
+
+        int chunkSize = reminderProperties.getChunkSize();
+        long sent = runChunks(() -> dispatchChunk(chunkSize), chunkSize);
+        long swept = runChunks(() -> sweepChunk(chunkSize), chunkSize);
+        if (sent > 0 || swept > 0) {
+            log.info("Continuous dispatcher sent {} reminders ({} behind the watermark)", sent + swept, swept);
+        }
+    }
+
+    private long runChunks(IntSupplier chunk, int chunkSize) {
+        int maxChunks = reminderProperties.getContinuous().getMaxChunksPerTick();
+        long total = 0;
+        for (int chunks = 0; chunks < maxChunks; chunks++) {
+            Integer handled = transactionTemplate.execute(status -> chunk.getAsInt());
+            total += handled == null ? 0 : handled;
+            // página incompleta: não há mais nada no intervalo
+            if (handled == null || handled < chunkSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int dispatchChunk(int chunkSize) {
+        ReminderWatermark watermark = watermarkRepository.lockByName(WATERMARK).orElseThrow();
+        LocalDateTime horizon = LocalDateTime.now().plus(reminderProperties.getLead());
+
+        List<ConsultationReminder> chunk = consultationService.findRemindersAfter(
+            watermark.getLastStartDate(), watermark.getLastId(), horizon, chunkSize);
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        // outbox e watermark avançam juntos na mesma transação
+        reminderOutboxService.record(chunk);
+        ConsultationReminder last = chunk.get(chunk.size() - 1);
+        watermark.setLastStartDate(last.startDate());
+        watermark.setLastId(last.id());
+        watermarkRepository.save(watermark);
+        return chunk.size();
+    }
+
+    private int sweepChunk(int chunkSize) {
+        ReminderWatermark watermark = watermarkRepository.lockByName(WATERMARK).orElseThrow();
+        List<ConsultationReminder> chunk = consultationService.findUnsentReminders(
+            LocalDateTime.now(), watermark.getLastStartDate(), chunkSize);
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        // o outbox marca reminder_sent_at, então a mesma consulta não volta na próxima página
+        reminderOutboxService.record(chunk);
+        return chunk.size();
+    }
+
+    private void ensureWatermark() {
+        if (watermarkRepository.existsById(WATERMARK)) {
+            return;
+        }
+        try {
+            // primeira execução: começa pelas consultas a partir de agora
+            watermarkRepository.saveAndFlush(new ReminderWatermark(WATERMARK, LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Reminder watermark already created by another node");
+        }
+    }
+}
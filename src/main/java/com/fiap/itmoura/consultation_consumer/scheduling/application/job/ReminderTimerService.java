@@ -0,0 +1,196 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.application.job;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ConsultationService;
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ReminderOutboxService;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationsSavedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ReminderProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.timer.HierarchicalTimingWheel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Dispara cada lembrete no instante startDate - lead a partir de um {@link HierarchicalTimingWheel} em memória,
+ * sem varrer o banco a cada ciclo. As consultas gravadas pelo consumer entram (ou saem) da roda via
+ * {@link ConsultationsSavedEvent}; no startup, e a cada resync, as consultas ainda sem lembrete em
+ * [agora, agora + lead + horizon] são recarregadas do repositório. A janela começa em agora para que um prazo
+ * vencido com o serviço fora do ar entre já expirado e saia no próximo tick.
+ */
+@Log4j2
+@Service
+@ConditionalOnProperty(name = "consultation.reminder.mode", havingValue = "timer")
+public class ReminderTimerService {
+
+    private final ConsultationService consultationService;
+    private final ReminderProperties reminderProperties;
+    private final ReminderOutboxService reminderOutboxService;
+    private final LongSupplier clock;
+    private final HierarchicalTimingWheel wheel;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public ReminderTimerService(ConsultationService consultationService, ReminderProperties reminderProperties,
+                                ReminderOutboxService reminderOutboxService) {
+        this(consultationService, reminderProperties, reminderOutboxService, System::currentTimeMillis);
+    }
+
+    ReminderTimerService(ConsultationService consultationService, ReminderProperties reminderProperties,
+                         ReminderOutboxService reminderOutboxService, LongSupplier clock) {
+        this.consultationService = consultationService;
+        this.reminderProperties = reminderProperties;
+        this.reminderOutboxService = reminderOutboxService;
+        this.clock = clock;
+        ReminderProperties.Timer timer = reminderProperties.getTimer();
+        this.wheel = new HierarchicalTimingWheel(timer.getTick().toMillis(), clock.getAsLong(), timer.getInitialCapacity());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+
+        long tick = reminderProperties.getTimer().getTick().toMillis();
+        long resync = reminderProperties.getTimer().getResyncInterval().toMillis();
+        // duas threads para que um resync longo não atrase os ticks
+        ticker = Executors.newScheduledThreadPool(2, Thread.ofPlatform().name("reminder-timer-", 0).daemon().factory());
+        ticker.scheduleAtFixedRate(this::safeTick, tick, tick, TimeUnit.MILLISECONDS);
+        ticker.scheduleWithFixedDelay(this::safeRebuild, resync, resync, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConsultationsSaved(ConsultationsSavedEvent event) {
+        long now = clock.getAsLong();
+        for (Consultation consultation : event.consultations()) {
+            register(consultation.getId(), consultation.getStartDate(), consultation.getStatus(), now);
+        }
+    }
+
+    void rebuild() {
+        long now = clock.getAsLong();
+        LocalDateTime from = toLocalDateTime(now);
+        LocalDateTime to = windowEnd(from);
+
+        long loaded = consultationService.forEachUnsentReminderBetween(from, to, reminderProperties.getChunkSize(),
+            chunk -> chunk.forEach(reminder -> register(reminder.id(), reminder.startDate(), reminder.status(), now)));
+        log.info("Reminder timer loaded {} consultations, {} pending", loaded, wheel.size());
+    }
+
+    void tick() {
+        long now = clock.getAsLong();
+        List<UUID> due = wheel.advanceTo(now);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        // a janela é a mesma que register aceita: o que cair fora dela sairia da roda de qualquer jeito
+        LocalDateTime startAfter = toLocalDateTime(now);
+        LocalDateTime startUntil = windowEnd(startAfter);
+        int chunkSize = reminderProperties.getChunkSize();
+        int sent = 0;
+        for (int from = 0; from < due.size(); from += chunkSize) {
+            List<UUID> ids = due.subList(from, Math.min(from + chunkSize, due.size()));
+            try {
+                sent += recordDue(consultationService.findRemindersByIds(ids, startAfter, startUntil), now);
+            } catch (RuntimeException e) {
+                // devolve o que falta para a roda; expira de novo no próximo tick
+                due.subList(from, due.size()).forEach(id -> wheel.schedule(id, now));
+                throw e;
+            }
+        }
+        log.info("Reminder timer wrote {} reminders to the outbox", sent);
+    }
+
+    private int recordDue(List<ConsultationReminder> reminders, long now) {
+        List<ConsultationReminder> dueReminders = new ArrayList<>(reminders.size());
+        for (ConsultationReminder reminder : reminders) {
+            // a consulta pode ter mudado no banco por fora deste consumer depois de entrar na roda
+            if (!isActive(reminder.status())) {
+                continue;
+            }
+            if (deadlineOf(reminder.startDate()) > now) {
+                register(reminder.id(), reminder.startDate(), reminder.status(), now);
+                continue;
+            }
+            dueReminders.add(reminder);
+        }
+        return dueReminders.isEmpty() ? 0 : reminderOutboxService.record(dueReminders);
+    }
+
+    int pendingReminders() {
+        return wheel.size();
+    }
+
+    private void register(UUID id, LocalDateTime startDate, ConsultationStatusEnum status, long now) {
+        if (id == null || startDate == null) {
+            return;
+        }
+        // prazo já vencido vai para o próximo tick da roda
+        long deadline = deadlineOf(startDate);
+        long horizonEnd = now + reminderProperties.getTimer().getHorizon().toMillis();
+        // consulta que já começou ou que ainda está fora da janela (o resync a pega depois)
+        if (!isActive(status) || !startDate.isAfter(toLocalDateTime(now)) || deadline > horizonEnd) {
+            wheel.cancel(id);
+            return;
+        }
+        wheel.schedule(id, deadline);
+    }
+
+    private LocalDateTime windowEnd(LocalDateTime from) {
+        return from.plus(reminderProperties.getLead()).plus(reminderProperties.getTimer().getHorizon());
+    }
+
+    private long deadlineOf(LocalDateTime startDate) {
+        return startDate.minus(reminderProperties.getLead()).atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+    }
+
+    private static boolean isActive(ConsultationStatusEnum status) {
+        return status != null && status.receivesReminder();
+    }
+
+    private void safeTick() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            log.error("Reminder timer tick failed", e);
+        }
+    }
+
+    private void safeRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Reminder timer resync failed", e);
+        }
+    }
+}
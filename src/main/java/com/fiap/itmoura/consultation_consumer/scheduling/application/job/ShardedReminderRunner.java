@@ -0,0 +1,149 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.application.job;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ConsultationService;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ReminderProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderShardLease;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderShardLeaseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Divide o dia de amanhã em fatias de horário (shards) coordenadas pela tabela reminder_shard_lease.
+ * Cada réplica pega shards livres com um UPDATE condicional, renova o lease a cada página processada e
+ * marca o shard como concluído no fim. Shards de réplicas que morreram voltam a ficar disponíveis quando
+ * o lease expira.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class ShardedReminderRunner {
+
+    private static final String DEFAULT_NODE_ID = defaultNodeId();
+
+    private final ConsultationService consultationService;
+    private final ReminderShardLeaseRepository leaseRepository;
+    private final ReminderProperties reminderProperties;
+
+    public long run(LocalDate day, Consumer<List<ConsultationReminder>> sink) {
+        ReminderProperties.Sharding sharding = reminderProperties.getSharding();
+        String owner = nodeId();
+        ensureShards(sharding.getShards());
+
+        LocalDateTime deadline = LocalDateTime.now().plus(sharding.getMaxWait());
+        long total = 0;
+        while (true) {
+            List<Integer> pending = leaseRepository.findPendingShards(day, sharding.getShards());
+            if (pending.isEmpty()) {
+                log.info("All {} reminder shards for {} are done ({} reminders sent by {})", sharding.getShards(), day, total, owner);
+                return total;
+            }
+
+            boolean progressed = false;
+            // cada réplica começa por um shard diferente para reduzir a disputa pelo mesmo lease
+            int offset = Math.floorMod(owner.hashCode(), pending.size());
+            for (int i = 0; i < pending.size(); i++) {
+                int shard = pending.get((offset + i) % pending.size());
+                LocalDateTime now = LocalDateTime.now();
+                if (leaseRepository.claim(shard, owner, day, now, now.plus(sharding.getLeaseDuration())) == 1) {
+                    total += processShard(shard, day, owner, sink);
+                    progressed = true;
+                }
+            }
+
+            if (!progressed) {
+                if (LocalDateTime.now().isAfter(deadline)) {
+                    log.warn("Giving up on {} reminder shards for {} still leased by other nodes", pending.size(), day);
+                    return total;
+                }
+                if (!sleep(sharding.getPollInterval())) {
+                    return total;
+                }
+            }
+        }
+    }
+
+    private long processShard(int shard, LocalDate day, String owner, Consumer<List<ConsultationReminder>> sink) {
+        ReminderProperties.Sharding sharding = reminderProperties.getSharding();
+        LocalDateTime startDate = sliceStart(day, shard, sharding.getShards());
+        LocalDateTime endDate = shard == sharding.getShards() - 1
+            ? day.atTime(LocalTime.MAX)
+            : sliceStart(day, shard + 1, sharding.getShards()).minusNanos(1_000);
+
+        try {
+            long sent = consultationService.forEachReminderBetween(startDate, endDate, reminderProperties.getChunkSize(), chunk -> {
+                sink.accept(chunk);
+                if (leaseRepository.renew(shard, owner, LocalDateTime.now().plus(sharding.getLeaseDuration())) == 0) {
+                    throw new LeaseLostException(shard);
+                }
+            });
+            leaseRepository.complete(shard, owner, day);
+            log.debug("Reminder shard {} [{} - {}] done with {} reminders", shard, startDate, endDate, sent);
+            return sent;
+        } catch (LeaseLostException e) {
+            log.warn("Lost lease of reminder shard {} while processing it; another node took over", shard);
+            return 0;
+        }
+    }
+
+    private void ensureShards(int shards) {
+        Set<Integer> existing = new HashSet<>();
+        leaseRepository.findAllById(IntStream.range(0, shards).boxed().toList())
+            .forEach(lease -> existing.add(lease.getShardId()));
+
+        for (int shard = 0; shard < shards; shard++) {
+            if (existing.contains(shard)) {
+                continue;
+            }
+            try {
+                leaseRepository.saveAndFlush(new ReminderShardLease(shard));
+            } catch (DataIntegrityViolationException e) {
+                // outra réplica criou o shard ao mesmo tempo
+                log.debug("Reminder shard {} already created by another node", shard);
+            }
+        }
+    }
+
+    private String nodeId() {
+        String configured = reminderProperties.getSharding().getNodeId();
+        return configured == null || configured.isBlank() ? DEFAULT_NODE_ID : configured;
+    }
+
+    static LocalDateTime sliceStart(LocalDate day, int shard, int shards) {
+        return day.atStartOfDay().plus(Duration.ofDays(1).multipliedBy(shard).dividedBy(shards));
+    }
+
+    private static boolean sleep(Duration interval) {
+        try {
+            Thread.sleep(interval.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host = System.getenv().getOrDefault("HOSTNAME", "node");
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static class LeaseLostException extends RuntimeException {
+        LeaseLostException(int shard) {
+            super("Lease lost for reminder shard " + shard);
+        }
+    }
+}
@@ -1,22 +1,157 @@
 package com.fiap.itmoura.consultation_consumer.scheduling.application.usecase;
 
 import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusChangedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusesChangedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationsSavedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.cache.UpcomingConsultationCache;
 import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ConsultationRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class ConsultationService {
 
     private final ConsultationRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UpcomingConsultationCache upcomingCache;
 
     public List<Consultation> findAllConsultationTomorrow() {
         return repository.findAllConsultationTomorrow(LocalDate.now().plusDays(1).atStartOfDay(), LocalDate.now().plusDays(1).atTime(LocalTime.MAX));
     }
 
+    /**
+     * Percorre os lembretes de amanhã em páginas de {@code chunkSize} usando keyset em (startDate, id).
+     * A consulta projeta direto em {@link ConsultationReminder}, então nenhuma entidade gerenciada nem
+     * snapshot de dirty-checking é criado; cada página roda num persistence context próprio e curto.
+     */
+    public long forEachReminderTomorrow(int chunkSize, Consumer<List<ConsultationReminder>> chunkConsumer) {
+        return forEachReminderBetween(LocalDate.now().plusDays(1).atStartOfDay(), LocalDate.now().plusDays(1).atTime(LocalTime.MAX),
+            chunkSize, chunkConsumer);
+    }
+
+    /**
+     * Mesmo contrato do keyset, mas servido pelo {@link UpcomingConsultationCache} quando ele cobre o intervalo;
+     * os chunks saem na mesma ordem (startDate, id) que viriam do banco.
+     */
+    public long forEachReminderBetween(LocalDateTime startDate, LocalDateTime endDate, int chunkSize,
+                                       Consumer<List<ConsultationReminder>> chunkConsumer) {
+        List<ConsultationReminder> cached = upcomingCache.findBetween(startDate, endDate).orElse(null);
+        if (cached != null) {
+            for (int from = 0; from < cached.size(); from += chunkSize) {
+                chunkConsumer.accept(cached.subList(from, Math.min(from + chunkSize, cached.size())));
+            }
+            return cached.size();
+        }
+
+        Pageable page = PageRequest.of(0, chunkSize);
+
+        long total = 0;
+        List<ConsultationReminder> chunk = repository.findFirstReminderChunk(startDate, endDate, page);
+        while (!chunk.isEmpty()) {
+            chunkConsumer.accept(chunk);
+            total += chunk.size();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            ConsultationReminder last = chunk.get(chunk.size() - 1);
+            chunk = repository.findNextReminderChunk(last.startDate(), last.id(), endDate, page);
+        }
+        return total;
+    }
+
+    /**
+     * Percorre por keyset só as consultas ativas ainda sem lembrete. Vai sempre ao banco: o cache não sabe quais
+     * já foram lembradas.
+     */
+    public long forEachUnsentReminderBetween(LocalDateTime startDate, LocalDateTime endDate, int chunkSize,
+                                             Consumer<List<ConsultationReminder>> chunkConsumer) {
+        Pageable page = PageRequest.of(0, chunkSize);
+
+        long total = 0;
+        List<ConsultationReminder> chunk = repository.findUnsentReminderChunk(startDate, endDate, page);
+        while (!chunk.isEmpty()) {
+            chunkConsumer.accept(chunk);
+            total += chunk.size();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            ConsultationReminder last = chunk.get(chunk.size() - 1);
+            chunk = repository.findNextUnsentReminderChunk(last.startDate(), last.id(), endDate, page);
+        }
+        return total;
+    }
+
+    public List<ConsultationReminder> findRemindersAfter(LocalDateTime lastStartDate, UUID lastId, LocalDateTime endDate, int chunkSize) {
+        Pageable page = PageRequest.of(0, chunkSize);
+        return lastId == null
+            ? repository.findFirstReminderChunk(lastStartDate, endDate, page)
+            : repository.findNextReminderChunk(lastStartDate, lastId, endDate, page);
+    }
+
+    public List<ConsultationReminder> findUnsentReminders(LocalDateTime startDate, LocalDateTime endDate, int chunkSize) {
+        return repository.findUnsentReminderChunk(startDate, endDate, PageRequest.of(0, chunkSize));
+    }
+
+    /**
+     * Busca por id só dentro de (startAfter, startUntil]: sem a faixa de start_date o IN sonda o índice de todas as
+     * partições de consultation.
+     */
+    public List<ConsultationReminder> findRemindersByIds(Collection<UUID> ids, LocalDateTime startAfter, LocalDateTime startUntil) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return repository.findRemindersByIds(ids, startAfter, startUntil);
+    }
+
+    @Transactional
+    public int saveAll(List<Consultation> consultations) {
+        if (consultations.isEmpty()) {
+            return 0;
+        }
+        int persisted = repository.upsertAll(consultations);
+        eventPublisher.publishEvent(new ConsultationsSavedEvent(consultations));
+        return persisted;
+    }
+
+    /**
+     * Aplica mudanças de status com UPDATE direto, sem carregar nem salvar entidades. Dentro do lote o último
+     * evento de cada consulta vence; os UPDATEs seguem a ordem dos ids para que lotes concorrentes não entrem em
+     * deadlock. As mudanças que alteraram uma linha são publicadas para o cache aplicar no commit. Devolve os ids
+     * cujo status mudou.
+     */
+    @Transactional
+    public List<UUID> updateStatuses(List<ConsultationStatusChangedEvent> changes) {
+        if (changes.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, ConsultationStatusChangedEvent> latest = new TreeMap<>();
+        changes.forEach(change -> latest.put(change.id(), change));
+        List<UUID> updated = repository.updateStatuses(List.copyOf(latest.values()));
+        if (!updated.isEmpty()) {
+            Set<UUID> changed = new HashSet<>(updated);
+            eventPublisher.publishEvent(new ConsultationStatusesChangedEvent(
+                latest.values().stream().filter(change -> changed.contains(change.id())).toList()));
+        }
+        return updated;
+    }
+
 }
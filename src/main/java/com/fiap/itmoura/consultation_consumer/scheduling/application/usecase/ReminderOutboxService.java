@@ -0,0 +1,69 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.application.usecase;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Notification;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.NotificationTypeEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ConsultationRepository;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderOutboxEntry;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class ReminderOutboxService {
+
+    private final ConsultationRepository consultationRepository;
+    private final ReminderOutboxRepository outboxRepository;
+
+    /**
+     * Grava no outbox os lembretes das consultas ainda não lembradas e as marca como lembradas na mesma transação.
+     * Reprocessar um trecho (restart no meio do job, outra réplica) não gera lembrete duplicado; o envio de fato
+     * fica com o {@code ReminderOutboxRelay}.
+     */
+    @Transactional
+    public int record(List<ConsultationReminder> reminders) {
+        if (reminders.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        // ordem fixa de travamento para que dois jobs com trechos sobrepostos não entrem em deadlock
+        Map<UUID, ConsultationReminder> byId = new TreeMap<>();
+        reminders.forEach(reminder -> byId.putIfAbsent(reminder.id(), reminder));
+        Set<UUID> marked = new HashSet<>(consultationRepository.markReminderSent(List.copyOf(byId.values()), now));
+
+        List<ReminderOutboxEntry> entries = reminders.stream()
+            .filter(reminder -> marked.remove(reminder.id()))
+            .map(reminder -> new ReminderOutboxEntry(null, reminder.id(), NotificationTypeEnum.REMINDER,
+                Notification.reminder(reminder).content(), now))
+            .toList();
+        outboxRepository.appendAll(entries);
+        return entries.size();
+    }
+
+    /**
+     * Grava no outbox as confirmações das consultas recebidas. Roda na transação do {@code ConsultationEventProcessor},
+     * então a confirmação só existe se a consulta foi gravada e não se perde num crash antes do envio.
+     */
+    @Transactional
+    public int recordConfirmations(List<Consultation> consultations) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ReminderOutboxEntry> entries = consultations.stream()
+            .map(consultation -> new ReminderOutboxEntry(null, consultation.getId(), NotificationTypeEnum.CONFIRMATION,
+                Notification.confirmation(consultation).content(), now))
+            .toList();
+        outboxRepository.appendAll(entries);
+        return entries.size();
+    }
+}
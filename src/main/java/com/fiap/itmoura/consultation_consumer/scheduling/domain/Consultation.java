@@ -45,4 +45,8 @@ public class Consultation {
     @Column
     private String description;
 
+    // preenchido na mesma transação que grava o lembrete no outbox; volta a null se a consulta for remarcada
+    @Column
+    private LocalDateTime reminderSentAt;
+
 }
\ No newline at end of file
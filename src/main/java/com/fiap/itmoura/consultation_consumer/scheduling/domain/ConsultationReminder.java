@@ -0,0 +1,14 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.domain;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ConsultationReminder(
+    UUID id,
+    LocalDateTime startDate,
+    LocalDateTime finalDate,
+    ConsultationStatusEnum status
+) {
+}
@@ -0,0 +1,20 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.domain;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.NotificationTypeEnum;
+
+import java.util.UUID;
+
+public record Notification(
+    NotificationTypeEnum type,
+    UUID consultationId,
+    String content
+) {
+
+    public static Notification confirmation(Consultation consultation) {
+        return new Notification(NotificationTypeEnum.CONFIRMATION, consultation.getId(), consultation.toString());
+    }
+
+    public static Notification reminder(ConsultationReminder reminder) {
+        return new Notification(NotificationTypeEnum.REMINDER, reminder.id(), reminder.toString());
+    }
+}
@@ -12,4 +12,9 @@ public enum ConsultationStatusEnum {
     COMPLETED("COMPLETED");
 
     private final String status;
+
+    // mesmo critério das consultas de lembrete do ConsultationRepository
+    public boolean receivesReminder() {
+        return this == SCHEDULED || this == CONFIRMED;
+    }
 }
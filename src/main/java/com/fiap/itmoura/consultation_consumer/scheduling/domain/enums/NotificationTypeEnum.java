@@ -0,0 +1,13 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum NotificationTypeEnum {
+    CONFIRMATION("CONFIRMATION"),
+    REMINDER("REMINDER");
+
+    private final String type;
+}
@@ -0,0 +1,26 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.domain.event;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ConsultationEvent(
+    UUID id,
+    LocalDateTime startDate,
+    LocalDateTime finalDate,
+    ConsultationStatusEnum status,
+    String description
+) {
+
+    public Consultation toConsultation() {
+        Consultation consultation = new Consultation();
+        consultation.setId(id);
+        consultation.setStartDate(startDate);
+        consultation.setFinalDate(finalDate);
+        consultation.setStatus(status);
+        consultation.setDescription(description);
+        return consultation;
+    }
+}
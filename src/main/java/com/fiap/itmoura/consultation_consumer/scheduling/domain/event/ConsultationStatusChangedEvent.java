@@ -0,0 +1,17 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.domain.event;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Mudança só de status (confirmação, cancelamento, conclusão). O startDate é opcional: quando vem, o UPDATE
+ * vai direto à partição da consulta.
+ */
+public record ConsultationStatusChangedEvent(
+    UUID id,
+    LocalDateTime startDate,
+    ConsultationStatusEnum status
+) {
+}
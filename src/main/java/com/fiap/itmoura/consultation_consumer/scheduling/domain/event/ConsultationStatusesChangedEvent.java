@@ -0,0 +1,7 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.domain.event;
+
+import java.util.List;
+
+// publicado pelo ConsultationService com as mudanças de status que de fato alteraram uma linha
+public record ConsultationStatusesChangedEvent(List<ConsultationStatusChangedEvent> changes) {
+}
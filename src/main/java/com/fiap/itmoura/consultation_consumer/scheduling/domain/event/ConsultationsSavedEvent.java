@@ -0,0 +1,9 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.domain.event;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+
+import java.util.List;
+
+// publicado pelo ConsultationService depois que um lote de consultas é gravado
+public record ConsultationsSavedEvent(List<Consultation> consultations) {
+}
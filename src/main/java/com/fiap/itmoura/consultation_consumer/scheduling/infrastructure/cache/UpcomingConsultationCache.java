@@ -0,0 +1,418 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.cache;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusChangedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusesChangedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationsSavedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ConsultationCacheProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ConsultationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Near-cache das consultas ativas (SCHEDULED/CONFIRMED) de agora até agora + {@code horizon}, ordenadas por
+ * (startDate, id) como nas consultas de lembrete, para que "os lembretes de amanhã" sejam um recorte da skip list
+ * em vez de uma ida ao PostgreSQL.
+ *
+ * <p>O cache só responde quando sabe que está completo para o intervalo pedido: dentro da janela carregada, com
+ * o snapshot mais novo que {@code ttl} e sem invalidação pendente; nos outros casos devolve vazio e quem chama vai
+ * ao banco. Só gravações confirmadas desta instância ({@link ConsultationsSavedEvent} e
+ * {@link ConsultationStatusesChangedEvent}) escrevem valores no snapshot; um evento visto no Kafka (via {@link UpcomingConsultationCacheInvalidator}) ainda pode ser descartado,
+ * reprocessado ou perder para um mais novo no banco, então ele só invalida o cache quando mudaria a resposta. A
+ * cada {@code reconcileInterval} o snapshot é recarregado do {@link ConsultationRepository}; a diferença entre o
+ * snapshot antigo e o novo vai para a métrica de drift. Com mais de {@code maxSize} consultas, as mais distantes
+ * saem e a janela coberta encolhe.
+ */
+@Log4j2
+@Component
+public class UpcomingConsultationCache {
+
+    private static final int LOAD_CHUNK = 1000;
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    private final ConsultationRepository repository;
+    private final ConsultationCacheProperties properties;
+    private final LongSupplier clock;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final Object writeLock = new Object();
+    // uma recarga por vez (agendada, após invalidação ou no warm-up)
+    private final Object reloadLock = new Object();
+    private volatile Snapshot snapshot;
+    // cada invalidação avança a geração; um snapshot só vale se foi carregado depois da última
+    private final AtomicLong generation = new AtomicLong();
+    // operações recebidas durante uma recarga, reaplicadas no snapshot novo antes da troca
+    private List<Consumer<Snapshot>> journal;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter invalidations;
+    private final DistributionSummary drift;
+
+    @Autowired
+    public UpcomingConsultationCache(ConsultationRepository repository, ConsultationCacheProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this(repository, properties, meterRegistry, System::currentTimeMillis);
+    }
+
+    UpcomingConsultationCache(ConsultationRepository repository, ConsultationCacheProperties properties,
+                              MeterRegistry meterRegistry, LongSupplier clock) {
+        this.repository = repository;
+        this.properties = properties;
+        this.clock = clock;
+
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.sizeEvictions = Counter.builder("consultation.cache.evictions").tag("cause", "size").register(meterRegistry);
+        this.invalidations = Counter.builder("consultation.cache.invalidations").register(meterRegistry);
+        this.drift = DistributionSummary.builder("consultation.cache.reconcile.drift")
+            .description("Entries that differed between the cached and the reloaded snapshot")
+            .register(meterRegistry);
+        Gauge.builder("consultation.cache.size", this, UpcomingConsultationCache::size).register(meterRegistry);
+        Gauge.builder("consultation.cache.hit_ratio", this, UpcomingConsultationCache::hitRatio).register(meterRegistry);
+    }
+
+    /**
+     * Consultas ativas com startDate em [from, to], na ordem (startDate, id); vazio se o cache não puder
+     * garantir o intervalo inteiro.
+     */
+    public Optional<List<ConsultationReminder>> findBetween(LocalDateTime from, LocalDateTime to) {
+        Snapshot current = snapshot;
+        if (!covers(current, from, to)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(List.copyOf(current.byStart.subMap(new Key(from, MIN_ID), true, new Key(to, MAX_ID), true).values()));
+    }
+
+    /** Gravação confirmada da consulta (criação, remarcação, atualização ou cancelamento). */
+    public void apply(ConsultationReminder consultation) {
+        if (consultation.id() == null) {
+            // id só existe depois da gravação: não há como saber qual linha mudou
+            invalidate();
+            return;
+        }
+        write(s -> put(s, consultation));
+    }
+
+    /** Gravações desta instância entram já no commit, sem esperar o evento voltar pelo Kafka. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConsultationsSaved(ConsultationsSavedEvent event) {
+        for (Consultation consultation : event.consultations()) {
+            apply(new ConsultationReminder(consultation.getId(), consultation.getStartDate(), consultation.getFinalDate(),
+                consultation.getStatus()));
+        }
+    }
+
+    /**
+     * Mudanças de status gravadas por esta instância. Quem está no cache recebe o status novo; uma consulta que
+     * volta a ficar ativa dentro da janela invalida, porque o evento não traz finalDate.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusesChanged(ConsultationStatusesChangedEvent event) {
+        for (ConsultationStatusChangedEvent change : event.changes()) {
+            applyStatus(change.id(), change.startDate(), change.status());
+        }
+    }
+
+    /** Evento completo visto no Kafka; invalida se o cache responderia diferente com ele aplicado. */
+    public void invalidateIfChanged(ConsultationReminder consultation) {
+        Snapshot current = snapshot;
+        if (!properties.isEnabled() || current == null) {
+            return;
+        }
+        if (consultation.id() == null) {
+            invalidate();
+            return;
+        }
+        ConsultationReminder cached = cached(current, consultation.id());
+        boolean belongs = isActive(consultation.status()) && current.contains(consultation.startDate());
+        if (cached == null ? belongs : !cached.equals(consultation)) {
+            invalidate();
+        }
+    }
+
+    /** Mudança só de status vista no Kafka; startDate pode ser nulo. */
+    public void invalidateStatusIfChanged(UUID id, LocalDateTime startDate, ConsultationStatusEnum status) {
+        Snapshot current = snapshot;
+        if (!properties.isEnabled() || current == null) {
+            return;
+        }
+        ConsultationReminder cached = cached(current, id);
+        boolean changed = cached != null
+            ? cached.status() != status
+            : isActive(status) && (startDate == null || current.contains(startDate));
+        if (changed) {
+            invalidate();
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        invalidations.increment();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("Upcoming consultation cache warm-up failed, reads fall back to the database", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${consultation.cache.reconcile-interval:PT5M}")
+    public void reconcile() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        synchronized (reloadLock) {
+            reload();
+        }
+    }
+
+    private void reload() {
+        long now = clock.getAsLong();
+        LocalDateTime from = toLocalDateTime(now);
+        long loadedGeneration;
+        synchronized (writeLock) {
+            journal = new ArrayList<>();
+            loadedGeneration = generation.get();
+        }
+        Snapshot fresh;
+        try {
+            fresh = load(from, from.plus(properties.getHorizon()), now, loadedGeneration);
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                journal = null;
+            }
+            throw e;
+        }
+
+        int changed;
+        synchronized (writeLock) {
+            journal.forEach(operation -> operation.accept(fresh));
+            journal = null;
+            changed = snapshot == null ? 0 : drift(snapshot, fresh);
+            snapshot = fresh;
+        }
+        drift.record(changed);
+        log.info("Upcoming consultation cache reconciled: {} consultations until {}, {} drifted",
+            fresh.byStart.size(), fresh.coveredUntil, changed);
+    }
+
+    @Scheduled(fixedDelayString = "${consultation.cache.invalidated-refresh-delay:PT30S}")
+    public void refreshIfInvalidated() {
+        Snapshot current = snapshot;
+        // sem snapshot: o warm-up falhou e o banco pode ter voltado
+        if (current == null || current.generation != generation.get()) {
+            reconcile();
+        }
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.byStart.size();
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private boolean covers(Snapshot current, LocalDateTime from, LocalDateTime to) {
+        return properties.isEnabled()
+            && current != null
+            && current.generation == generation.get()
+            && clock.getAsLong() - current.loadedAt <= properties.getTtl().toMillis()
+            && !from.isBefore(current.coveredFrom)
+            && to.isBefore(current.coveredUntil);
+    }
+
+    private void write(Consumer<Snapshot> operation) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (journal != null) {
+                journal.add(operation);
+            }
+            if (snapshot != null) {
+                operation.accept(snapshot);
+            }
+        }
+    }
+
+    private void put(Snapshot s, ConsultationReminder consultation) {
+        Key previous = s.keys.remove(consultation.id());
+        if (previous != null) {
+            s.byStart.remove(previous);
+        }
+        if (!isActive(consultation.status()) || !s.contains(consultation.startDate())) {
+            return;
+        }
+        Key key = new Key(consultation.startDate(), consultation.id());
+        s.byStart.put(key, consultation);
+        s.keys.put(consultation.id(), key);
+        while (s.byStart.size() > properties.getMaxSize()) {
+            shrinkTo(s, s.byStart.lastKey().startDate());
+        }
+    }
+
+    private void applyStatus(UUID id, LocalDateTime startDate, ConsultationStatusEnum status) {
+        Snapshot current = snapshot;
+        if (properties.isEnabled() && current != null && cached(current, id) == null
+            && isActive(status) && (startDate == null || current.contains(startDate))) {
+            invalidate();
+        }
+        // também vai para o journal: uma recarga em andamento pode ter lido o status anterior ao commit
+        write(s -> {
+            ConsultationReminder cached = cached(s, id);
+            if (cached != null) {
+                put(s, new ConsultationReminder(id, cached.startDate(), cached.finalDate(), status));
+            }
+        });
+    }
+
+    // a janela passa a terminar (exclusive) em until; o que estiver dali em diante sai do cache
+    private void shrinkTo(Snapshot s, LocalDateTime until) {
+        ConcurrentNavigableMap<Key, ConsultationReminder> tail = s.byStart.tailMap(new Key(until, MIN_ID), true);
+        int evicted = tail.size();
+        tail.keySet().forEach(key -> s.keys.remove(key.id()));
+        tail.clear();
+        s.coveredUntil = until;
+        sizeEvictions.increment(evicted);
+    }
+
+    private static ConsultationReminder cached(Snapshot s, UUID id) {
+        Key key = s.keys.get(id);
+        return key == null ? null : s.byStart.get(key);
+    }
+
+    private static boolean isActive(ConsultationStatusEnum status) {
+        return status != null && status.receivesReminder();
+    }
+
+    private Snapshot load(LocalDateTime from, LocalDateTime until, long now, long loadedGeneration) {
+        Snapshot fresh = new Snapshot(from, until, now, loadedGeneration);
+        Pageable page = PageRequest.of(0, LOAD_CHUNK);
+        List<ConsultationReminder> chunk = repository.findFirstReminderChunk(from, until, page);
+        while (!chunk.isEmpty()) {
+            for (ConsultationReminder consultation : chunk) {
+                Key key = new Key(consultation.startDate(), consultation.id());
+                fresh.byStart.put(key, consultation);
+                fresh.keys.put(consultation.id(), key);
+            }
+            if (fresh.byStart.size() > properties.getMaxSize()) {
+                shrinkTo(fresh, fresh.byStart.lastKey().startDate());
+                break;
+            }
+            if (chunk.size() < LOAD_CHUNK) {
+                break;
+            }
+            ConsultationReminder last = chunk.get(chunk.size() - 1);
+            chunk = repository.findNextReminderChunk(last.startDate(), last.id(), until, page);
+        }
+        return fresh;
+    }
+
+    private static int drift(Snapshot previous, Snapshot fresh) {
+        LocalDateTime until = previous.coveredUntil.isBefore(fresh.coveredUntil) ? previous.coveredUntil : fresh.coveredUntil;
+        Key from = new Key(fresh.coveredFrom, MIN_ID);
+        Key to = new Key(until, MIN_ID);
+        Map<Key, ConsultationReminder> before = previous.byStart.subMap(from, to);
+        Map<Key, ConsultationReminder> after = fresh.byStart.subMap(from, to);
+
+        int changed = 0;
+        for (Map.Entry<Key, ConsultationReminder> entry : after.entrySet()) {
+            if (!Objects.equals(before.get(entry.getKey()), entry.getValue())) {
+                changed++;
+            }
+        }
+        for (Key key : before.keySet()) {
+            if (!after.containsKey(key)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("consultation.cache.requests")
+            .description("Upcoming consultation lookups served from memory or sent to the database")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    // ordem de uuid sem sinal, a mesma do PostgreSQL, para que o recorte bata com o keyset das consultas
+    private record Key(LocalDateTime startDate, UUID id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byStart = startDate.compareTo(other.startDate);
+            if (byStart != 0) {
+                return byStart;
+            }
+            int byHigh = Long.compareUnsigned(id.getMostSignificantBits(), other.id.getMostSignificantBits());
+            return byHigh != 0 ? byHigh : Long.compareUnsigned(id.getLeastSignificantBits(), other.id.getLeastSignificantBits());
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final ConcurrentSkipListMap<Key, ConsultationReminder> byStart = new ConcurrentSkipListMap<>();
+        private final Map<UUID, Key> keys = new ConcurrentHashMap<>();
+        private final LocalDateTime coveredFrom;
+        private final long loadedAt;
+        private final long generation;
+        // exclusive
+        private volatile LocalDateTime coveredUntil;
+
+        private Snapshot(LocalDateTime coveredFrom, LocalDateTime coveredUntil, long loadedAt, long generation) {
+            this.coveredFrom = coveredFrom;
+            this.coveredUntil = coveredUntil;
+            this.loadedAt = loadedAt;
+            this.generation = generation;
+        }
+
+        private boolean contains(LocalDateTime startDate) {
+            return startDate != null && !startDate.isBefore(coveredFrom) && startDate.isBefore(coveredUntil);
+        }
+    }
+}
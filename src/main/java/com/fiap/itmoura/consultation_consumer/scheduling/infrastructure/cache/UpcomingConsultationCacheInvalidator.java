@@ -0,0 +1,124 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.cache;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusChangedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ConsultationConsumerProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization.ConsultationEventDeserializer;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization.ConsultationStatusEventDeserializer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.support.TopicPartitionOffset;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Invalida o {@link UpcomingConsultationCache} quando um evento dos tópicos de consultas ou de status mudaria a
+ * resposta dele. Cada réplica recebe todas as partições por {@code assign()}, a partir do fim e sem group.id: não
+ * há rebalance, nem grupo órfão a cada restart, nem offset commitado — o warm-up e a reconciliação cobrem o que
+ * passou. Partições criadas depois do startup só entram no próximo restart.
+ *
+ * <p>Os containers são criados aqui, fora do {@code @KafkaListener}, para não entrarem na configuração de retry
+ * topics do tópico principal nem na pausa de listeners do {@code NotificationDispatcher}.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "consultation.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class UpcomingConsultationCacheInvalidator {
+
+    private final UpcomingConsultationCache cache;
+    private final ConsumerFactory<String, String> consumerFactory;
+    private final ConsultationConsumerProperties consumerProperties;
+    private final List<KafkaMessageListenerContainer<String, ?>> containers = new ArrayList<>();
+
+    public UpcomingConsultationCacheInvalidator(UpcomingConsultationCache cache, ConsumerFactory<String, String> consumerFactory,
+                                                ConsultationConsumerProperties consumerProperties) {
+        this.cache = cache;
+        this.consumerFactory = consumerFactory;
+        this.consumerProperties = consumerProperties;
+    }
+
+    @PostConstruct
+    public void start() {
+        addContainer(consumerProperties.getTopic(), new ConsultationEventDeserializer(), this::onConsultationEvents);
+        ConsultationConsumerProperties.StatusChanges statusChanges = consumerProperties.getStatusChanges();
+        if (statusChanges.isEnabled()) {
+            addContainer(statusChanges.getTopic(), new ConsultationStatusEventDeserializer(), this::onStatusChanges);
+        }
+        containers.forEach(KafkaMessageListenerContainer::start);
+    }
+
+    @PreDestroy
+    public void stop() {
+        containers.forEach(KafkaMessageListenerContainer::stop);
+    }
+
+    void onConsultationEvents(List<ConsumerRecord<String, ConsultationEvent>> records) {
+        for (ConsumerRecord<String, ConsultationEvent> record : records) {
+            ConsultationEvent event = record.value();
+            // registro inválido não é gravado pelo consumer principal, então também não muda o cache
+            if (event == null) {
+                continue;
+            }
+            cache.invalidateIfChanged(new ConsultationReminder(event.id(), event.startDate(), event.finalDate(), event.status()));
+        }
+    }
+
+    void onStatusChanges(List<ConsumerRecord<String, ConsultationStatusChangedEvent>> records) {
+        for (ConsumerRecord<String, ConsultationStatusChangedEvent> record : records) {
+            ConsultationStatusChangedEvent change = record.value();
+            if (change == null || change.id() == null) {
+                continue;
+            }
+            cache.invalidateStatusIfChanged(change.id(), change.startDate(), change.status());
+        }
+    }
+
+    private <T> void addContainer(String topic, Deserializer<T> deserializer, BatchMessageListener<String, T> listener) {
+        Map<String, Object> config = new HashMap<>(consumerFactory.getConfigurationProperties());
+        config.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        DefaultKafkaConsumerFactory<String, T> factory = new DefaultKafkaConsumerFactory<>(config,
+            new StringDeserializer(), new ErrorHandlingDeserializer<>(deserializer));
+
+        TopicPartitionOffset[] partitions = partitionsOf(factory, topic);
+        if (partitions.length == 0) {
+            log.warn("Topic {} has no partitions yet, upcoming consultation cache will rely on reconciliation", topic);
+            return;
+        }
+        ContainerProperties containerProperties = new ContainerProperties(partitions);
+        // sem group.id não há onde commitar: MANUAL sem acknowledge nunca commita
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProperties.setMessageListener(listener);
+        KafkaMessageListenerContainer<String, T> container = new KafkaMessageListenerContainer<>(factory, containerProperties);
+        container.setBeanName("upcoming-consultation-cache-" + topic);
+        containers.add(container);
+        log.info("Upcoming consultation cache assigned to {} partitions of {}", partitions.length, topic);
+    }
+
+    // só interessa o que chega depois do warm-up
+    private static TopicPartitionOffset[] partitionsOf(ConsumerFactory<String, ?> factory, String topic) {
+        try (Consumer<String, ?> consumer = factory.createConsumer()) {
+            return consumer.partitionsFor(topic).stream()
+                .map(partition -> new TopicPartitionOffset(topic, partition.partition(), TopicPartitionOffset.SeekPosition.END))
+                .toArray(TopicPartitionOffset[]::new);
+        }
+    }
+}
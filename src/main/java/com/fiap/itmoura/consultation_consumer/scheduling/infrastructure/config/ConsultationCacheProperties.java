@@ -0,0 +1,23 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "consultation.cache")
+public class ConsultationCacheProperties {
+
+    // cache em memória das consultas ativas de agora até agora + horizon (cobre sempre o dia de amanhã)
+    private boolean enabled = true;
+    private Duration horizon = Duration.ofHours(48);
+    // acima disso as consultas mais distantes saem e a janela coberta encolhe
+    private int maxSize = 200_000;
+    // snapshot mais velho que isso não é usado (leituras vão ao banco até a próxima reconciliação)
+    private Duration ttl = Duration.ofMinutes(10);
+    // recarga completa a partir do banco; corrige o que a invalidação via Kafka não cobriu
+    private Duration reconcileInterval = Duration.ofMinutes(5);
+    // depois de uma invalidação (evento sem id, status de consulta fora do cache) recarrega em até este tempo
+    private Duration invalidatedRefreshDelay = Duration.ofSeconds(30);
+}
@@ -0,0 +1,130 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "spring.kafka.consumer.consultation")
+public class ConsultationConsumerProperties {
+
+    private String topic;
+    private String groupId;
+    private ListenerMode mode = ListenerMode.SINGLE;
+    private Batch batch = new Batch();
+    private Parallel parallel = new Parallel();
+    private Dedup dedup = new Dedup();
+    private Retry retry = new Retry();
+    private StatusChanges statusChanges = new StatusChanges();
+    private Autoscaling autoscaling = new Autoscaling();
+    // perfil de fetch do listener de consultas (chave de fetch-profiles); vazio mantém os padrões do cliente Kafka
+    private String fetchProfile;
+    private Map<String, FetchProfile> fetchProfiles = new HashMap<>();
+    // no modo single o payload vai para o log em INFO uma vez a cada N mensagens (as demais só em DEBUG); 0 desliga
+    private int payloadLogEvery = 1000;
+
+    public enum ListenerMode {
+        SINGLE,
+        BATCH,
+        PARALLEL
+    }
+
+    /** Perfil selecionado em {@code fetch-profile}, ou null quando nenhum foi escolhido. */
+    public FetchProfile selectedFetchProfile() {
+        if (fetchProfile == null || fetchProfile.isBlank()) {
+            return null;
+        }
+        FetchProfile selected = fetchProfiles.get(fetchProfile);
+        if (selected == null) {
+            throw new IllegalStateException("Unknown fetch profile '" + fetchProfile + "', configured: " + fetchProfiles.keySet());
+        }
+        return selected;
+    }
+
+    @Data
+    public static class Batch {
+        // max.poll.records do consumer em modo batch; sem valor vem do fetch-profile
+        private Integer size;
+        // fetch.max.wait.ms: quanto o broker segura o fetch esperando completar o lote; sem valor vem do fetch-profile
+        private Duration maxWait;
+    }
+
+    @Data
+    public static class Parallel {
+        // registros de um poll processados em paralelo antes do consumer ser pausado; sem valor vem do fetch-profile
+        private Integer maxPollRecords;
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Configuração de fetch aplicada junta ao consumer; os padrões são os do cliente Kafka. Os lotes chegam
+     * comprimidos como o producer gravou e são descomprimidos no poll, então {@code maxPartitionFetchBytes} e
+     * {@code fetchMaxBytes} limitam também quanto é descomprimido e mantido em memória por fetch.
+     */
+    @Data
+    public static class FetchProfile {
+        // o broker segura o fetch até juntar isto (ou fetchMaxWait)
+        private int fetchMinBytes = 1;
+        private Duration fetchMaxWait = Duration.ofMillis(500);
+        private int maxPollRecords = 500;
+        private int maxPartitionFetchBytes = 1_048_576;
+        private int fetchMaxBytes = 52_428_800;
+        // SO_RCVBUF do socket; -1 usa o do sistema operacional
+        private int receiveBufferBytes = 65_536;
+    }
+
+    @Data
+    public static class Dedup {
+        private boolean enabled = true;
+        // por quanto tempo um evento processado é lembrado; manter >= retenção do tópico
+        private Duration window = Duration.ofDays(7);
+        // o filtro é dividido em gerações; a mais antiga é descartada inteira quando sai da janela
+        private int generations = 7;
+        private int expectedEventsPerGeneration = 1_000_000;
+        private double falsePositiveRate = 0.01;
+        private Duration purgeInterval = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Retry {
+        // tentativas no total, contando a do tópico principal; as demais vão para tópicos de retry com atraso
+        private int attempts = 4;
+        // 1s, 10s, 1m
+        private Duration initialInterval = Duration.ofSeconds(1);
+        private double multiplier = 10;
+        private Duration maxInterval = Duration.ofMinutes(1);
+        private int topicPartitions = 1;
+    }
+
+    @Data
+    public static class StatusChanges {
+        // tópico só com mudanças de status, aplicadas com UPDATE direto em vez de upsert da consulta inteira
+        private boolean enabled = true;
+        private String topic = "consultation.service.request.topic.status";
+        private String groupId = "consultation.service-status-consumer-1";
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class Autoscaling {
+        // concurrency do listener de consultas ajustada em runtime pelo ConsultationListenerAutoscaler
+        private boolean enabled = false;
+        private int minConcurrency = 1;
+        // limitado também ao número de partições do tópico
+        private int maxConcurrency = 12;
+        private Duration interval = Duration.ofSeconds(2);
+        // lag por consumer acima do qual sobe, e abaixo do qual desce, a concurrency
+        private long scaleUpLag = 5_000;
+        private long scaleDownLag = 500;
+        // latência média de processamento acima disso indica downstream lento: não sobe, desce
+        private Duration latencyThreshold = Duration.ofMillis(500);
+        // checagens seguidas pedindo a mesma direção antes de mudar, e intervalo mínimo entre mudanças
+        private int stableChecks = 5;
+        private Duration cooldown = Duration.ofMinutes(1);
+        // partições pausadas com threads esperando conexão do pool; retomadas abaixo desta fração de conexões ativas
+        private double dbPoolResumeAt = 0.7;
+    }
+}
@@ -0,0 +1,279 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusChangedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.ConsultationDltHandler;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.ConsultationListenerAutoscaler;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.ConsumerMetrics;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.InvalidNotificationRecordException;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.KeyOrderedExecutor;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization.ConsultationEventAvroSerializer;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization.ConsultationEventDeserializer;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization.ConsultationStatusEventDeserializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.ContainerCustomizer;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+
+@Configuration
+@RequiredArgsConstructor
+public class KafkaConsumerConfig {
+
+    // mesmo sufixo do -dlt criado pelos tópicos de retry
+    static final String DLT_SUFFIX = "-dlt";
+
+    private final ConsultationConsumerProperties properties;
+    private final ReminderProperties reminderProperties;
+    private final ConsumerMetrics consumerMetrics;
+    private final MeterRegistry meterRegistry;
+
+    /** Modo single e os tópicos de retry/DLT dele: um registro por chamada, decodificado como nos outros modos. */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ConsultationEvent> consultationSingleListenerContainerFactory(
+            ConsumerFactory<String, String> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, ConsultationEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consultationEventConsumerFactory(consumerFactory));
+        factory.setRecordInterceptor(consumerMetrics.recordInterceptor());
+        factory.setContainerCustomizer(consultationFetchProfileCustomizer());
+        return factory;
+    }
+
+    /**
+     * Modo batch. O listener aponta o registro que falhou com BatchListenerFailedException: o error handler commita
+     * os anteriores, tenta de novo a partir dele com o backoff de {@code retry} e, esgotadas as tentativas, publica
+     * só ele no mesmo -dlt dos outros modos. Payload que não decodifica vai direto para o -dlt.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ConsultationEvent> consultationBatchListenerContainerFactory(
+            ConsumerFactory<String, String> consumerFactory, ProducerFactory<String, String> producerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, ConsultationEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consultationEventConsumerFactory(consumerFactory));
+        factory.setBatchListener(true);
+        factory.setBatchInterceptor(consumerMetrics.batchInterceptor());
+        factory.setCommonErrorHandler(consultationBatchErrorHandler(producerFactory));
+
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setKafkaConsumerProperties(fetchOverrides(properties.getBatch().getSize(), properties.getBatch().getMaxWait()));
+        // offset do lote inteiro só é commitado depois que o listener retorna (após o commit da transação)
+        containerProperties.setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ConsultationStatusChangedEvent> consultationStatusListenerContainerFactory(
+            ConsumerFactory<String, String> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, ConsultationStatusChangedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(withPollMetrics(new DefaultKafkaConsumerFactory<>(
+            consumerFactory.getConfigurationProperties(),
+            new StringDeserializer(),
+            new ErrorHandlingDeserializer<>(new ConsultationStatusEventDeserializer())
+        )));
+        factory.setBatchListener(true);
+        factory.setBatchInterceptor(consumerMetrics.batchInterceptor());
+
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(properties.getStatusChanges().getBatchSize()));
+
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setKafkaConsumerProperties(overrides);
+        containerProperties.setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ConsultationEvent> consultationParallelListenerContainerFactory(
+            ConsumerFactory<String, String> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, ConsultationEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consultationEventConsumerFactory(consumerFactory));
+        factory.setRecordInterceptor(consumerMetrics.lagInterceptor());
+
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setKafkaConsumerProperties(fetchOverrides(properties.getParallel().getMaxPollRecords(), null));
+        // sem AckMode fixo: o listener devolve um CompletableFuture e o container passa para MANUAL com acks fora de
+        // ordem sozinho; o handler do -dlt (void) continua com o ack padrão
+        return factory;
+    }
+
+    /**
+     * Listener das notificações do outbox. Um future com falha (fila cheia, envio que esgotou as tentativas do
+     * dispatcher) faz o mesmo registro ser entregue de novo com o backoff de {@code outbox.redelivery}; esgotadas as
+     * tentativas, ele vai para o -dlt do tópico com os headers de exceção e de origem e o consumo segue. Registro
+     * inválido ({@link InvalidNotificationRecordException}) vai para o -dlt sem novas tentativas.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> reminderNotificationListenerContainerFactory(
+            ConsumerFactory<String, String> consumerFactory, ProducerFactory<String, String> producerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setCommonErrorHandler(reminderNotificationErrorHandler(producerFactory));
+        // sem AckMode fixo: o listener devolve o future da entrega e o offset só é confirmado quando ele completa
+        return factory;
+    }
+
+    @Bean
+    public NewTopic reminderNotificationDeadLetterTopic() {
+        return TopicBuilder.name(reminderProperties.getOutbox().getTopic() + DLT_SUFFIX).build();
+    }
+
+    /**
+     * Perfil de fetch no listener do modo single. Os tópicos de retry usam o mesmo factory com outro id de listener
+     * e ficam com os padrões.
+     */
+    ContainerCustomizer<String, ConsultationEvent, ConcurrentMessageListenerContainer<String, ConsultationEvent>> consultationFetchProfileCustomizer() {
+        return container -> {
+            if (ConsultationListenerAutoscaler.LISTENER_ID.equals(container.getListenerId())) {
+                container.getContainerProperties().setKafkaConsumerProperties(fetchOverrides(null, null));
+            }
+        };
+    }
+
+    /**
+     * Retries não bloqueantes para os listeners dos modos single e parallel: o registro que falha sai do tópico
+     * principal para tópicos de retry com atraso crescente (sufixo -retry-&lt;ms&gt;) e, esgotadas as tentativas, para
+     * o -dlt com os headers de exceção e de origem. A partição principal segue sendo consumida enquanto isso. Payload
+     * que não decodifica vai direto para o -dlt. Os tópicos de retry usam o factory do modo.
+     */
+    @Bean
+    @ConditionalOnExpression("!'${spring.kafka.consumer.consultation.mode:single}'.equalsIgnoreCase('batch')")
+    public RetryTopicConfiguration consultationRetryTopics(ProducerFactory<String, String> producerFactory) {
+        ConsultationConsumerProperties.Retry retry = properties.getRetry();
+        return RetryTopicConfigurationBuilder.newInstance()
+            .includeTopic(properties.getTopic())
+            .maxAttempts(retry.getAttempts())
+            .exponentialBackoff(retry.getInitialInterval().toMillis(), retry.getMultiplier(), retry.getMaxInterval().toMillis())
+            .setTopicSuffixingStrategy(TopicSuffixingStrategy.SUFFIX_WITH_DELAY_VALUE)
+            .dltSuffix(DLT_SUFFIX)
+            .autoCreateTopicsWith(retry.getTopicPartitions(), (short) -1)
+            .listenerFactory(properties.getMode() == ConsultationConsumerProperties.ListenerMode.PARALLEL
+                ? "consultationParallelListenerContainerFactory"
+                : "consultationSingleListenerContainerFactory")
+            .dltHandlerMethod(ConsultationDltHandler.BEAN_NAME, "handle")
+            .create(consultationRepublishTemplate(producerFactory));
+    }
+
+    // no modo batch o -dlt não é criado pelos tópicos de retry
+    @Bean
+    @ConditionalOnProperty(name = "spring.kafka.consumer.consultation.mode", havingValue = "batch")
+    public NewTopic consultationDeadLetterTopic() {
+        return TopicBuilder.name(properties.getTopic() + DLT_SUFFIX)
+            .partitions(properties.getRetry().getTopicPartitions())
+            .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "spring.kafka.consumer.consultation.mode", havingValue = "parallel")
+    public KeyOrderedExecutor consultationExecutor() {
+        return new KeyOrderedExecutor(Executors.newVirtualThreadPerTaskExecutor(), properties.getParallel().getShutdownTimeout());
+    }
+
+    /**
+     * Propriedades de fetch do listener de consultas: as do perfil em {@code fetch-profile} e, por cima, as do modo
+     * ({@code batch.size}/{@code batch.max-wait}, {@code parallel.max-poll-records}) quando configuradas.
+     */
+    Properties fetchOverrides(Integer maxPollRecords, Duration maxWait) {
+        Properties overrides = new Properties();
+        ConsultationConsumerProperties.FetchProfile profile = properties.selectedFetchProfile();
+        if (profile != null) {
+            overrides.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, String.valueOf(profile.getFetchMinBytes()));
+            overrides.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, String.valueOf(profile.getFetchMaxWait().toMillis()));
+            overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(profile.getMaxPollRecords()));
+            overrides.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, String.valueOf(profile.getMaxPartitionFetchBytes()));
+            overrides.put(ConsumerConfig.FETCH_MAX_BYTES_CONFIG, String.valueOf(profile.getFetchMaxBytes()));
+            overrides.put(ConsumerConfig.RECEIVE_BUFFER_CONFIG, String.valueOf(profile.getReceiveBufferBytes()));
+        }
+        if (maxPollRecords != null) {
+            overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
+        }
+        if (maxWait != null) {
+            overrides.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, String.valueOf(maxWait.toMillis()));
+        }
+        return overrides;
+    }
+
+    DefaultErrorHandler consultationBatchErrorHandler(ProducerFactory<String, String> producerFactory) {
+        ConsultationConsumerProperties.Retry retry = properties.getRetry();
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(retry.getAttempts() - 1);
+        backOff.setInitialInterval(retry.getInitialInterval().toMillis());
+        backOff.setMultiplier(retry.getMultiplier());
+        backOff.setMaxInterval(retry.getMaxInterval().toMillis());
+        // partição -1: o -dlt pode ter menos partições que o tópico principal
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(consultationRepublishTemplate(producerFactory),
+            (record, exception) -> new TopicPartition(record.topic() + DLT_SUFFIX, -1));
+        return new DefaultErrorHandler(recoverer, backOff);
+    }
+
+    DefaultErrorHandler reminderNotificationErrorHandler(ProducerFactory<String, String> producerFactory) {
+        ReminderProperties.Redelivery redelivery = reminderProperties.getOutbox().getRedelivery();
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(redelivery.getAttempts() - 1);
+        backOff.setInitialInterval(redelivery.getInitialInterval().toMillis());
+        backOff.setMultiplier(redelivery.getMultiplier());
+        backOff.setMaxInterval(redelivery.getMaxInterval().toMillis());
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(new KafkaTemplate<>(producerFactory),
+            (record, exception) -> new TopicPartition(record.topic() + DLT_SUFFIX, -1));
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
+        errorHandler.addNotRetryableExceptions(InvalidNotificationRecordException.class);
+        return errorHandler;
+    }
+
+    // não é registrado como bean para não substituir o ConsumerFactory padrão do Spring Boot
+    private ConsumerFactory<String, ConsultationEvent> consultationEventConsumerFactory(ConsumerFactory<String, String> consumerFactory) {
+        return withPollMetrics(new DefaultKafkaConsumerFactory<>(
+            consumerFactory.getConfigurationProperties(),
+            new StringDeserializer(),
+            new ErrorHandlingDeserializer<>(new ConsultationEventDeserializer())
+        ));
+    }
+
+    /**
+     * Template da republicação em retry/DLT. O evento volta no formato binário (o serializer troca o header
+     * content-type, então o consumer do retry decodifica de novo); payload que não decodificou segue com os bytes
+     * originais. Não é bean para não ocupar o lugar do KafkaTemplate padrão do Spring Boot.
+     */
+    private KafkaTemplate<String, Object> consultationRepublishTemplate(ProducerFactory<String, String> producerFactory) {
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+            producerFactory.getConfigurationProperties(),
+            new StringSerializer(),
+            new DelegatingByTypeSerializer(Map.of(
+                ConsultationEvent.class, new ConsultationEventAvroSerializer(),
+                byte[].class, new ByteArraySerializer()))
+        ));
+    }
+
+    // métricas do cliente Kafka (fetch, poll, commit) com tag client.id; o factory padrão já as recebe do Spring Boot
+    private <V> DefaultKafkaConsumerFactory<String, V> withPollMetrics(DefaultKafkaConsumerFactory<String, V> factory) {
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+}
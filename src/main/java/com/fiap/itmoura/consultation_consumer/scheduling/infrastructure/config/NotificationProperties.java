@@ -0,0 +1,58 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "consultation.notification")
+public class NotificationProperties {
+
+    // implementação de NotificationSender; "log" é o fake local
+    private String sender = "log";
+    private int queueCapacity = 10_000;
+    // teto de envios simultâneos; o limite adaptativo trabalha abaixo dele
+    private int workers = 8;
+    // limitado também pelo maxBatchSize do provedor
+    private int batchSize = 100;
+    // quanto um worker espera o lote encher depois da primeira notificação
+    private Duration linger = Duration.ofMillis(50);
+    // fila cheia: quem enfileira espera até este tempo antes de receber RejectedExecutionException
+    private Duration enqueueTimeout = Duration.ofSeconds(30);
+    // fração da fila em que o listener de notificações é pausado / retomado
+    private double pauseListenersAt = 0.8;
+    private double resumeListenersAt = 0.5;
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+    // limite de envio por canal do provedor (NotificationSender#channel); canal ausente não é limitado
+    private Map<String, RateLimit> rateLimits = new HashMap<>();
+    private Concurrency concurrency = new Concurrency();
+    private Retry retry = new Retry();
+
+    @Data
+    public static class RateLimit {
+        private double permitsPerSecond = 50;
+        // notificações que podem sair de uma vez depois de um período ocioso
+        private int burst = 100;
+    }
+
+    @Data
+    public static class Concurrency {
+        private int initialLimit = 2;
+        private int minLimit = 1;
+        // envio acima desta latência conta como sinal de saturação do provedor
+        private Duration latencyThreshold = Duration.ofSeconds(2);
+        private double backoffRatio = 0.9;
+    }
+
+    @Data
+    public static class Retry {
+        // tentativas por lote, contando a primeira; esgotadas, a entrega falha e a origem reentrega
+        private int maxAttempts = 5;
+        private Duration initialBackoff = Duration.ofSeconds(1);
+        private double multiplier = 2;
+        private Duration maxBackoff = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,21 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Period;
+
+@Data
+@ConfigurationProperties(prefix = "consultation.partitioning")
+public class PartitioningProperties {
+
+    // manutenção das partições mensais de consultation por start_date (só PostgreSQL)
+    private boolean enabled = true;
+    // meses à frente do atual que já devem ter partição criada
+    private int premakeMonths = 3;
+    // partições que terminam antes de hoje - archiveAfter e só têm consultas COMPLETED/CANCELLED são desanexadas
+    private Period archiveAfter = Period.ofYears(1);
+    // schema para onde as partições desanexadas são movidas
+    private String archiveSchema = "consultation_archive";
+    private String cron = "0 30 3 * * *";
+}
@@ -0,0 +1,84 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "consultation.reminder")
+public class ReminderProperties {
+
+    // consultas carregadas por página no job de lembretes (keyset em startDate, id)
+    private int chunkSize = 500;
+    private Mode mode = Mode.CRON;
+    // antecedência do lembrete em relação ao início da consulta
+    private Duration lead = Duration.ofHours(24);
+    private Sharding sharding = new Sharding();
+    private Continuous continuous = new Continuous();
+    private Timer timer = new Timer();
+    private Outbox outbox = new Outbox();
+
+    public enum Mode {
+        // job das 23h com todas as consultas de amanhã
+        CRON,
+        // watermark persistido, lembretes enviados quando a consulta entra na janela de antecedência
+        CONTINUOUS,
+        // timing wheel em memória, lembretes disparados no horário exato sem consultar o banco
+        TIMER
+    }
+
+    @Data
+    public static class Sharding {
+        private boolean enabled = false;
+        // fatias do dia de amanhã; usar bem mais shards que réplicas para equilibrar a carga
+        private int shards = 48;
+        private Duration leaseDuration = Duration.ofMinutes(2);
+        private Duration pollInterval = Duration.ofSeconds(5);
+        // quanto tempo a réplica espera por shards de outras réplicas (ou que expirem) antes de desistir
+        private Duration maxWait = Duration.ofMinutes(30);
+        private String nodeId;
+    }
+
+    @Data
+    public static class Continuous {
+        private Duration pollInterval = Duration.ofSeconds(5);
+        // limita quanto um único ciclo drena para não segurar o lock do watermark por muito tempo
+        private int maxChunksPerTick = 20;
+    }
+
+    @Data
+    public static class Timer {
+        private Duration tick = Duration.ofSeconds(1);
+        // janela carregada no startup e nas ressincronizações, a partir do próximo lembrete
+        private Duration horizon = Duration.ofDays(7);
+        // recarrega a janela para pegar consultas gravadas fora deste consumer
+        private Duration resyncInterval = Duration.ofHours(6);
+        private int initialCapacity = 65_536;
+    }
+
+    @Data
+    public static class Outbox {
+        // tópico em que o relay publica os lembretes do outbox (chave = id da consulta)
+        private String topic = "consultation.reminder.notification";
+        private String groupId = "consultation.reminder-notification";
+        private boolean relayEnabled = true;
+        private int relayThreads = 2;
+        // linhas travadas e publicadas por transação do relay
+        private int batchSize = 500;
+        // espera do relay quando o outbox está vazio ou a publicação falhou
+        private Duration pollInterval = Duration.ofMillis(500);
+        private Duration sendTimeout = Duration.ofSeconds(30);
+        private Redelivery redelivery = new Redelivery();
+    }
+
+    @Data
+    public static class Redelivery {
+        // entregas de uma notificação pelo listener, contando a primeira; depois ela vai para o -dlt do tópico
+        private int attempts = 4;
+        // 5s, 10s, 20s; o backoff roda na thread do consumer, então precisa caber no max.poll.interval.ms
+        private Duration initialInterval = Duration.ofSeconds(5);
+        private double multiplier = 2;
+        private Duration maxInterval = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,44 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// recebe as mensagens que esgotaram os tópicos de retry (ver KafkaConsumerConfig#consultationRetryTopics)
+@Log4j2
+@Component(ConsultationDltHandler.BEAN_NAME)
+@ConditionalOnExpression("!'${spring.kafka.consumer.consultation.mode:single}'.equalsIgnoreCase('batch')")
+public class ConsultationDltHandler {
+
+    public static final String BEAN_NAME = "consultationDltHandler";
+
+    public void handle(ConsumerRecord<String, ?> record) {
+        log.error("Consultation message exhausted retries: original {}-{}@{}, {}: {}",
+            text(record, KafkaHeaders.DLT_ORIGINAL_TOPIC),
+            number(record, KafkaHeaders.DLT_ORIGINAL_PARTITION),
+            number(record, KafkaHeaders.DLT_ORIGINAL_OFFSET),
+            text(record, KafkaHeaders.DLT_EXCEPTION_FQCN),
+            text(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+    }
+
+    private static String text(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    // partição (int) e offset (long) vão nos headers em big-endian
+    private static Long number(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        if (header == null) {
+            return null;
+        }
+        ByteBuffer value = ByteBuffer.wrap(header.value());
+        return header.value().length == Integer.BYTES ? value.getInt() : value.getLong();
+    }
+}
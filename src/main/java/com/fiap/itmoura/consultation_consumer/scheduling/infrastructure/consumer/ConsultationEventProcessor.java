@@ -0,0 +1,40 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ConsultationService;
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ReminderOutboxService;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.idempotency.IdempotencyGuard;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Caminho comum dos três modos de listener (single, batch e parallel): descarta reentregas, grava as consultas,
+ * grava as confirmações no outbox e registra os registros como processados, tudo na mesma transação.
+ * Exceções sobem para o listener, que decide como o registro é reprocessado.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConsultationEventProcessor {
+
+    private final ConsultationService consultationService;
+    private final IdempotencyGuard idempotencyGuard;
+    private final ReminderOutboxService outboxService;
+
+    @Transactional
+    public Result process(List<ConsumerRecord<String, ConsultationEvent>> records) {
+        List<ConsumerRecord<String, ConsultationEvent>> unprocessed = idempotencyGuard.filterUnprocessed(records);
+        List<Consultation> consultations = unprocessed.stream().map(record -> record.value().toConsultation()).toList();
+        int persisted = consultationService.saveAll(consultations);
+        outboxService.recordConfirmations(consultations);
+        idempotencyGuard.markProcessed(unprocessed);
+        return new Result(records.size() - unprocessed.size(), persisted);
+    }
+
+    public record Result(int duplicates, int persisted) {
+    }
+}
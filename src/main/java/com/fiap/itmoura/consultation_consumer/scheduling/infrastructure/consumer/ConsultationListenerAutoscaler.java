@@ -0,0 +1,204 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ConsultationConsumerProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Ajusta a concurrency do listener de consultas (qualquer modo) pelo lag das partições atribuídas e pela latência
+ * de processamento, entre {@code min-concurrency} e o menor de {@code max-concurrency} e o número de partições.
+ *
+ * <ul>
+ *   <li>Sobe quando o lag por consumer passa de {@code scale-up-lag} com o downstream saudável (latência abaixo do
+ *   limite e pool do banco sem fila). O alvo é proporcional ao lag, para absorver um pico de uma vez.</li>
+ *   <li>Desce de um em um quando o lag por consumer fica abaixo de {@code scale-down-lag} ou a latência passa do
+ *   limite: mais threads só aumentariam a disputa pelo banco.</li>
+ *   <li>Com threads esperando conexão do Hikari as partições atribuídas são pausadas até as conexões ativas caírem
+ *   abaixo de {@code db-pool-resume-at}.</li>
+ * </ul>
+ *
+ * <p>A mudança exige parar e subir o container (rebalance), por isso precisa de {@code stable-checks} checagens
+ * seguidas na mesma direção e respeita um {@code cooldown} entre mudanças.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "spring.kafka.consumer.consultation.autoscaling.enabled", havingValue = "true")
+public class ConsultationListenerAutoscaler {
+
+    public static final String LISTENER_ID = "consultation-listener";
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final ConsumerMetrics consumerMetrics;
+    private final ObjectProvider<DataSource> dataSource;
+    private final KafkaAdmin kafkaAdmin;
+    private final ConsultationConsumerProperties.Autoscaling autoscaling;
+    private final String topic;
+    private final LongSupplier clock;
+
+    private final Set<TopicPartition> pausedPartitions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger concurrency = new AtomicInteger();
+    private final Counter scaledUp;
+    private final Counter scaledDown;
+    private int upChecks;
+    private int downChecks;
+    private long lastScaledAt;
+    private long lastCount;
+    private double lastTotalMillis;
+    private int partitionCount;
+
+    @Autowired
+    public ConsultationListenerAutoscaler(KafkaListenerEndpointRegistry listenerRegistry, ConsumerMetrics consumerMetrics,
+                                          ObjectProvider<DataSource> dataSource, KafkaAdmin kafkaAdmin,
+                                          ConsultationConsumerProperties properties, MeterRegistry meterRegistry) {
+        this(listenerRegistry, consumerMetrics, dataSource, kafkaAdmin, properties, meterRegistry, System::currentTimeMillis);
+    }
+
+    ConsultationListenerAutoscaler(KafkaListenerEndpointRegistry listenerRegistry, ConsumerMetrics consumerMetrics,
+                                   ObjectProvider<DataSource> dataSource, KafkaAdmin kafkaAdmin,
+                                   ConsultationConsumerProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.listenerRegistry = listenerRegistry;
+        this.consumerMetrics = consumerMetrics;
+        this.dataSource = dataSource;
+        this.kafkaAdmin = kafkaAdmin;
+        this.autoscaling = properties.getAutoscaling();
+        this.topic = properties.getTopic();
+        this.clock = clock;
+        // a primeira mudança não espera o cooldown
+        this.lastScaledAt = clock.getAsLong() - autoscaling.getCooldown().toMillis();
+
+        Gauge.builder("consultation.consumer.concurrency", concurrency, AtomicInteger::get)
+            .description("Consumer threads of the consultation listener")
+            .register(meterRegistry);
+        Gauge.builder("consultation.consumer.paused_partitions", pausedPartitions, Set::size)
+            .description("Partitions paused because the database pool is saturated")
+            .register(meterRegistry);
+        this.scaledUp = Counter.builder("consultation.consumer.rescales").tag("direction", "up").register(meterRegistry);
+        this.scaledDown = Counter.builder("consultation.consumer.rescales").tag("direction", "down").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${spring.kafka.consumer.consultation.autoscaling.interval:2s}")
+    public synchronized void evaluate() {
+        if (!(listenerRegistry.getListenerContainer(LISTENER_ID) instanceof ConcurrentMessageListenerContainer<?, ?> container)
+            || !container.isRunning()) {
+            return;
+        }
+        int current = container.getConcurrency();
+        concurrency.set(current);
+        Collection<TopicPartition> assigned = container.getAssignedPartitions();
+        if (assigned == null) {
+            assigned = List.of();
+        }
+
+        boolean dbSaturated = applyDbBackpressure(container, assigned);
+        long lagPerConsumer = consumerMetrics.lag(assigned) / current;
+        double latencyMillis = windowLatencyMillis();
+        boolean slow = latencyMillis > autoscaling.getLatencyThreshold().toMillis();
+
+        upChecks = !slow && !dbSaturated && lagPerConsumer > autoscaling.getScaleUpLag() ? upChecks + 1 : 0;
+        downChecks = slow || lagPerConsumer < autoscaling.getScaleDownLag() ? downChecks + 1 : 0;
+        if (clock.getAsLong() - lastScaledAt < autoscaling.getCooldown().toMillis()) {
+            return;
+        }
+
+        if (upChecks >= autoscaling.getStableChecks() && current < maxConcurrency()) {
+            // alvo proporcional ao lag: o pico da manhã é absorvido em uma mudança, não em várias
+            long needed = (lagPerConsumer * current + autoscaling.getScaleUpLag() - 1) / autoscaling.getScaleUpLag();
+            int target = (int) Math.min(maxConcurrency(), Math.max(current + 1, needed));
+            rescale(container, target, "lag per consumer " + lagPerConsumer);
+            scaledUp.increment();
+        } else if (downChecks >= autoscaling.getStableChecks() && current > autoscaling.getMinConcurrency()) {
+            String reason = slow ? String.format("processing latency %.0f ms", latencyMillis) : "lag per consumer " + lagPerConsumer;
+            rescale(container, current - 1, reason);
+            scaledDown.increment();
+        }
+    }
+
+    private boolean applyDbBackpressure(MessageListenerContainer container, Collection<TopicPartition> assigned) {
+        HikariDataSource hikari = dataSource.getIfAvailable() instanceof HikariDataSource h ? h : null;
+        HikariPoolMXBean pool = hikari == null ? null : hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return false;
+        }
+        if (pool.getThreadsAwaitingConnection() > 0) {
+            for (TopicPartition partition : assigned) {
+                if (pausedPartitions.add(partition)) {
+                    container.pausePartition(partition);
+                }
+            }
+            if (!pausedPartitions.isEmpty()) {
+                log.warn("Database pool saturated ({} active, {} waiting), paused partitions {}",
+                    pool.getActiveConnections(), pool.getThreadsAwaitingConnection(), pausedPartitions);
+            }
+            return true;
+        }
+        if (!pausedPartitions.isEmpty() && pool.getActiveConnections() <= hikari.getMaximumPoolSize() * autoscaling.getDbPoolResumeAt()) {
+            log.info("Database pool at {} active connections, resuming partitions {}", pool.getActiveConnections(), pausedPartitions);
+            pausedPartitions.forEach(container::resumePartition);
+            pausedPartitions.clear();
+        }
+        return !pausedPartitions.isEmpty();
+    }
+
+    // média desde a checagem anterior; sem registros no intervalo não há sinal de lentidão
+    private double windowLatencyMillis() {
+        Timer timer = consumerMetrics.processingTimer(topic);
+        if (timer == null) {
+            return 0;
+        }
+        long count = timer.count();
+        double totalMillis = timer.totalTime(TimeUnit.MILLISECONDS);
+        double mean = count > lastCount ? (totalMillis - lastTotalMillis) / (count - lastCount) : 0;
+        lastCount = count;
+        lastTotalMillis = totalMillis;
+        return mean;
+    }
+
+    private int maxConcurrency() {
+        if (partitionCount == 0) {
+            try {
+                partitionCount = kafkaAdmin.describeTopics(topic).get(topic).partitions().size();
+            } catch (RuntimeException e) {
+                log.warn("Could not describe topic {}, capping concurrency at {}", topic, autoscaling.getMaxConcurrency(), e);
+                return autoscaling.getMaxConcurrency();
+            }
+        }
+        return Math.min(autoscaling.getMaxConcurrency(), partitionCount);
+    }
+
+    private void rescale(ConcurrentMessageListenerContainer<?, ?> container, int target, String reason) {
+        log.info("Rescaling consultation listener from {} to {} consumers ({})", container.getConcurrency(), target, reason);
+        lastScaledAt = clock.getAsLong();
+        upChecks = 0;
+        downChecks = 0;
+        // os consumers novos começam sem pausa; se o pool continuar saturado a próxima checagem pausa de novo
+        pausedPartitions.clear();
+        container.stop(() -> {
+            container.setConcurrency(target);
+            container.start();
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ConsultationService;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Consome o tópico de mudanças de status. Cada lote vira UPDATEs pontuais de status em vez de ler, alterar e
+ * salvar as consultas; o offset do lote só é commitado depois da transação.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.consultation.status-changes.enabled", havingValue = "true", matchIfMissing = true)
+public class ConsultationStatusKafkaConsumer {
+
+    private final ConsultationService consultationService;
+
+    @KafkaListener(
+        topics = "${spring.kafka.consumer.consultation.status-changes.topic:consultation.service.request.topic.status}",
+        groupId = "${spring.kafka.consumer.consultation.status-changes.group-id:consultation.service-status-consumer-1}",
+        containerFactory = "consultationStatusListenerContainerFactory"
+    )
+    public void consume(List<ConsumerRecord<String, ConsultationStatusChangedEvent>> records) {
+        List<ConsultationStatusChangedEvent> changes = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, ConsultationStatusChangedEvent> record : records) {
+            ConsultationStatusChangedEvent change = record.value();
+            if (change == null || change.id() == null || change.status() == null) {
+                log.warn("Skipping empty or incomplete status change {}-{}@{}", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            changes.add(change);
+        }
+
+        List<UUID> updated = consultationService.updateStatuses(changes);
+        log.info("Status changes consumed: {} records, {} consultations updated", records.size(), updated.size());
+    }
+}
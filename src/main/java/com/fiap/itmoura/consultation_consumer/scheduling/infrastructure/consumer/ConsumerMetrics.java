@@ -0,0 +1,214 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.record.TimestampType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Métricas dos listeners Kafka, registradas pelos interceptors dos container factories:
+ *
+ * <ul>
+ *   <li>{@code consultation.consumer.records} e {@code consultation.consumer.errors} por tópico e partição;</li>
+ *   <li>{@code consultation.consumer.processing}, histograma da latência de processamento por registro (da entrega
+ *   ao listener até ele retornar; no modo batch cada registro leva a duração do lote). Só com a tag do tópico,
+ *   para que os buckets não se multipliquem por partição;</li>
+ *   <li>{@code consultation.consumer.end_to_end}, histograma do timestamp do registro (CreateTime do producer) até o
+ *   fim do processamento, por tópico;</li>
+ *   <li>{@code consultation.consumer.lag}, gauge por partição com o lag que o próprio consumer calculou no último
+ *   poll, sem ida ao broker.</li>
+ * </ul>
+ */
+@Component
+public class ConsumerMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+    private final LongSupplier nanoClock;
+    private final Map<TopicPartition, AtomicLong> lag = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, Counter> records = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, Counter> errors = new ConcurrentHashMap<>();
+    private final Map<String, Timer> processing = new ConcurrentHashMap<>();
+    private final Map<String, Timer> endToEnd = new ConcurrentHashMap<>();
+    // cada thread de container processa um registro ou lote por vez
+    private final ThreadLocal<Long> startedAt = new ThreadLocal<>();
+
+    @Autowired
+    public ConsumerMetrics(MeterRegistry meterRegistry) {
+        this(meterRegistry, System::currentTimeMillis, System::nanoTime);
+    }
+
+    ConsumerMetrics(MeterRegistry meterRegistry, LongSupplier clock, LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.nanoClock = nanoClock;
+    }
+
+    public <K, V> RecordInterceptor<K, V> recordInterceptor() {
+        return new RecordInterceptor<>() {
+
+            @Override
+            public ConsumerRecord<K, V> intercept(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+                updateLag(consumer, List.of(partitionOf(record)));
+                startedAt.set(nanoClock.getAsLong());
+                return record;
+            }
+
+            @Override
+            public void success(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+                processed(partitionOf(record), 1, elapsed());
+                completed(record);
+            }
+
+            @Override
+            public void failure(ConsumerRecord<K, V> record, Exception exception, Consumer<K, V> consumer) {
+                failed(partitionOf(record), 1, elapsed());
+            }
+
+            @Override
+            public void afterRecord(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+                startedAt.remove();
+            }
+        };
+    }
+
+    public <K, V> BatchInterceptor<K, V> batchInterceptor() {
+        return new BatchInterceptor<>() {
+
+            @Override
+            public ConsumerRecords<K, V> intercept(ConsumerRecords<K, V> batch, Consumer<K, V> consumer) {
+                updateLag(consumer, batch.partitions());
+                startedAt.set(nanoClock.getAsLong());
+                return batch;
+            }
+
+            @Override
+            public void success(ConsumerRecords<K, V> batch, Consumer<K, V> consumer) {
+                long nanos = elapsed();
+                batch.partitions().forEach(partition -> processed(partition, batch.records(partition).size(), nanos));
+                batch.forEach(ConsumerMetrics.this::completed);
+                startedAt.remove();
+            }
+
+            @Override
+            public void failure(ConsumerRecords<K, V> batch, Exception exception, Consumer<K, V> consumer) {
+                long nanos = elapsed();
+                batch.partitions().forEach(partition -> failed(partition, batch.records(partition).size(), nanos));
+                startedAt.remove();
+            }
+        };
+    }
+
+    /**
+     * Só atualiza o lag: no modo paralelo o listener apenas entrega o registro ao executor, então a latência e o
+     * resultado são registrados por {@link #processed}/{@link #failed}/{@link #completed} quando o processamento termina.
+     */
+    public <K, V> RecordInterceptor<K, V> lagInterceptor() {
+        return (record, consumer) -> {
+            updateLag(consumer, List.of(partitionOf(record)));
+            return record;
+        };
+    }
+
+    public void processed(TopicPartition partition, int count, long nanos) {
+        records.computeIfAbsent(partition, p -> counter("consultation.consumer.records", p)).increment(count);
+        record(partition.topic(), count, nanos);
+    }
+
+    public void failed(TopicPartition partition, int count, long nanos) {
+        errors.computeIfAbsent(partition, p -> counter("consultation.consumer.errors", p)).increment(count);
+        record(partition.topic(), count, nanos);
+    }
+
+    /** Soma do lag das partições informadas, como visto no último poll de cada uma. */
+    public long lag(Collection<TopicPartition> partitions) {
+        long total = 0;
+        for (TopicPartition partition : partitions) {
+            AtomicLong current = lag.get(partition);
+            total += current == null ? 0 : current.get();
+        }
+        return total;
+    }
+
+    /** Timer de {@code consultation.consumer.processing} do tópico, ou null antes do primeiro registro. */
+    public Timer processingTimer(String topic) {
+        return processing.get(topic);
+    }
+
+    /** Idade do registro ao terminar de ser processado; ignora registros sem CreateTime. */
+    public void completed(ConsumerRecord<?, ?> record) {
+        if (record.timestampType() != TimestampType.CREATE_TIME || record.timestamp() < 0) {
+            return;
+        }
+        endToEnd.computeIfAbsent(record.topic(), t -> Timer.builder("consultation.consumer.end_to_end")
+                .description("Time from the record being produced until its processing finished")
+                .tag("topic", t)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+            .record(Math.max(0, clock.getAsLong() - record.timestamp()), TimeUnit.MILLISECONDS);
+    }
+
+    private void record(String topic, int count, long nanos) {
+        Timer timer = processing.computeIfAbsent(topic, t -> Timer.builder("consultation.consumer.processing")
+            .description("Time from handing a record to the listener until it returned")
+            .tag("topic", t)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+        for (int i = 0; i < count; i++) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void updateLag(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            OptionalLong current = consumer.currentLag(partition);
+            if (current.isPresent()) {
+                lag.computeIfAbsent(partition, this::registerLag).set(current.getAsLong());
+            }
+        }
+    }
+
+    private AtomicLong registerLag(TopicPartition partition) {
+        AtomicLong value = new AtomicLong();
+        Gauge.builder("consultation.consumer.lag", value, AtomicLong::get)
+            .description("Records behind the log end offset as of the last poll")
+            .tag("topic", partition.topic())
+            .tag("partition", String.valueOf(partition.partition()))
+            .register(meterRegistry);
+        return value;
+    }
+
+    private long elapsed() {
+        Long started = startedAt.get();
+        return started == null ? 0 : nanoClock.getAsLong() - started;
+    }
+
+    private Counter counter(String name, TopicPartition partition) {
+        return Counter.builder(name)
+            .tag("topic", partition.topic())
+            .tag("partition", String.valueOf(partition.partition()))
+            .register(meterRegistry);
+    }
+
+    private static TopicPartition partitionOf(ConsumerRecord<?, ?> record) {
+        return new TopicPartition(record.topic(), record.partition());
+    }
+}
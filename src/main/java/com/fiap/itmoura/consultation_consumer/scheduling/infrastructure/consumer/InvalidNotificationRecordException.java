@@ -0,0 +1,13 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+/** Registro do tópico de notificações que não vira notificação; não adianta reentregar, vai direto para o -dlt. */
+public class InvalidNotificationRecordException extends RuntimeException {
+
+    public InvalidNotificationRecordException(String message) {
+        super(message);
+    }
+
+    public InvalidNotificationRecordException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,24 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.logging.log4j.CloseableThreadContext;
+
+/**
+ * Coloca tópico, partição e offset do registro no ThreadContext (MDC) enquanto ele é processado; o layout JSON
+ * publica esses campos em cada linha de log, inclusive nas do serviço e do repositório chamados pelo listener.
+ */
+final class KafkaLogContext {
+
+    static final String TOPIC = "kafka.topic";
+    static final String PARTITION = "kafka.partition";
+    static final String OFFSET = "kafka.offset";
+
+    private KafkaLogContext() {
+    }
+
+    static CloseableThreadContext.Instance of(ConsumerRecord<?, ?> record) {
+        return CloseableThreadContext.put(TOPIC, record.topic())
+            .put(PARTITION, String.valueOf(record.partition()))
+            .put(OFFSET, String.valueOf(record.offset()));
+    }
+}
@@ -0,0 +1,59 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executa tarefas em paralelo preservando a ordem entre tarefas de mesma chave:
+ * cada nova tarefa é encadeada na última tarefa pendente da sua chave, enquanto
+ * chaves diferentes rodam livremente no executor.
+ */
+@Log4j2
+public class KeyOrderedExecutor implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final Duration shutdownTimeout;
+    private final ConcurrentMap<Object, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    public KeyOrderedExecutor(ExecutorService executor, Duration shutdownTimeout) {
+        this.executor = executor;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    public CompletableFuture<Void> submit(Object key, Runnable task) {
+        if (key == null) {
+            return CompletableFuture.runAsync(task, executor);
+        }
+
+        CompletableFuture<Void> next = tails.compute(key, (k, tail) -> tail == null
+            ? CompletableFuture.runAsync(task, executor)
+            // a falha da tarefa anterior não pode travar a fila da chave
+            : tail.handle((ignored, error) -> null).thenRunAsync(task, executor));
+        next.whenComplete((ignored, error) -> tails.remove(key, next));
+        return next;
+    }
+
+    public int pendingKeys() {
+        return tails.size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Executor did not finish {} pending keys within {}", tails.size(), shutdownTimeout);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Amostragem determinística do log de payloads: uma mensagem a cada {@code every}, começando pela primeira. Com
+ * {@code every} menor ou igual a zero nenhuma é amostrada.
+ */
+final class PayloadLogSampler {
+
+    private final int every;
+    private final AtomicLong received = new AtomicLong();
+
+    PayloadLogSampler(int every) {
+        this.every = every;
+    }
+
+    boolean sample() {
+        return every > 0 && received.getAndIncrement() % every == 0;
+    }
+}
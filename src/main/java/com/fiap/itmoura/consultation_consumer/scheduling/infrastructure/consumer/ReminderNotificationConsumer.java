@@ -0,0 +1,81 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Notification;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.NotificationTypeEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.notification.NotificationDispatcher;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.outbox.ReminderOutboxRelay;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Notificações publicadas pelo {@link ReminderOutboxRelay} seguem daqui para o envio (rate limit e lotes do
+ * dispatcher). O listener devolve o future de entrega, então o container só confirma o offset depois que o
+ * provedor aceitou a notificação. Com fila cheia ou envio que esgotou os retries, o error handler do
+ * {@code reminderNotificationListenerContainerFactory} entrega o registro de novo com backoff e, esgotadas as
+ * tentativas, o publica no -dlt do tópico; num crash no meio o offset não foi confirmado e o Kafka reentrega.
+ * Registro sem id de consulta na chave ou com tipo desconhecido falha com
+ * {@link InvalidNotificationRecordException} e vai direto para o -dlt.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReminderNotificationConsumer {
+
+    public static final String LISTENER_ID = "reminder-notification-listener";
+
+    private final NotificationDispatcher notificationDispatcher;
+
+    @KafkaListener(
+        id = LISTENER_ID,
+        idIsGroup = false,
+        topics = "${consultation.reminder.outbox.topic:consultation.reminder.notification}",
+        groupId = "${consultation.reminder.outbox.group-id:consultation.reminder-notification}",
+        containerFactory = "reminderNotificationListenerContainerFactory"
+    )
+    public CompletableFuture<Void> consume(ConsumerRecord<String, String> record) {
+        try {
+            return notificationDispatcher.enqueue(new Notification(typeOf(record), consultationId(record), record.value()));
+        } catch (RejectedExecutionException | InvalidNotificationRecordException e) {
+            // listener assíncrono não pode lançar; o future com falha vai para o error handler do container
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static UUID consultationId(ConsumerRecord<String, String> record) {
+        if (record.key() == null) {
+            throw new InvalidNotificationRecordException("Notification record " + position(record) + " has no consultation id key");
+        }
+        try {
+            return UUID.fromString(record.key());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidNotificationRecordException(
+                "Notification record " + position(record) + " has invalid consultation id key '" + record.key() + "'", e);
+        }
+    }
+
+    // registros publicados antes do header existir são lembretes
+    private static NotificationTypeEnum typeOf(ConsumerRecord<String, String> record) {
+        Header header = record.headers().lastHeader(ReminderOutboxRelay.NOTIFICATION_TYPE_HEADER);
+        if (header == null) {
+            return NotificationTypeEnum.REMINDER;
+        }
+        String type = header.value() == null ? "" : new String(header.value(), StandardCharsets.UTF_8);
+        try {
+            return NotificationTypeEnum.valueOf(type);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidNotificationRecordException(
+                "Notification record " + position(record) + " has unknown notification type '" + type + "'", e);
+        }
+    }
+
+    private static String position(ConsumerRecord<?, ?> record) {
+        return record.topic() + "-" + record.partition() + "@" + record.offset();
+    }
+}
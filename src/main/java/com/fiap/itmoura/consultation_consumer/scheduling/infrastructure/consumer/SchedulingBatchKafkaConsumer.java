@@ -0,0 +1,75 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Log4j2
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.consultation.mode", havingValue = "batch")
+public class SchedulingBatchKafkaConsumer {
+
+    private final ConsultationEventProcessor processor;
+
+    /**
+     * Falhas saem como {@link BatchListenerFailedException} apontando o registro culpado: o error handler do factory
+     * commita os anteriores, tenta de novo a partir dele com backoff e, esgotadas as tentativas, publica só ele no
+     * -dlt (ver KafkaConsumerConfig#consultationBatchListenerContainerFactory).
+     */
+    @KafkaListener(
+        id = ConsultationListenerAutoscaler.LISTENER_ID,
+        idIsGroup = false,
+        topics = "${spring.kafka.consumer.consultation.topic}",
+        groupId = "${spring.kafka.consumer.consultation.groupId}",
+        containerFactory = "consultationBatchListenerContainerFactory"
+    )
+    public void consume(List<ConsumerRecord<String, ConsultationEvent>> records) {
+        List<ConsumerRecord<String, ConsultationEvent>> decoded = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, ConsultationEvent> record : records) {
+            if (record.value() != null) {
+                decoded.add(record);
+                continue;
+            }
+            if (record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null) {
+                // grava o que veio antes e manda o payload que não decodifica para o -dlt com os bytes originais
+                process(decoded);
+                throw new BatchListenerFailedException("Undecodable consultation payload", record);
+            }
+            log.warn("Skipping tombstone {}-{}@{}", record.topic(), record.partition(), record.offset());
+        }
+        ConsultationEventProcessor.Result result = process(decoded);
+        log.info("Batch consumed: {} records, {} duplicates skipped, {} consultations persisted",
+            records.size(), result.duplicates(), result.persisted());
+    }
+
+    private ConsultationEventProcessor.Result process(List<ConsumerRecord<String, ConsultationEvent>> records) {
+        try {
+            return processor.process(records);
+        } catch (RuntimeException batchFailure) {
+            log.warn("Batch of {} records failed, retrying one by one to find the failing record", records.size(), batchFailure);
+        }
+        // a transação do lote voltou atrás; um por um, os que passam ficam gravados e o primeiro que falha vai para o handler
+        int duplicates = 0;
+        int persisted = 0;
+        for (ConsumerRecord<String, ConsultationEvent> record : records) {
+            try {
+                ConsultationEventProcessor.Result result = processor.process(List.of(record));
+                duplicates += result.duplicates();
+                persisted += result.persisted();
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException("Failed to process consultation record", e, record);
+            }
+        }
+        return new ConsultationEventProcessor.Result(duplicates, persisted);
+    }
+}
@@ -1,22 +1,50 @@
 package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
 
-import lombok.RequiredArgsConstructor;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ConsultationConsumerProperties;
 import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.logging.log4j.CloseableThreadContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Log4j2
 @Service
-@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.consultation.mode", havingValue = "single", matchIfMissing = true)
 public class SchedulingKafkaConsumer {
 
+    private final ConsultationEventProcessor processor;
+    private final PayloadLogSampler payloadSampler;
+
+    public SchedulingKafkaConsumer(ConsultationEventProcessor processor, ConsultationConsumerProperties properties) {
+        this.processor = processor;
+        this.payloadSampler = new PayloadLogSampler(properties.getPayloadLogEvery());
+    }
+
     @KafkaListener(
+        id = ConsultationListenerAutoscaler.LISTENER_ID,
+        idIsGroup = false,
         topics = "${spring.kafka.consumer.consultation.topic}",
-        groupId = "${spring.kafka.consumer.consultation.groupId}"
+        groupId = "${spring.kafka.consumer.consultation.groupId}",
+        containerFactory = "consultationSingleListenerContainerFactory"
     )
-    public void consume(String message) {
-        System.out.println("===== MESSAGE RECEIVED =====");
-        System.out.println(message);
-        System.out.println("===== SIMULANDO ENVIO DE EMAIL =====");
+    public void consume(ConsumerRecord<String, ConsultationEvent> record) {
+        try (CloseableThreadContext.Instance ignored = KafkaLogContext.of(record)) {
+            ConsultationEvent event = record.value();
+            if (payloadSampler.sample()) {
+                log.info("Consultation message received: {}", event);
+            } else {
+                log.debug("Consultation message received: {}", event);
+            }
+            // tombstone; payload que não decodifica nem chega aqui, o container manda direto para o -dlt
+            if (event == null) {
+                return;
+            }
+            // uma exceção volta para o container e o registro segue para os tópicos de retry
+            processor.process(List.of(record));
+        }
     }
 }
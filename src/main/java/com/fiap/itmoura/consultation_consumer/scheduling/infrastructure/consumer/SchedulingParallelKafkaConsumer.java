@@ -0,0 +1,72 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.logging.log4j.CloseableThreadContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Log4j2
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.consultation.mode", havingValue = "parallel")
+public class SchedulingParallelKafkaConsumer {
+
+    private final ConsultationEventProcessor processor;
+    private final KeyOrderedExecutor consultationExecutor;
+    private final ConsumerMetrics consumerMetrics;
+
+    /**
+     * Retorno assíncrono: o container só confirma o offset quando o future completa com sucesso (commits fora de
+     * ordem esperam as lacunas). Se completar com erro, o registro vai para o error handler dos tópicos de retry,
+     * que republica em -retry-&lt;ms&gt; e só então commita; se a republicação falhar, o registro é entregue de novo.
+     */
+    @KafkaListener(
+        id = ConsultationListenerAutoscaler.LISTENER_ID,
+        idIsGroup = false,
+        topics = "${spring.kafka.consumer.consultation.topic}",
+        groupId = "${spring.kafka.consumer.consultation.groupId}",
+        containerFactory = "consultationParallelListenerContainerFactory"
+    )
+    public CompletableFuture<Void> consume(ConsumerRecord<String, ConsultationEvent> record) {
+        if (record.value() == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        ConsultationEvent event = record.value();
+        Object key = record.key() != null ? record.key() : event.id();
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        // inclui a espera na fila da chave: é o tempo que o registro levou para ser processado
+        long submittedAt = System.nanoTime();
+        CompletableFuture<Void> task;
+        try {
+            task = consultationExecutor.submit(key, () -> {
+                // roda em outra thread: o contexto de log do registro vai junto; na fila da chave, reentregas do
+                // mesmo evento são checadas uma depois da outra
+                try (CloseableThreadContext.Instance ignored = KafkaLogContext.of(record)) {
+                    processor.process(List.of(record));
+                }
+            });
+        } catch (RuntimeException e) {
+            // executor já fechado no shutdown: o registro segue o mesmo caminho de uma falha no processamento
+            task = CompletableFuture.failedFuture(e);
+        }
+        return task.whenComplete((ignored, error) -> {
+            long nanos = System.nanoTime() - submittedAt;
+            if (error != null) {
+                log.error("Failed to process record {}-{}@{}", record.topic(), record.partition(), record.offset(), error);
+                consumerMetrics.failed(partition, 1, nanos);
+            } else {
+                consumerMetrics.processed(partition, 1, nanos);
+                consumerMetrics.completed(record);
+            }
+        });
+    }
+}
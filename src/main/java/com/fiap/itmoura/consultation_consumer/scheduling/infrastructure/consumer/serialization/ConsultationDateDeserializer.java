@@ -0,0 +1,99 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+
+/**
+ * Lê datas no formato {@code dd/MM/yyyy HH:mm} direto do buffer de caracteres do parser,
+ * sem criar a String nem passar pelo DateTimeFormatter. Como as consultas se concentram em
+ * poucos horários, o resultado é guardado num cache direto indexado pelo minuto.
+ */
+public class ConsultationDateDeserializer extends StdScalarDeserializer<LocalDateTime> {
+
+    private static final int PATTERN_LENGTH = "dd/MM/yyyy HH:mm".length();
+    private static final int CACHE_SIZE = 1024;
+
+    private final CachedDate[] cache = new CachedDate[CACHE_SIZE];
+
+    public ConsultationDateDeserializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.hasToken(JsonToken.VALUE_STRING)) {
+            return (LocalDateTime) context.handleUnexpectedToken(LocalDateTime.class, parser);
+        }
+
+        long minute = parseMinute(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        if (minute < 0) {
+            throw context.weirdStringException(parser.getText(), LocalDateTime.class, "expected dd/MM/yyyy HH:mm");
+        }
+
+        int slot = (int) (minute ^ (minute >>> 16)) & (CACHE_SIZE - 1);
+        CachedDate cached = cache[slot];
+        if (cached != null && cached.minute() == minute) {
+            return cached.value();
+        }
+
+        LocalDateTime value;
+        try {
+            value = toLocalDateTime(minute);
+        } catch (DateTimeException e) {
+            throw context.weirdStringException(parser.getText(), LocalDateTime.class, e.getMessage());
+        }
+        cache[slot] = new CachedDate(minute, value);
+        return value;
+    }
+
+    /**
+     * Retorna a data compactada como yyyyMMddHHmm, ou -1 quando o texto não segue o padrão.
+     */
+    static long parseMinute(char[] text, int offset, int length) {
+        if (length != PATTERN_LENGTH
+            || text[offset + 2] != '/' || text[offset + 5] != '/'
+            || text[offset + 10] != ' ' || text[offset + 13] != ':') {
+            return -1;
+        }
+
+        int day = digits(text, offset, 2);
+        int month = digits(text, offset + 3, 2);
+        int year = digits(text, offset + 6, 4);
+        int hour = digits(text, offset + 11, 2);
+        int minute = digits(text, offset + 14, 2);
+        if ((day | month | year | hour | minute) < 0) {
+            return -1;
+        }
+        return ((((long) year * 100 + month) * 100 + day) * 100 + hour) * 100 + minute;
+    }
+
+    static LocalDateTime toLocalDateTime(long packed) {
+        int minute = (int) (packed % 100);
+        int hour = (int) (packed / 100 % 100);
+        int day = (int) (packed / 10_000 % 100);
+        int month = (int) (packed / 1_000_000 % 100);
+        int year = (int) (packed / 100_000_000);
+        return LocalDateTime.of(year, month, day, hour, minute);
+    }
+
+    private static int digits(char[] text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private record CachedDate(long minute, LocalDateTime value) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Formato binário do evento de consulta, definido em {@code avro/consultation-event.avsc} (sem schema registry):
+ * UUID em 16 bytes, datas em minutos desde a época no horário local, status pelo índice do enum e descrição
+ * opcional. Os campos são lidos e escritos direto no {@link BinaryDecoder}/{@link BinaryEncoder}, sem
+ * GenericRecord; qualquer producer Avro com o mesmo schema gera bytes compatíveis.
+ */
+public final class ConsultationEventAvroCodec {
+
+    public static final String CONTENT_TYPE = "application/vnd.consultation-event.v1+avro";
+    public static final Schema SCHEMA = loadSchema();
+
+    private static final ConsultationStatusEnum[] STATUSES = ConsultationStatusEnum.values();
+    private static final int NULL_BRANCH = 0;
+    private static final int STRING_BRANCH = 1;
+
+    private ConsultationEventAvroCodec() {
+    }
+
+    public static byte[] encode(ConsultationEvent event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+        try {
+            encoder.writeFixed(ByteBuffer.allocate(16)
+                .putLong(event.id().getMostSignificantBits())
+                .putLong(event.id().getLeastSignificantBits())
+                .array());
+            encoder.writeInt(toEpochMinute(event.startDate()));
+            encoder.writeInt(toEpochMinute(event.finalDate()));
+            encoder.writeEnum(event.status().ordinal());
+            if (event.description() == null) {
+                encoder.writeIndex(NULL_BRANCH);
+            } else {
+                encoder.writeIndex(STRING_BRANCH);
+                encoder.writeString(event.description());
+            }
+            encoder.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static ConsultationEvent decode(byte[] data) throws IOException {
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(data, null);
+        byte[] id = new byte[16];
+        decoder.readFixed(id);
+        ByteBuffer idBuffer = ByteBuffer.wrap(id);
+        LocalDateTime startDate = fromEpochMinute(decoder.readInt());
+        LocalDateTime finalDate = fromEpochMinute(decoder.readInt());
+        int status = decoder.readEnum();
+        if (status < 0 || status >= STATUSES.length) {
+            throw new IOException("Unknown consultation status index " + status);
+        }
+        String description = switch (decoder.readIndex()) {
+            case NULL_BRANCH -> null;
+            case STRING_BRANCH -> decoder.readString();
+            default -> throw new IOException("Invalid description union branch");
+        };
+        return new ConsultationEvent(new UUID(idBuffer.getLong(), idBuffer.getLong()), startDate, finalDate, STATUSES[status],
+            description);
+    }
+
+    private static int toEpochMinute(LocalDateTime dateTime) {
+        return Math.toIntExact(Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60));
+    }
+
+    private static LocalDateTime fromEpochMinute(int epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60L, 0, ZoneOffset.UTC);
+    }
+
+    // o índice do enum é o ordinal: reordenar ConsultationStatusEnum sem mudar o schema quebraria o formato
+    private static Schema loadSchema() {
+        try (InputStream in = ConsultationEventAvroCodec.class.getResourceAsStream("/avro/consultation-event.avsc")) {
+            Schema schema = new Schema.Parser().parse(in);
+            List<String> symbols = schema.getField("status").schema().getEnumSymbols();
+            List<String> statuses = Arrays.stream(ConsultationStatusEnum.values()).map(Enum::name).toList();
+            if (!symbols.equals(statuses)) {
+                throw new IllegalStateException("consultation-event.avsc status symbols " + symbols + " do not match " + statuses);
+            }
+            return schema;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
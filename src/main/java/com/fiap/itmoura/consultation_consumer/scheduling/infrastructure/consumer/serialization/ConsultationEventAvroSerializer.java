@@ -0,0 +1,28 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+
+/** Producer do formato binário: grava o evento com o codec e marca o registro com o content-type correspondente. */
+public class ConsultationEventAvroSerializer implements Serializer<ConsultationEvent> {
+
+    private static final byte[] CONTENT_TYPE = ConsultationEventAvroCodec.CONTENT_TYPE.getBytes(StandardCharsets.US_ASCII);
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, ConsultationEvent data) {
+        if (data == null) {
+            return null;
+        }
+        headers.remove(ConsultationEventDeserializer.CONTENT_TYPE_HEADER);
+        headers.add(ConsultationEventDeserializer.CONTENT_TYPE_HEADER, CONTENT_TYPE);
+        return serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, ConsultationEvent data) {
+        return data == null ? null : ConsultationEventAvroCodec.encode(data);
+    }
+}
@@ -0,0 +1,84 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Decodifica o evento de consulta conforme o header {@value #CONTENT_TYPE_HEADER}: sem header ou com
+ * {@code application/json}, o JSON com datas {@code dd/MM/yyyy HH:mm}; com
+ * {@value ConsultationEventAvroCodec#CONTENT_TYPE}, o formato binário do {@link ConsultationEventAvroCodec}. Assim
+ * producers dos dois formatos convivem no mesmo tópico.
+ *
+ * <p>JSON sem id, datas ou status é rejeitado aqui: o {@code ErrorHandlingDeserializer} manda os bytes originais
+ * direto para o -dlt, em vez de o evento falhar no banco e não poder ser republicado em binário.
+ */
+public class ConsultationEventDeserializer implements Deserializer<ConsultationEvent> {
+
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+    private static final String JSON_CONTENT_TYPE = "application/json";
+
+    private static final ObjectReader READER = new ObjectMapper()
+        .registerModule(new SimpleModule().addDeserializer(LocalDateTime.class, new ConsultationDateDeserializer()))
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .readerFor(ConsultationEvent.class);
+
+    @Override
+    public ConsultationEvent deserialize(String topic, Headers headers, byte[] data) {
+        Header contentType = headers == null ? null : headers.lastHeader(CONTENT_TYPE_HEADER);
+        if (contentType == null || contentType.value() == null) {
+            return deserialize(topic, data);
+        }
+        String type = new String(contentType.value(), StandardCharsets.US_ASCII);
+        if (type.startsWith(JSON_CONTENT_TYPE)) {
+            return deserialize(topic, data);
+        }
+        if (!type.equals(ConsultationEventAvroCodec.CONTENT_TYPE)) {
+            throw new SerializationException("Unsupported content-type " + type + " on topic " + topic);
+        }
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        try {
+            return ConsultationEventAvroCodec.decode(data);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Unable to decode binary consultation event from topic " + topic, e);
+        }
+    }
+
+    @Override
+    public ConsultationEvent deserialize(String topic, byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        ConsultationEvent event;
+        try {
+            event = READER.readValue(data);
+        } catch (IOException e) {
+            throw new SerializationException("Unable to decode consultation event from topic " + topic, e);
+        }
+        requireComplete(event, topic);
+        return event;
+    }
+
+    private static void requireComplete(ConsultationEvent event, String topic) {
+        String missing = event.id() == null ? "id"
+            : event.startDate() == null ? "startDate"
+            : event.finalDate() == null ? "finalDate"
+            : event.status() == null ? "status"
+            : null;
+        if (missing != null) {
+            throw new SerializationException("Consultation event from topic " + topic + " has no " + missing);
+        }
+    }
+}
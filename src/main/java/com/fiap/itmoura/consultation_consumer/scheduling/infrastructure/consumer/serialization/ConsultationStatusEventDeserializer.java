@@ -0,0 +1,32 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusChangedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+public class ConsultationStatusEventDeserializer implements Deserializer<ConsultationStatusChangedEvent> {
+
+    private static final ObjectReader READER = new ObjectMapper()
+        .registerModule(new SimpleModule().addDeserializer(LocalDateTime.class, new ConsultationDateDeserializer()))
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .readerFor(ConsultationStatusChangedEvent.class);
+
+    @Override
+    public ConsultationStatusChangedEvent deserialize(String topic, byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        try {
+            return READER.readValue(data);
+        } catch (IOException e) {
+            throw new SerializationException("Unable to decode consultation status event from topic " + topic, e);
+        }
+    }
+}
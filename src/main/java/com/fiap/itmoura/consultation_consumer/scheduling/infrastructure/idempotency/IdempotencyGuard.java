@@ -0,0 +1,236 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.idempotency;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ConsultationConsumerProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ProcessedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ProcessedEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Descarta eventos de consulta já processados (mesmo id e mesma posição no log), por exemplo reentregas depois de
+ * um rebalance. A posição é a do registro original, então um produtor que reenvia o mesmo conteúdo em outro offset
+ * (como uma remarcação A→B→A) é processado de novo. O {@link TimeWindowedBloomFilter} responde "nunca visto" sem ir ao banco; só os possíveis
+ * repetidos são confirmados em processed_event. A tabela é a fonte da verdade: o filtro é recarregado dela no
+ * startup, antes dos listeners subirem, e ambos esquecem eventos mais antigos que a janela configurada.
+ */
+@Log4j2
+@Component
+public class IdempotencyGuard {
+
+    private final ProcessedEventRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConsultationConsumerProperties.Dedup properties;
+    private final LongSupplier clock;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final TimeWindowedBloomFilter filter;
+
+    private final Counter filterMisses;
+    private final Counter confirmedDuplicates;
+    private final Counter falsePositives;
+    private final Counter inBatchDuplicates;
+
+    @Autowired
+    public IdempotencyGuard(ProcessedEventRepository repository, TransactionTemplate transactionTemplate,
+                            ConsultationConsumerProperties consumerProperties, MeterRegistry meterRegistry) {
+        this(repository, transactionTemplate, consumerProperties, meterRegistry, System::currentTimeMillis);
+    }
+
+    IdempotencyGuard(ProcessedEventRepository repository, TransactionTemplate transactionTemplate,
+                     ConsultationConsumerProperties consumerProperties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = consumerProperties.getDedup();
+        this.clock = clock;
+        this.filter = new TimeWindowedBloomFilter(properties.getGenerations(),
+            properties.getWindow().toMillis() / properties.getGenerations(),
+            properties.getExpectedEventsPerGeneration(), properties.getFalsePositiveRate());
+
+        this.filterMisses = lookups(meterRegistry, "miss");
+        this.confirmedDuplicates = lookups(meterRegistry, "duplicate");
+        this.falsePositives = lookups(meterRegistry, "false_positive");
+        this.inBatchDuplicates = lookups(meterRegistry, "in_batch_duplicate");
+    }
+
+    @PostConstruct
+    void warmUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime since = toLocalDateTime(clock.getAsLong()).minus(properties.getWindow());
+        long[] loaded = {0};
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ProcessedEvent> processed = repository.streamProcessedSince(since)) {
+                processed.forEach(event -> {
+                    filter.put(event.getId().getConsultationId(), event.getId().getPosition(), toEpochMillis(event.getProcessedAt()));
+                    loaded[0]++;
+                });
+            }
+        });
+        log.info("Dedup filter loaded {} processed events ({} KiB, {} hash functions)",
+            loaded[0], filter.sizeInBytes() / 1024, filter.hashFunctions());
+    }
+
+    /**
+     * Devolve, na ordem original, os registros que ainda não foram processados. Eventos sem id passam direto,
+     * pois o id só é gerado na gravação.
+     */
+    public List<ConsumerRecord<String, ConsultationEvent>> filterUnprocessed(List<ConsumerRecord<String, ConsultationEvent>> records) {
+        if (!properties.isEnabled() || records.isEmpty()) {
+            return records;
+        }
+
+        long now = clock.getAsLong();
+        Set<ProcessedEvent.Key> seen = new HashSet<>();
+        List<ConsumerRecord<String, ConsultationEvent>> candidates = new ArrayList<>(records.size());
+        Set<UUID> suspects = new HashSet<>();
+        for (ConsumerRecord<String, ConsultationEvent> record : records) {
+            UUID id = record.value().id();
+            if (id == null) {
+                candidates.add(record);
+                continue;
+            }
+            ProcessedEvent.Key key = keyOf(record);
+            if (!seen.add(key)) {
+                inBatchDuplicates.increment();
+                continue;
+            }
+            candidates.add(record);
+            if (filter.mightContain(id, key.getPosition(), now)) {
+                suspects.add(id);
+            } else {
+                filterMisses.increment();
+            }
+        }
+        if (suspects.isEmpty()) {
+            return candidates;
+        }
+
+        Set<ProcessedEvent.Key> processed = new HashSet<>(repository.findKeysByConsultationIds(suspects));
+        List<ConsumerRecord<String, ConsultationEvent>> unprocessed = new ArrayList<>(candidates.size());
+        for (ConsumerRecord<String, ConsultationEvent> record : candidates) {
+            UUID id = record.value().id();
+            if (id == null || !suspects.contains(id)) {
+                unprocessed.add(record);
+            } else if (processed.contains(keyOf(record))) {
+                confirmedDuplicates.increment();
+            } else {
+                falsePositives.increment();
+                unprocessed.add(record);
+            }
+        }
+        return unprocessed;
+    }
+
+    /**
+     * Grava as chaves na transação de quem chama, junto com as consultas; o filtro só recebe as chaves depois do
+     * commit, para um rollback não deixar eventos marcados como vistos.
+     */
+    public void markProcessed(List<ConsumerRecord<String, ConsultationEvent>> records) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long now = clock.getAsLong();
+        List<ProcessedEvent.Key> keys = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, ConsultationEvent> record : records) {
+            if (record.value().id() == null) {
+                continue;
+            }
+            keys.add(keyOf(record));
+        }
+        repository.insertIgnoringDuplicates(keys, toLocalDateTime(now));
+        Runnable remember = () -> keys.forEach(key -> filter.put(key.getConsultationId(), key.getPosition(), now));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember.run();
+                }
+            });
+        } else {
+            remember.run();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${spring.kafka.consumer.consultation.dedup.purge-interval:PT1H}")
+    public void purgeExpired() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int purged = repository.deleteProcessedBefore(toLocalDateTime(clock.getAsLong()).minus(properties.getWindow()));
+        if (purged > 0) {
+            log.info("Purged {} processed events older than {}", purged, properties.getWindow());
+        }
+    }
+
+    private static ProcessedEvent.Key keyOf(ConsumerRecord<String, ConsultationEvent> record) {
+        return new ProcessedEvent.Key(record.value().id(), positionOf(record));
+    }
+
+    /**
+     * Posição do registro no log: tópico, partição e offset. Registros republicados nos tópicos de retry carregam
+     * a posição original nos primeiros headers kafka_dlt-original-*, então a reentrega de um retry bate com ela.
+     * Dentro de uma partição offsets diferentes dão sempre posições diferentes.
+     */
+    static long positionOf(ConsumerRecord<?, ?> record) {
+        String topic = record.topic();
+        long partition = record.partition();
+        long offset = record.offset();
+        Header originalTopic = first(record, KafkaHeaders.DLT_ORIGINAL_TOPIC);
+        Header originalPartition = first(record, KafkaHeaders.DLT_ORIGINAL_PARTITION);
+        Header originalOffset = first(record, KafkaHeaders.DLT_ORIGINAL_OFFSET);
+        if (originalTopic != null && originalPartition != null && originalOffset != null) {
+            topic = new String(originalTopic.value(), StandardCharsets.UTF_8);
+            partition = ByteBuffer.wrap(originalPartition.value()).getInt();
+            offset = ByteBuffer.wrap(originalOffset.value()).getLong();
+        }
+        return (31L * topic.hashCode() + partition) * 0x9E3779B97F4A7C15L + offset;
+    }
+
+    // a cada salto de retry o recoverer pode acrescentar headers de origem; o primeiro é o do tópico principal
+    private static Header first(ConsumerRecord<?, ?> record, String name) {
+        Iterator<Header> headers = record.headers().headers(name).iterator();
+        return headers.hasNext() ? headers.next() : null;
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("consultation.dedup.lookups")
+            .description("Idempotency checks for consumed consultation events")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(zone).toInstant().toEpochMilli();
+    }
+}
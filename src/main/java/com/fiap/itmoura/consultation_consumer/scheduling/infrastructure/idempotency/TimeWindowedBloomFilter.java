@@ -0,0 +1,121 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.idempotency;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Filtro de Bloom dividido em gerações de tempo fixas (alinhadas à época). Cada inserção vai para a geração do
+ * seu timestamp e, quando uma geração sai da janela, o bitset dela é zerado e reaproveitado — a memória fica
+ * limitada a {@code generations} bitsets independentemente de quantos eventos passam.
+ *
+ * <p>Não há falso negativo dentro da janela; falsos positivos ficam perto de {@code falsePositiveRate} por
+ * geração enquanto cada uma recebe até {@code expectedPerGeneration} chaves.
+ */
+public class TimeWindowedBloomFilter {
+
+    private static final int MAX_HASHES = 16;
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long generationMillis;
+    private final int generations;
+    private final int hashes;
+    private final long bitMask;
+    private final long[][] bits;
+    private final long[] generationOf;
+
+    public TimeWindowedBloomFilter(int generations, long generationMillis, int expectedPerGeneration, double falsePositiveRate) {
+        if (generations <= 0 || generationMillis <= 0 || expectedPerGeneration <= 0) {
+            throw new IllegalArgumentException("generations, generationMillis and expectedPerGeneration must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        this.generations = generations;
+        this.generationMillis = generationMillis;
+
+        // m = -n ln(p) / ln(2)^2, arredondado para potência de dois para indexar com máscara
+        double optimalBits = -expectedPerGeneration * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long bitCount = Math.max(64, Long.highestOneBit((long) Math.ceil(optimalBits) - 1) << 1);
+        if (bitCount > (long) Integer.MAX_VALUE * Long.SIZE) {
+            throw new IllegalArgumentException("Bloom filter generation too large: " + bitCount + " bits");
+        }
+        this.bitMask = bitCount - 1;
+        this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round((double) bitCount / expectedPerGeneration * Math.log(2))));
+
+        this.bits = new long[generations][(int) (bitCount / Long.SIZE)];
+        this.generationOf = new long[generations];
+        Arrays.fill(generationOf, EMPTY);
+    }
+
+    public synchronized void put(UUID id, long version, long timestampMillis) {
+        long generation = Math.floorDiv(timestampMillis, generationMillis);
+        int slot = (int) Math.floorMod(generation, (long) generations);
+        if (generationOf[slot] > generation) {
+            // o slot já foi reaproveitado por uma geração mais nova: esta chave está fora da janela
+            return;
+        }
+        if (generationOf[slot] != generation) {
+            Arrays.fill(bits[slot], 0L);
+            generationOf[slot] = generation;
+        }
+
+        long[] generationBits = bits[slot];
+        long h1 = h1(id, version);
+        long h2 = h2(id, version);
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & bitMask;
+            generationBits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public synchronized boolean mightContain(UUID id, long version, long nowMillis) {
+        long oldestLive = Math.floorDiv(nowMillis, generationMillis) - generations + 1;
+        long h1 = h1(id, version);
+        long h2 = h2(id, version);
+        for (int slot = 0; slot < generations; slot++) {
+            if (generationOf[slot] == EMPTY || generationOf[slot] < oldestLive) {
+                continue;
+            }
+            if (containsIn(bits[slot], h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long sizeInBytes() {
+        return (long) generations * bits[0].length * Long.BYTES;
+    }
+
+    public int hashFunctions() {
+        return hashes;
+    }
+
+    private boolean containsIn(long[] generationBits, long h1, long h2) {
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & bitMask;
+            if ((generationBits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // double hashing (Kirsch-Mitzenmacher): k posições a partir de dois hashes de 64 bits
+    private static long h1(UUID id, long version) {
+        return mix(id.getMostSignificantBits() ^ mix(version));
+    }
+
+    private static long h2(UUID id, long version) {
+        return mix(id.getLeastSignificantBits() ^ Long.rotateLeft(version, 32)) | 1L;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,89 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.notification;
+
+/**
+ * Limite de envios simultâneos ajustado por AIMD: cada envio rápido e bem-sucedido soma 1/limite (cerca de +1
+ * por janela completa) e um erro ou uma latência acima do limiar multiplica o limite por {@code backoffRatio}.
+ * O limite oscila logo abaixo do ponto em que o provedor começa a enfileirar ou rejeitar.
+ *
+ * <p>Como no fast recovery do TCP, só há um corte por janela: as respostas dos envios que já estavam em voo no
+ * momento do corte refletem o limite antigo e não cortam de novo.
+ */
+public class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+    private int sentBeforeBackoff;
+
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, double backoffRatio) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Expected 0 < minLimit <= maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    public synchronized void acquire() throws InterruptedException {
+        while (inFlight >= (int) limit) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void onSuccess(long latencyNanos) {
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+        release();
+    }
+
+    public synchronized void onError() {
+        decrease();
+        release();
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private void decrease() {
+        if (sentBeforeBackoff > 0) {
+            return;
+        }
+        limit = Math.max(minLimit, limit * backoffRatio);
+        // o envio atual é descontado em release()
+        sentBeforeBackoff = inFlight;
+    }
+
+    private void release() {
+        inFlight--;
+        if (sentBeforeBackoff > 0) {
+            sentBeforeBackoff--;
+        }
+        notifyAll();
+    }
+}
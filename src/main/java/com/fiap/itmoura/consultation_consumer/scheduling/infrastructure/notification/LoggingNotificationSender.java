@@ -0,0 +1,26 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.notification;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Notification;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// provedor fake para desenvolvimento: só registra no log o que seria enviado
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "consultation.notification.sender", havingValue = "log", matchIfMissing = true)
+public class LoggingNotificationSender implements NotificationSender {
+
+    @Override
+    public int maxBatchSize() {
+        return 100;
+    }
+
+    @Override
+    public void send(List<Notification> notifications) {
+        log.info("Simulating e-mail delivery of {} notifications", notifications.size());
+        notifications.forEach(notification -> log.debug("Simulated e-mail: {}", notification));
+    }
+}
@@ -0,0 +1,327 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.notification;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Notification;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.NotificationProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.ReminderNotificationConsumer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Fila limitada entre o listener das notificações do outbox ({@link ReminderNotificationConsumer}) e o
+ * {@link NotificationSender}. Workers dedicados agrupam a fila em lotes do tamanho do provedor, então o I/O de
+ * envio não roda nas threads do listener.
+ *
+ * <p>A fila é só memória: quem enfileira recebe um future de entrega e só confirma a origem (offset do Kafka)
+ * quando ele completa. Um lote que falha é reenviado com backoff exponencial; esgotadas as tentativas, ou num
+ * shutdown que não drenou, os futures falham e a notificação volta a ser entregue pela origem.
+ *
+ * <p>Backpressure: acima de {@code pauseListenersAt} da capacidade o listener do outbox é pausado e só volta quando
+ * a fila cai abaixo de {@code resumeListenersAt}; com a fila cheia, {@link #enqueue} bloqueia até
+ * {@code enqueueTimeout}. A ingestão de consultas não passa pela fila (as confirmações vão para o outbox no
+ * banco) e não é pausada por ela.
+ *
+ * <p>Para não ser barrado pelo provedor, cada lote passa antes por um {@link TokenBucketRateLimiter} do canal
+ * (uma permissão por notificação) e por um {@link AimdConcurrencyLimiter}, que reduz os envios simultâneos
+ * quando a latência do provedor sobe ou ele começa a falhar.
+ */
+@Log4j2
+@Component
+public class NotificationDispatcher {
+
+    private static final long POLL_MILLIS = 100;
+    // só o listener do outbox alimenta a fila; consultas, status e invalidação de cache seguem consumindo
+    private static final List<String> PAUSED_LISTENER_IDS = List.of(ReminderNotificationConsumer.LISTENER_ID);
+
+    private final NotificationSender sender;
+    private final NotificationProperties properties;
+    private final ObjectProvider<KafkaListenerEndpointRegistry> listenerRegistry;
+    private final BlockingQueue<Envelope> queue;
+    private final int batchSize;
+    private final int pauseThreshold;
+    private final int resumeThreshold;
+    private final AtomicBoolean listenersPaused = new AtomicBoolean();
+    private final TokenBucketRateLimiter rateLimiter;
+    private final AimdConcurrencyLimiter concurrencyLimiter;
+
+    private final Timer enqueueLatency;
+    private final Timer queueLatency;
+    private final Timer sendLatency;
+    private final Timer endToEndLatency;
+    private final DistributionSummary batchSizes;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter retried;
+    private final Counter rejected;
+    private final Timer rateLimitWait;
+
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    public NotificationDispatcher(NotificationSender sender, NotificationProperties properties, MeterRegistry meterRegistry,
+                                  ObjectProvider<KafkaListenerEndpointRegistry> listenerRegistry) {
+        this.sender = sender;
+        this.properties = properties;
+        this.listenerRegistry = listenerRegistry;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSize = Math.max(1, Math.min(properties.getBatchSize(), sender.maxBatchSize()));
+        this.pauseThreshold = Math.max(1, (int) (properties.getQueueCapacity() * properties.getPauseListenersAt()));
+        this.resumeThreshold = (int) (properties.getQueueCapacity() * properties.getResumeListenersAt());
+
+        NotificationProperties.RateLimit rateLimit = properties.getRateLimits().get(sender.channel());
+        this.rateLimiter = rateLimit == null ? null
+            : new TokenBucketRateLimiter(rateLimit.getPermitsPerSecond(), rateLimit.getBurst(), System::nanoTime);
+        NotificationProperties.Concurrency concurrency = properties.getConcurrency();
+        this.concurrencyLimiter = new AimdConcurrencyLimiter(concurrency.getInitialLimit(), concurrency.getMinLimit(),
+            Math.max(concurrency.getMinLimit(), properties.getWorkers()), concurrency.getLatencyThreshold().toNanos(),
+            concurrency.getBackoffRatio());
+
+        this.enqueueLatency = stage(meterRegistry, "enqueue");
+        this.queueLatency = stage(meterRegistry, "queue");
+        this.sendLatency = stage(meterRegistry, "send");
+        this.endToEndLatency = stage(meterRegistry, "end_to_end");
+        this.batchSizes = DistributionSummary.builder("notification.batch.size").register(meterRegistry);
+        this.sent = result(meterRegistry, "sent");
+        this.failed = result(meterRegistry, "failed");
+        this.retried = result(meterRegistry, "retried");
+        this.rejected = result(meterRegistry, "rejected");
+        Gauge.builder("notification.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("notification.listeners.paused", listenersPaused, paused -> paused.get() ? 1 : 0).register(meterRegistry);
+
+        this.rateLimitWait = Timer.builder("notification.rate_limit.wait")
+            .description("Time batches waited for send permits")
+            .tag("channel", sender.channel())
+            .register(meterRegistry);
+        if (rateLimiter != null) {
+            Gauge.builder("notification.rate_limit.available", rateLimiter, TokenBucketRateLimiter::availablePermits)
+                .tag("channel", sender.channel())
+                .register(meterRegistry);
+        }
+        Gauge.builder("notification.concurrency.limit", concurrencyLimiter, AimdConcurrencyLimiter::limit).register(meterRegistry);
+        Gauge.builder("notification.concurrency.in_flight", concurrencyLimiter, AimdConcurrencyLimiter::inFlight).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        workers = Executors.newFixedThreadPool(properties.getWorkers(), Thread.ofPlatform().name("notification-worker-", 0).factory());
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.execute(this::runWorker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (workers == null) {
+            return;
+        }
+        // workers terminam de esvaziar a fila antes de sair
+        workers.shutdown();
+        if (!workers.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+            List<Envelope> undelivered = new ArrayList<>();
+            queue.drainTo(undelivered);
+            log.warn("Notification workers did not drain in {}, {} notifications left to redelivery", properties.getShutdownTimeout(), undelivered.size());
+            fail(undelivered, new RejectedExecutionException("Notification dispatcher stopped before delivery"));
+        }
+    }
+
+    /**
+     * Enfileira a notificação e devolve o future da entrega, completado quando o provedor aceita o lote e com
+     * falha quando as tentativas se esgotam.
+     */
+    public CompletableFuture<Void> enqueue(Notification notification) {
+        long start = System.nanoTime();
+        Envelope envelope = new Envelope(notification, start, new CompletableFuture<>());
+        boolean accepted;
+        try {
+            accepted = running && queue.offer(envelope, properties.getEnqueueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for notification queue", e);
+        }
+        enqueueLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!accepted) {
+            rejected.increment();
+            throw new RejectedExecutionException("Notification queue full or dispatcher stopped");
+        }
+        if (queue.size() >= pauseThreshold) {
+            pauseListeners();
+        }
+        return envelope.delivery();
+    }
+
+    public CompletableFuture<Void> enqueueAll(Collection<Notification> notifications) {
+        return CompletableFuture.allOf(notifications.stream().map(this::enqueue).toArray(CompletableFuture[]::new));
+    }
+
+    private void runWorker() {
+        List<Envelope> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Envelope first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    resumeListenersIfDrained();
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(batch, new RejectedExecutionException("Notification worker interrupted before delivery", e));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch(List<Envelope> batch) throws InterruptedException {
+        queue.drainTo(batch, batchSize - batch.size());
+        long deadline = System.nanoTime() + properties.getLinger().toNanos();
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Envelope next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void dispatch(List<Envelope> batch) throws InterruptedException {
+        long pickedUp = System.nanoTime();
+        batch.forEach(envelope -> queueLatency.record(pickedUp - envelope.enqueuedAtNanos(), TimeUnit.NANOSECONDS));
+        resumeListenersIfDrained();
+        batchSizes.record(batch.size());
+
+        List<Notification> notifications = new ArrayList<>(batch.size());
+        batch.forEach(envelope -> notifications.add(envelope.notification()));
+        NotificationProperties.Retry retry = properties.getRetry();
+
+        for (int attempt = 1; ; attempt++) {
+            throttle(notifications.size());
+            concurrencyLimiter.acquire();
+            long sendStart = System.nanoTime();
+            try {
+                sender.send(notifications);
+            } catch (RuntimeException e) {
+                concurrencyLimiter.onError();
+                sendLatency.record(System.nanoTime() - sendStart, TimeUnit.NANOSECONDS);
+                if (attempt >= retry.getMaxAttempts()) {
+                    failed.increment(batch.size());
+                    log.error("Failed to send batch of {} notifications after {} attempts, leaving it to redelivery", batch.size(), attempt, e);
+                    fail(batch, e);
+                    return;
+                }
+                Duration backoff = backoff(retry, attempt);
+                retried.increment(batch.size());
+                log.warn("Failed to send batch of {} notifications (attempt {}/{}), retrying in {}: {}",
+                    batch.size(), attempt, retry.getMaxAttempts(), backoff, e.toString());
+                TimeUnit.MILLISECONDS.sleep(backoff.toMillis());
+                continue;
+            }
+            long done = System.nanoTime();
+            concurrencyLimiter.onSuccess(done - sendStart);
+            sendLatency.record(done - sendStart, TimeUnit.NANOSECONDS);
+            batch.forEach(envelope -> endToEndLatency.record(done - envelope.enqueuedAtNanos(), TimeUnit.NANOSECONDS));
+            sent.increment(batch.size());
+            batch.forEach(envelope -> envelope.delivery().complete(null));
+            return;
+        }
+    }
+
+    private static Duration backoff(NotificationProperties.Retry retry, int attempt) {
+        double millis = retry.getInitialBackoff().toMillis() * Math.pow(retry.getMultiplier(), attempt - 1);
+        return Duration.ofMillis((long) Math.min(millis, retry.getMaxBackoff().toMillis()));
+    }
+
+    private static void fail(List<Envelope> envelopes, Throwable cause) {
+        envelopes.forEach(envelope -> envelope.delivery().completeExceptionally(cause));
+    }
+
+    private void throttle(int permits) throws InterruptedException {
+        if (rateLimiter == null) {
+            return;
+        }
+        long waitNanos = rateLimiter.reserve(permits);
+        rateLimitWait.record(waitNanos, TimeUnit.NANOSECONDS);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void pauseListeners() {
+        if (listenersPaused.compareAndSet(false, true)) {
+            log.warn("Notification queue at {}/{}, pausing listeners {}", queue.size(), properties.getQueueCapacity(), PAUSED_LISTENER_IDS);
+            forEachListener(MessageListenerContainer::pause);
+        }
+    }
+
+    private void resumeListenersIfDrained() {
+        if (listenersPaused.get() && queue.size() <= resumeThreshold && listenersPaused.compareAndSet(true, false)) {
+            log.info("Notification queue drained to {}, resuming listeners {}", queue.size(), PAUSED_LISTENER_IDS);
+            forEachListener(MessageListenerContainer::resume);
+        }
+    }
+
+    private void forEachListener(Consumer<MessageListenerContainer> action) {
+        KafkaListenerEndpointRegistry registry = listenerRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        for (String id : PAUSED_LISTENER_IDS) {
+            MessageListenerContainer container = registry.getListenerContainer(id);
+            if (container != null) {
+                action.accept(container);
+            }
+        }
+    }
+
+    private static Timer stage(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("notification.stage.latency")
+            .description("Time spent by notifications in each dispatch stage")
+            .tag("stage", stage)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private static Counter result(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("notification.dispatched")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private record Envelope(Notification notification, long enqueuedAtNanos, CompletableFuture<Void> delivery) {
+    }
+}
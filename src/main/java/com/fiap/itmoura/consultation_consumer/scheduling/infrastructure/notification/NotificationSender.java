@@ -0,0 +1,22 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.notification;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Notification;
+
+import java.util.List;
+
+/**
+ * Provedor de envio (e-mail, SMS, ...). Chamado pelas threads do {@link NotificationDispatcher}, nunca pelo
+ * listener Kafka ou pelos jobs, então pode bloquear em I/O.
+ */
+public interface NotificationSender {
+
+    // maior lote aceito pelo provedor numa única chamada
+    int maxBatchSize();
+
+    // chave de consultation.notification.rate-limits usada para este provedor
+    default String channel() {
+        return "email";
+    }
+
+    void send(List<Notification> notifications);
+}
@@ -0,0 +1,64 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.notification;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket sem lock na forma GCRA: em vez de contar tokens, guarda num único {@link AtomicLong} o instante
+ * teórico em que o balde estaria vazio de novo. Cada permissão avança esse instante em 1/taxa; a requisição
+ * é atendida na hora enquanto o avanço não passa de {@code burst} permissões à frente do relógio.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long nanosPerPermit;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong emptyAt;
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.nanosPerPermit = Math.max(1, Math.round(1_000_000_000L / permitsPerSecond));
+        this.burstNanos = nanosPerPermit * burst;
+        this.nanoClock = nanoClock;
+        this.emptyAt = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Reserva {@code permits} e devolve quantos nanos o chamador deve esperar antes de usá-las (0 se já pode).
+     * A reserva é feita mesmo quando há espera, então chamadas concorrentes ficam enfileiradas no tempo.
+     */
+    public long reserve(int permits) {
+        long cost = nanosPerPermit * permits;
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = emptyAt.get();
+            long next = Math.max(current, now) + cost;
+            if (emptyAt.compareAndSet(current, next)) {
+                return Math.max(0, next - now - burstNanos);
+            }
+        }
+    }
+
+    // só consome se as permissões estiverem disponíveis agora
+    public boolean tryAcquire(int permits) {
+        long cost = nanosPerPermit * permits;
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = emptyAt.get();
+            long next = Math.max(current, now) + cost;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (emptyAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    public double availablePermits() {
+        long backlog = Math.max(0, emptyAt.get() - nanoClock.getAsLong());
+        return (double) (burstNanos - backlog) / nanosPerPermit;
+    }
+}
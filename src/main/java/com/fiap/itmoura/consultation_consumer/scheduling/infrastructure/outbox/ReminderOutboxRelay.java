@@ -0,0 +1,158 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.outbox;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ReminderProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderOutboxEntry;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drena reminder_outbox (lembretes dos jobs e confirmações do consumer) para o Kafka. Cada transação trava um lote com {@code FOR UPDATE SKIP LOCKED}, publica
+ * tudo, espera os acks e só então apaga as linhas; se a publicação falha a transação volta e o lote fica para a
+ * próxima volta. Threads e réplicas pegam lotes disjuntos sem disputar lock.
+ *
+ * <p>Entrega at-least-once: um crash entre o ack do broker e o commit republica o lote. O producer idempotente
+ * (spring.kafka.producer) evita duplicatas causadas pelos retries do próprio producer.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "consultation.reminder.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class ReminderOutboxRelay {
+
+    // tipo da notificação (NotificationTypeEnum) publicado junto com cada linha
+    public static final String NOTIFICATION_TYPE_HEADER = "notification-type";
+
+    private final ReminderOutboxRepository repository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReminderProperties.Outbox properties;
+
+    private final Counter published;
+    private final Counter failures;
+    private final Timer batchLatency;
+
+    private ExecutorService relays;
+    private volatile boolean running;
+
+    public ReminderOutboxRelay(ReminderOutboxRepository repository, KafkaTemplate<String, String> kafkaTemplate,
+                               TransactionTemplate transactionTemplate, ReminderProperties reminderProperties,
+                               MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = reminderProperties.getOutbox();
+
+        this.published = Counter.builder("reminder.outbox.published").register(meterRegistry);
+        this.failures = Counter.builder("reminder.outbox.relay.failures").register(meterRegistry);
+        this.batchLatency = Timer.builder("reminder.outbox.relay.batch")
+            .description("Time to lock, publish and delete one outbox batch")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        relays = Executors.newFixedThreadPool(properties.getRelayThreads(), Thread.ofPlatform().name("reminder-outbox-relay-", 0).factory());
+        for (int i = 0; i < properties.getRelayThreads(); i++) {
+            relays.execute(this::runRelay);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (relays == null) {
+            return;
+        }
+        relays.shutdown();
+        if (!relays.awaitTermination(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            relays.shutdownNow();
+        }
+    }
+
+    /**
+     * Publica um lote e devolve quantas linhas saíram do outbox.
+     */
+    int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<ReminderOutboxEntry> batch = repository.lockNextBatch(properties.getBatchSize());
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            long start = System.nanoTime();
+            CompletableFuture<?>[] sends = batch.stream()
+                .map(entry -> kafkaTemplate.send(toRecord(entry)))
+                .toArray(CompletableFuture[]::new);
+            awaitAcks(sends);
+            repository.deleteByIds(batch.stream().map(ReminderOutboxEntry::getId).toList());
+            batchLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return batch.size();
+        });
+        int count = relayed == null ? 0 : relayed;
+        published.increment(count);
+        return count;
+    }
+
+    private ProducerRecord<String, String> toRecord(ReminderOutboxEntry entry) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(properties.getTopic(), entry.getConsultationId().toString(), entry.getPayload());
+        record.headers().add(NOTIFICATION_TYPE_HEADER, entry.getNotificationType().name().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private void runRelay() {
+        while (running) {
+            int relayed;
+            try {
+                relayed = relayBatch();
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.error("Reminder outbox relay failed, batch will be retried", e);
+                relayed = 0;
+            }
+            // lote cheio: provavelmente há mais linhas, volta sem esperar
+            if (relayed < properties.getBatchSize() && !sleep()) {
+                return;
+            }
+        }
+    }
+
+    private void awaitAcks(CompletableFuture<?>[] sends) {
+        try {
+            CompletableFuture.allOf(sends).get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while publishing reminder outbox batch", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new KafkaException("Failed to publish reminder outbox batch", e);
+        }
+    }
+
+    private boolean sleep() {
+        try {
+            Thread.sleep(properties.getPollInterval().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ConsultationBulkRepository {
+
+    int upsertAll(Collection<Consultation> consultations);
+
+    /**
+     * Marca o lembrete das consultas como enviado e devolve só os ids que ainda não estavam marcados (e que não
+     * foram remarcados desde a leitura). O UPDATE condicional trava a linha, então duas transações concorrentes
+     * nunca recebem o mesmo id.
+     */
+    List<UUID> markReminderSent(List<ConsultationReminder> reminders, LocalDateTime sentAt);
+
+    /**
+     * Aplica as mudanças de status com UPDATE direto, sem carregar as consultas, e devolve os ids cujo status de
+     * fato mudou. Consultas inexistentes ou já no status informado são ignoradas.
+     */
+    List<UUID> updateStatuses(List<ConsultationStatusChangedEvent> changes);
+}
@@ -0,0 +1,388 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusChangedEvent;
+import lombok.extern.log4j.Log4j2;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+@Log4j2
+class ConsultationBulkRepositoryImpl implements ConsultationBulkRepository {
+
+    // a tabela é particionada por start_date, então a chave única é (id, start_date); reminder_sent_at fica intacto
+    private static final String POSTGRES_ON_CONFLICT = """
+        ON CONFLICT (id, start_date) DO UPDATE SET
+            final_date = EXCLUDED.final_date,
+            status = EXCLUDED.status,
+            description = EXCLUDED.description
+        """;
+
+    // consultation_key (V10) guarda o start_date atual de cada id: sem ela, achar a linha só pelo id sonda o índice
+    // de todas as partições. A data antiga vem de lá e a linha remarcada sai só da partição dela.
+    private static final String LATEST_FROM_ARRAYS = """
+        SELECT id, start_date FROM unnest(?::uuid[], ?::timestamp[]) AS n (id, start_date)
+        """;
+
+    private static final String LATEST_FROM_STAGING = """
+        SELECT DISTINCT ON (id) id, start_date FROM consultation_staging ORDER BY id, seq DESC
+        """;
+
+    // FOR UPDATE: dois lotes do mesmo id não apagam a mesma linha antiga nem deixam duas datas vivas
+    private static final String FIND_MOVED = """
+        SELECT k.id, k.start_date FROM consultation_key k JOIN (%s) n ON n.id = k.id
+        WHERE k.start_date <> n.start_date
+        FOR UPDATE OF k
+        """;
+
+    private static final String DELETE_IN_PARTITION = """
+        DELETE FROM consultation WHERE id = ? AND start_date = ?
+        """;
+
+    private static final String UPSERT_KEYS = """
+        INSERT INTO consultation_key (id, start_date) %s
+        ON CONFLICT (id) DO UPDATE SET start_date = EXCLUDED.start_date
+        WHERE consultation_key.start_date <> EXCLUDED.start_date
+        """;
+
+    private static final String FIND_START_DATES = """
+        SELECT id, start_date FROM consultation_key WHERE id = ANY (?::uuid[])
+        """;
+
+    private static final String POSTGRES_UPSERT = """
+        INSERT INTO consultation (id, start_date, final_date, status, description)
+        VALUES (?, ?, ?, ?, ?)
+        """ + POSTGRES_ON_CONFLICT;
+
+    // tabela temporária por sessão; seq preserva a ordem de chegada para o último evento de cada id vencer
+    private static final String CREATE_STAGING = """
+        CREATE TEMP TABLE IF NOT EXISTS consultation_staging (
+            seq integer, id uuid, start_date timestamp, final_date timestamp, status text, description text
+        ) ON COMMIT DELETE ROWS
+        """;
+
+    private static final String COPY_STAGING = """
+        COPY consultation_staging (seq, id, start_date, final_date, status, description) FROM STDIN (FORMAT BINARY)
+        """;
+
+    private static final String MERGE_STAGING = """
+        INSERT INTO consultation (id, start_date, final_date, status, description)
+        SELECT DISTINCT ON (id) id, start_date, final_date, status, description
+        FROM consultation_staging
+        ORDER BY id, seq DESC
+        """ + POSTGRES_ON_CONFLICT;
+
+    // H2 (testes): tabela sem partições, chave só no id; MERGE ... KEY preserva o reminder_sent_at mesmo se remarcada
+    private static final String MERGE_UPSERT = """
+        MERGE INTO consultation (id, start_date, final_date, status, description) KEY (id)
+        VALUES (?, ?, ?, ?, ?)
+        """;
+
+    // start_date limita o UPDATE a uma partição; se a consulta foi remarcada ou cancelada desde a leitura, nada é marcado
+    private static final String MARK_REMINDER_SENT = """
+        UPDATE consultation SET reminder_sent_at = ?
+        WHERE id = ? AND start_date = ? AND reminder_sent_at IS NULL AND status IN ('SCHEDULED', 'CONFIRMED')
+        """;
+
+    // IS DISTINCT FROM: reentregas e status repetidos não contam como mudança (nem geram nova versão da linha)
+    static final String UPDATE_STATUS_IN_PARTITION = """
+        UPDATE consultation SET status = ? WHERE id = ? AND start_date = ? AND status IS DISTINCT FROM ?
+        """;
+
+    // H2: sem partições, o id basta
+    private static final String UPDATE_STATUS = """
+        UPDATE consultation SET status = ? WHERE id = ? AND status IS DISTINCT FROM ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int copyThreshold;
+
+    private volatile String upsertSql;
+
+    ConsultationBulkRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                   @Value("${consultation.ingest.copy-threshold:1000}") int copyThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.copyThreshold = copyThreshold;
+    }
+
+    @Override
+    public int upsertAll(Collection<Consultation> consultations) {
+        if (consultations.isEmpty()) {
+            return 0;
+        }
+
+        consultations.forEach(consultation -> {
+            if (consultation.getId() == null) {
+                consultation.setId(UUID.randomUUID());
+            }
+        });
+
+        if (!POSTGRES_UPSERT.equals(upsertSql())) {
+            return batchUpsert(consultations);
+        }
+        if (copyThreshold > 0 && consultations.size() >= copyThreshold) {
+            // eventos substituídos no próprio lote contam como gravados, como no upsert em batch
+            long distinct = consultations.stream().map(Consultation::getId).distinct().count();
+            return copyUpsert(consultations) + consultations.size() - (int) distinct;
+        }
+
+        // o último evento de cada id vence; duas datas do mesmo id no lote gerariam duas linhas
+        Map<UUID, Consultation> latest = new LinkedHashMap<>();
+        consultations.forEach(consultation -> latest.put(consultation.getId(), consultation));
+        Collection<Consultation> unique = latest.values();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement findMoved = connection.prepareStatement(FIND_MOVED.formatted(LATEST_FROM_ARRAYS));
+                 PreparedStatement upsertKeys = connection.prepareStatement(UPSERT_KEYS.formatted(LATEST_FROM_ARRAYS))) {
+                bindLatest(connection, findMoved, unique);
+                deleteMoved(connection, findMoved);
+                bindLatest(connection, upsertKeys, unique);
+                upsertKeys.executeUpdate();
+            }
+            return null;
+        });
+        // eventos substituídos no próprio lote contam como gravados, como no H2
+        return batchUpsert(unique) + consultations.size() - unique.size();
+    }
+
+    private static void bindLatest(Connection connection, PreparedStatement statement,
+                                   Collection<Consultation> consultations) throws SQLException {
+        statement.setArray(1, connection.createArrayOf("text",
+            consultations.stream().map(consultation -> consultation.getId().toString()).toArray()));
+        statement.setArray(2, connection.createArrayOf("text",
+            consultations.stream().map(consultation -> Objects.toString(consultation.getStartDate(), null)).toArray()));
+    }
+
+    private static void deleteMoved(Connection connection, PreparedStatement findMoved) throws SQLException {
+        // id e start_date exatos: o planner poda para a partição da data antiga
+        try (ResultSet moved = findMoved.executeQuery();
+             PreparedStatement delete = connection.prepareStatement(DELETE_IN_PARTITION)) {
+            while (moved.next()) {
+                delete.setObject(1, moved.getObject("id", UUID.class));
+                delete.setObject(2, moved.getObject("start_date", LocalDateTime.class));
+                delete.addBatch();
+            }
+            delete.executeBatch();
+        }
+    }
+
+    private int batchUpsert(Collection<Consultation> consultations) {
+        int[][] counts = jdbcTemplate.batchUpdate(upsertSql(), consultations, consultations.size(), (ps, consultation) -> {
+            ps.setObject(1, consultation.getId());
+            ps.setObject(2, consultation.getStartDate());
+            ps.setObject(3, consultation.getFinalDate());
+            ps.setString(4, consultation.getStatus() == null ? null : consultation.getStatus().name());
+            ps.setString(5, consultation.getDescription());
+        });
+        return consultations.size() - countFailures(counts);
+    }
+
+    /**
+     * Caminho de backfill: COPY binário para a tabela de staging e um único INSERT ... SELECT ... ON CONFLICT para
+     * a consulta, em vez de um statement por linha. Sem transação em volta, abre uma só para esta chamada, já que
+     * o staging é limpo no commit.
+     */
+    private int copyUpsert(Collection<Consultation> consultations) {
+        Integer merged = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            boolean ownTransaction = connection.getAutoCommit();
+            if (ownTransaction) {
+                connection.setAutoCommit(false);
+            }
+            try {
+                copyToStaging(connection, consultations);
+                try (PreparedStatement findMoved = connection.prepareStatement(FIND_MOVED.formatted(LATEST_FROM_STAGING))) {
+                    deleteMoved(connection, findMoved);
+                }
+                int count = mergeStaging(connection, consultations.size());
+                if (ownTransaction) {
+                    connection.commit();
+                }
+                return count;
+            } catch (SQLException | RuntimeException e) {
+                if (ownTransaction) {
+                    connection.rollback();
+                }
+                throw e;
+            } finally {
+                if (ownTransaction) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        });
+        return merged == null ? 0 : merged;
+    }
+
+    private static void copyToStaging(Connection connection, Collection<Consultation> consultations) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING);
+        }
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try (PgBinaryCopyWriter writer = new PgBinaryCopyWriter(new PGCopyOutputStream(pgConnection, COPY_STAGING))) {
+            int seq = 0;
+            for (Consultation consultation : consultations) {
+                writer.startRow(6);
+                writer.writeInt(seq++);
+                writer.writeUuid(consultation.getId());
+                writer.writeTimestamp(consultation.getStartDate());
+                writer.writeTimestamp(consultation.getFinalDate());
+                writer.writeText(consultation.getStatus() == null ? null : consultation.getStatus().name());
+                writer.writeText(consultation.getDescription());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("COPY into consultation_staging failed", e);
+        }
+    }
+
+    private static int mergeStaging(Connection connection, int copied) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            int merged = statement.executeUpdate(MERGE_STAGING);
+            statement.executeUpdate(UPSERT_KEYS.formatted(LATEST_FROM_STAGING));
+            // numa transação maior o ON COMMIT ainda não limpou; o próximo lote não pode ver estas linhas
+            statement.execute("TRUNCATE consultation_staging");
+            log.debug("Merged {} of {} staged consultations in {} ms", merged, copied, (System.nanoTime() - start) / 1_000_000);
+            return merged;
+        }
+    }
+
+    @Override
+    public List<UUID> markReminderSent(List<ConsultationReminder> reminders, LocalDateTime sentAt) {
+        if (reminders.isEmpty()) {
+            return List.of();
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(MARK_REMINDER_SENT, reminders, reminders.size(), (ps, reminder) -> {
+            ps.setObject(1, sentAt);
+            ps.setObject(2, reminder.id());
+            ps.setObject(3, reminder.startDate());
+        });
+        List<UUID> marked = new ArrayList<>(reminders.size());
+        for (int i = 0; i < reminders.size(); i++) {
+            if (counts[0][i] > 0) {
+                marked.add(reminders.get(i).id());
+            }
+        }
+        return marked;
+    }
+
+    @Override
+    public List<UUID> updateStatuses(List<ConsultationStatusChangedEvent> changes) {
+        List<UUID> updated = new ArrayList<>(changes.size());
+        List<ConsultationStatusChangedEvent> byIdOnly = new ArrayList<>();
+        List<ConsultationStatusChangedEvent> located = new ArrayList<>(changes.size());
+        for (ConsultationStatusChangedEvent change : changes) {
+            (change.startDate() == null ? byIdOnly : located).add(change);
+        }
+
+        if (!located.isEmpty()) {
+            boolean[] changed = updateStatusesInPartition(located);
+            for (int i = 0; i < located.size(); i++) {
+                if (changed[i]) {
+                    updated.add(located.get(i).id());
+                } else {
+                    // o startDate do evento pode estar desatualizado (remarcação): tenta de novo só pelo id
+                    byIdOnly.add(located.get(i));
+                }
+            }
+        }
+
+        if (byIdOnly.isEmpty()) {
+            return updated;
+        }
+        if (POSTGRES_UPSERT.equals(upsertSql())) {
+            // o start_date atual vem de consultation_key e o UPDATE continua numa partição só
+            Map<UUID, LocalDateTime> current = currentStartDates(byIdOnly);
+            List<ConsultationStatusChangedEvent> relocated = byIdOnly.stream()
+                .filter(change -> current.containsKey(change.id()) && !current.get(change.id()).equals(change.startDate()))
+                .map(change -> new ConsultationStatusChangedEvent(change.id(), current.get(change.id()), change.status()))
+                .toList();
+            boolean[] changed = updateStatusesInPartition(relocated);
+            for (int i = 0; i < relocated.size(); i++) {
+                if (changed[i]) {
+                    updated.add(relocated.get(i).id());
+                }
+            }
+        } else {
+            int[][] counts = jdbcTemplate.batchUpdate(UPDATE_STATUS, byIdOnly, byIdOnly.size(), (ps, change) -> {
+                ps.setString(1, change.status().name());
+                ps.setObject(2, change.id());
+                ps.setString(3, change.status().name());
+            });
+            for (int i = 0; i < byIdOnly.size(); i++) {
+                if (counts[0][i] > 0) {
+                    updated.add(byIdOnly.get(i).id());
+                }
+            }
+        }
+        return updated;
+    }
+
+    private boolean[] updateStatusesInPartition(List<ConsultationStatusChangedEvent> changes) {
+        boolean[] changed = new boolean[changes.size()];
+        if (changes.isEmpty()) {
+            return changed;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_STATUS_IN_PARTITION, changes, changes.size(), (ps, change) -> {
+            ps.setString(1, change.status().name());
+            ps.setObject(2, change.id());
+            ps.setObject(3, change.startDate());
+            ps.setString(4, change.status().name());
+        });
+        for (int i = 0; i < changes.size(); i++) {
+            changed[i] = counts[0][i] > 0;
+        }
+        return changed;
+    }
+
+    private Map<UUID, LocalDateTime> currentStartDates(List<ConsultationStatusChangedEvent> changes) {
+        Map<UUID, LocalDateTime> startDates = new HashMap<>();
+        jdbcTemplate.query(FIND_START_DATES,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("text",
+                changes.stream().map(change -> change.id().toString()).toArray())),
+            rs -> {
+                startDates.put(rs.getObject("id", UUID.class), rs.getObject("start_date", LocalDateTime.class));
+            });
+        return startDates;
+    }
+
+    private String upsertSql() {
+        if (upsertSql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+            upsertSql = "PostgreSQL".equalsIgnoreCase(product) ? POSTGRES_UPSERT : MERGE_UPSERT;
+        }
+        return upsertSql;
+    }
+
+    private static int countFailures(int[][] counts) {
+        int failures = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    failures++;
+                }
+            }
+        }
+        return failures;
+    }
+}
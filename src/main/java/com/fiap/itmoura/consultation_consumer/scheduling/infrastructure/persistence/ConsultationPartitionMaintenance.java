@@ -0,0 +1,189 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.PartitioningProperties;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mantém as partições mensais de consultation (PARTITION BY RANGE (start_date), criada pela migração V6). No
+ * startup e uma vez por dia cria as partições do mês atual e dos próximos {@code premakeMonths}, para que nenhuma
+ * consulta futura caia na partição default, e desanexa as partições que terminaram antes do horizonte de
+ * arquivamento, movendo-as para o schema de arquivo.
+ *
+ * <p>Só é desanexada a partição cujas consultas estão todas COMPLETED ou CANCELLED; as demais ficam e geram um
+ * aviso. Em outros bancos (H2 nos testes) ou com a tabela ainda não particionada a manutenção não faz nada.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "consultation.partitioning.enabled", havingValue = "true", matchIfMissing = true)
+public class ConsultationPartitionMaintenance {
+
+    static final String PARENT = "consultation";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("consultation_p(\\d{6})");
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String IS_PARTITIONED = """
+        SELECT count(*) FROM pg_partitioned_table WHERE partrelid = to_regclass('consultation')
+        """;
+
+    private static final String LIST_PARTITIONS = """
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'consultation'::regclass
+        """;
+
+    // consultas arquivadas não voltam a ser remarcadas nem mudam de status pelo consumer
+    private static final String DELETE_ARCHIVED_KEYS = """
+        DELETE FROM consultation_key WHERE start_date >= ? AND start_date < ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PartitioningProperties properties;
+    private final LongSupplier clock;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @Autowired
+    public ConsultationPartitionMaintenance(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                            PartitioningProperties properties) {
+        this(jdbcTemplate, transactionTemplate, properties, System::currentTimeMillis);
+    }
+
+    ConsultationPartitionMaintenance(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                     PartitioningProperties properties, LongSupplier clock) {
+        if (!IDENTIFIER.matcher(properties.getArchiveSchema()).matches()) {
+            throw new IllegalArgumentException("Invalid archive schema name: " + properties.getArchiveSchema());
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            maintain();
+        } catch (DataAccessException e) {
+            // sem partição nova as consultas caem na default; o job diário tenta de novo
+            log.error("Consultation partition maintenance failed on startup", e);
+        }
+    }
+
+    @Scheduled(cron = "${consultation.partitioning.cron:0 30 3 * * *}")
+    public void maintain() {
+        if (!isPartitioned()) {
+            return;
+        }
+
+        LocalDate today = LocalDate.ofInstant(Instant.ofEpochMilli(clock.getAsLong()), zone);
+        List<String> existing = jdbcTemplate.queryForList(LIST_PARTITIONS, String.class);
+
+        int created = 0;
+        for (YearMonth month : monthsToPremake(today, properties.getPremakeMonths())) {
+            if (!existing.contains(partitionName(month))) {
+                createPartition(month);
+                created++;
+            }
+        }
+
+        int archived = 0;
+        for (String partition : existing) {
+            Optional<YearMonth> month = monthOf(partition);
+            if (month.isPresent() && isPastArchiveHorizon(month.get(), today, properties) && archive(partition, month.get())) {
+                archived++;
+            }
+        }
+        log.info("Consultation partitions: {} created, {} archived to {}", created, archived, properties.getArchiveSchema());
+    }
+
+    private boolean isPartitioned() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            return false;
+        }
+        Integer partitioned = jdbcTemplate.queryForObject(IS_PARTITIONED, Integer.class);
+        if (partitioned == null || partitioned == 0) {
+            log.warn("Table consultation is not partitioned, skipping partition maintenance");
+            return false;
+        }
+        return true;
+    }
+
+    private void createPartition(YearMonth month) {
+        // falha se a default já tiver linhas do mês: elas precisam ser movidas antes (ver migração V6)
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF " + PARENT
+            + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        log.info("Created consultation partition {}", partitionName(month));
+    }
+
+    private boolean archive(String partition, YearMonth month) {
+        Boolean archived = transactionTemplate.execute(status -> {
+            // trava a partição contra escrita para que a checagem valha até o DETACH
+            jdbcTemplate.execute("LOCK TABLE " + partition + " IN SHARE MODE");
+            Integer active = jdbcTemplate.queryForObject("SELECT count(*) FROM " + partition
+                + " WHERE status IS NULL OR status NOT IN ('COMPLETED', 'CANCELLED')", Integer.class);
+            if (active != null && active > 0) {
+                log.warn("Partition {} is past the archive horizon but has {} active consultations, keeping it", partition, active);
+                return false;
+            }
+            // DETACH ... CONCURRENTLY não é permitido com partição default
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + properties.getArchiveSchema());
+            jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + properties.getArchiveSchema());
+            jdbcTemplate.update(DELETE_ARCHIVED_KEYS, month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+            return true;
+        });
+        if (Boolean.TRUE.equals(archived)) {
+            log.info("Archived consultation partition {} to {}", partition, properties.getArchiveSchema());
+            return true;
+        }
+        return false;
+    }
+
+    static List<YearMonth> monthsToPremake(LocalDate today, int premakeMonths) {
+        YearMonth current = YearMonth.from(today);
+        List<YearMonth> months = new ArrayList<>(premakeMonths + 1);
+        for (int i = 0; i <= premakeMonths; i++) {
+            months.add(current.plusMonths(i));
+        }
+        return months;
+    }
+
+    static boolean isPastArchiveHorizon(YearMonth month, LocalDate today, PartitioningProperties properties) {
+        // a partição cobre [dia 1, dia 1 do mês seguinte); só sai quando o mês inteiro passou do horizonte
+        return !month.plusMonths(1).atDay(1).isAfter(today.minus(properties.getArchiveAfter()));
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARENT + "_p" + month.format(SUFFIX);
+    }
+
+    static Optional<YearMonth> monthOf(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        return matcher.matches() ? Optional.of(YearMonth.parse(matcher.group(1), SUFFIX)) : Optional.empty();
+    }
+}
@@ -1,19 +1,120 @@
 package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
 
 import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import java.util.UUID;
 
 @Repository
-public interface ConsultationRepository extends JpaRepository<Consultation, UUID> {
+public interface ConsultationRepository extends JpaRepository<Consultation, UUID>, ConsultationBulkRepository {
 
     @Query("SELECT c FROM Consultation c WHERE c.startDate BETWEEN :startDate AND :endDate")
     List<Consultation> findAllConsultationTomorrow(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    // só consultas que ainda recebem lembrete; os status vão como literais (não parâmetros) para o PostgreSQL
+    // casar o filtro com o índice parcial consultation_active_start_date_idx
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT new com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder(
+            c.id, c.startDate, c.finalDate, c.status)
+        FROM Consultation c
+        WHERE c.startDate BETWEEN :startDate AND :endDate
+          AND c.status IN (com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum.SCHEDULED,
+                           com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum.CONFIRMED)
+        ORDER BY c.startDate, c.id
+        """)
+    List<ConsultationReminder> findFirstReminderChunk(@Param("startDate") LocalDateTime startDate,
+                                                      @Param("endDate") LocalDateTime endDate,
+                                                      Pageable pageable);
+
+    // o startDate >= redundante é o que deixa o PostgreSQL podar as partições; o OR do keyset sozinho não poda
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT new com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder(
+            c.id, c.startDate, c.finalDate, c.status)
+        FROM Consultation c
+        WHERE c.startDate <= :endDate
+          AND c.startDate >= :lastStartDate
+          AND (c.startDate > :lastStartDate OR (c.startDate = :lastStartDate AND c.id > :lastId))
+          AND c.status IN (com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum.SCHEDULED,
+                           com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum.CONFIRMED)
+        ORDER BY c.startDate, c.id
+        """)
+    List<ConsultationReminder> findNextReminderChunk(@Param("lastStartDate") LocalDateTime lastStartDate,
+                                                     @Param("lastId") UUID lastId,
+                                                     @Param("endDate") LocalDateTime endDate,
+                                                     Pageable pageable);
+
+    // consultas ainda não lembradas no intervalo, servidas pelo índice parcial consultation_unsent_reminder_idx;
+    // como o lembrete gravado sai do filtro, a próxima página é de novo a primeira
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT new com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder(
+            c.id, c.startDate, c.finalDate, c.status)
+        FROM Consultation c
+        WHERE c.startDate BETWEEN :startDate AND :endDate
+          AND c.reminderSentAt IS NULL
+          AND c.status IN (com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum.SCHEDULED,
+                           com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum.CONFIRMED)
+        ORDER BY c.startDate, c.id
+        """)
+    List<ConsultationReminder> findUnsentReminderChunk(@Param("startDate") LocalDateTime startDate,
+                                                       @Param("endDate") LocalDateTime endDate,
+                                                       Pageable pageable);
+
+    // keyset sobre as não lembradas, para quem só lê (rebuild do timer) e não tira a linha do filtro
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT new com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder(
+            c.id, c.startDate, c.finalDate, c.status)
+        FROM Consultation c
+        WHERE c.startDate <= :endDate
+          AND c.startDate >= :lastStartDate
+          AND (c.startDate > :lastStartDate OR (c.startDate = :lastStartDate AND c.id > :lastId))
+          AND c.reminderSentAt IS NULL
+          AND c.status IN (com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum.SCHEDULED,
+                           com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum.CONFIRMED)
+        ORDER BY c.startDate, c.id
+        """)
+    List<ConsultationReminder> findNextUnsentReminderChunk(@Param("lastStartDate") LocalDateTime lastStartDate,
+                                                           @Param("lastId") UUID lastId,
+                                                           @Param("endDate") LocalDateTime endDate,
+                                                           Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+        SELECT new com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder(
+            c.id, c.startDate, c.finalDate, c.status)
+        FROM Consultation c
+        WHERE c.id IN :ids
+          AND c.startDate > :startAfter
+          AND c.startDate <= :startUntil
+        """)
+    List<ConsultationReminder> findRemindersByIds(@Param("ids") Collection<UUID> ids,
+                                                  @Param("startAfter") LocalDateTime startAfter,
+                                                  @Param("startUntil") LocalDateTime startUntil);
 }
@@ -0,0 +1,42 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "processed_event")
+public class ProcessedEvent {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(nullable = false)
+        private UUID consultationId;
+
+        // posição do registro no log (ver IdempotencyGuard#positionOf)
+        @Column(name = "event_version", nullable = false)
+        private long position;
+    }
+}
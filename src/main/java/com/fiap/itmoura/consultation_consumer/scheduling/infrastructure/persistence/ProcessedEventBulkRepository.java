@@ -0,0 +1,9 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface ProcessedEventBulkRepository {
+
+    void insertIgnoringDuplicates(Collection<ProcessedEvent.Key> keys, LocalDateTime processedAt);
+}
@@ -0,0 +1,49 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@RequiredArgsConstructor
+class ProcessedEventBulkRepositoryImpl implements ProcessedEventBulkRepository {
+
+    private static final String POSTGRES_INSERT = """
+        INSERT INTO processed_event (consultation_id, event_version, processed_at)
+        VALUES (?, ?, ?)
+        ON CONFLICT (consultation_id, event_version) DO NOTHING
+        """;
+
+    private static final String MERGE_INSERT = """
+        MERGE INTO processed_event (consultation_id, event_version, processed_at) KEY (consultation_id, event_version)
+        VALUES (?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile String insertSql;
+
+    @Override
+    public void insertIgnoringDuplicates(Collection<ProcessedEvent.Key> keys, LocalDateTime processedAt) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(insertSql(), keys, keys.size(), (ps, key) -> {
+            ps.setObject(1, key.getConsultationId());
+            ps.setLong(2, key.getPosition());
+            ps.setObject(3, processedAt);
+        });
+    }
+
+    private String insertSql() {
+        if (insertSql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+            insertSql = "PostgreSQL".equalsIgnoreCase(product) ? POSTGRES_INSERT : MERGE_INSERT;
+        }
+        return insertSql;
+    }
+}
@@ -0,0 +1,42 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, ProcessedEvent.Key>, ProcessedEventBulkRepository {
+
+    // checagem exata para os eventos que o filtro de Bloom marcou como possivelmente repetidos
+    @Query("SELECT p.id FROM ProcessedEvent p WHERE p.id.consultationId IN :consultationIds")
+    List<ProcessedEvent.Key> findKeysByConsultationIds(@Param("consultationIds") Collection<UUID> consultationIds);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT new com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ProcessedEvent(
+            p.id, p.processedAt)
+        FROM ProcessedEvent p
+        WHERE p.processedAt >= :since
+        """)
+    Stream<ProcessedEvent> streamProcessedSince(@Param("since") LocalDateTime since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProcessedEvent p WHERE p.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,15 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ReminderOutboxBulkRepository {
+
+    void appendAll(Collection<ReminderOutboxEntry> entries);
+
+    /**
+     * Trava as próximas {@code limit} linhas do outbox na transação atual, pulando as que outro relay já travou,
+     * então várias threads e réplicas drenam em paralelo sem esperar umas pelas outras.
+     */
+    List<ReminderOutboxEntry> lockNextBatch(int limit);
+}
@@ -0,0 +1,53 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.NotificationTypeEnum;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class ReminderOutboxBulkRepositoryImpl implements ReminderOutboxBulkRepository {
+
+    private static final String INSERT = """
+        INSERT INTO reminder_outbox (consultation_id, notification_type, payload, created_at) VALUES (?, ?, ?, ?)
+        """;
+
+    private static final String LOCK_NEXT_BATCH = """
+        SELECT id, consultation_id, notification_type, payload, created_at
+        FROM reminder_outbox
+        ORDER BY id
+        LIMIT ?
+        FOR UPDATE SKIP LOCKED
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void appendAll(Collection<ReminderOutboxEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (ps, entry) -> {
+            ps.setObject(1, entry.getConsultationId());
+            ps.setString(2, entry.getNotificationType().name());
+            ps.setString(3, entry.getPayload());
+            ps.setObject(4, entry.getCreatedAt());
+        });
+    }
+
+    @Override
+    public List<ReminderOutboxEntry> lockNextBatch(int limit) {
+        return jdbcTemplate.query(LOCK_NEXT_BATCH, (rs, row) -> new ReminderOutboxEntry(
+            rs.getLong("id"),
+            rs.getObject("consultation_id", UUID.class),
+            NotificationTypeEnum.valueOf(rs.getString("notification_type")),
+            rs.getString("payload"),
+            rs.getObject("created_at", LocalDateTime.class)
+        ), limit);
+    }
+}
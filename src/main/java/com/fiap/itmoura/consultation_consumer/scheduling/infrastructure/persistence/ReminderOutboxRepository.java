@@ -0,0 +1,17 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface ReminderOutboxRepository extends JpaRepository<ReminderOutboxEntry, Long>, ReminderOutboxBulkRepository {
+
+    @Modifying
+    @Query("DELETE FROM ReminderOutboxEntry e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
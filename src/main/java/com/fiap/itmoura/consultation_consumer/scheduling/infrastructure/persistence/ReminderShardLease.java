@@ -0,0 +1,35 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "reminder_shard_lease")
+public class ReminderShardLease {
+
+    @Id
+    private Integer shardId;
+
+    @Column
+    private String owner;
+
+    @Column
+    private LocalDateTime leaseUntil;
+
+    // dia de consultas cujos lembretes deste shard já foram enviados
+    @Column
+    private LocalDate completedFor;
+
+    public ReminderShardLease(Integer shardId) {
+        this.shardId = shardId;
+    }
+}
@@ -0,0 +1,51 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReminderShardLeaseRepository extends JpaRepository<ReminderShardLease, Integer> {
+
+    @Query("""
+        SELECT l.shardId FROM ReminderShardLease l
+        WHERE l.shardId < :shards AND (l.completedFor IS NULL OR l.completedFor < :runDate)
+        ORDER BY l.shardId
+        """)
+    List<Integer> findPendingShards(@Param("runDate") LocalDate runDate, @Param("shards") int shards);
+
+    // o UPDATE condicional é atômico: só uma réplica consegue pegar um shard livre ou com lease expirado
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE ReminderShardLease l SET l.owner = :owner, l.leaseUntil = :leaseUntil
+        WHERE l.shardId = :shardId
+          AND (l.completedFor IS NULL OR l.completedFor < :runDate)
+          AND (l.owner IS NULL OR l.owner = :owner OR l.leaseUntil < :now)
+        """)
+    int claim(@Param("shardId") int shardId,
+              @Param("owner") String owner,
+              @Param("runDate") LocalDate runDate,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReminderShardLease l SET l.leaseUntil = :leaseUntil WHERE l.shardId = :shardId AND l.owner = :owner")
+    int renew(@Param("shardId") int shardId, @Param("owner") String owner, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE ReminderShardLease l SET l.completedFor = :runDate, l.owner = NULL, l.leaseUntil = NULL
+        WHERE l.shardId = :shardId AND l.owner = :owner
+        """)
+    int complete(@Param("shardId") int shardId, @Param("owner") String owner, @Param("runDate") LocalDate runDate);
+}
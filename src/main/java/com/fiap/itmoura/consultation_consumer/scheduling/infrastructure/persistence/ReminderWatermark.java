@@ -0,0 +1,33 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "reminder_watermark")
+public class ReminderWatermark {
+
+    @Id
+    private String name;
+
+    // última consulta (startDate, id) cujo lembrete já foi enviado
+    @Column(nullable = false)
+    private LocalDateTime lastStartDate;
+
+    @Column
+    private UUID lastId;
+
+    public ReminderWatermark(String name, LocalDateTime lastStartDate) {
+        this.name = name;
+        this.lastStartDate = lastStartDate;
+    }
+}
@@ -0,0 +1,19 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ReminderWatermarkRepository extends JpaRepository<ReminderWatermark, String> {
+
+    // SELECT ... FOR UPDATE: réplicas concorrentes avançam o watermark uma de cada vez
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM ReminderWatermark w WHERE w.name = :name")
+    Optional<ReminderWatermark> lockByName(@Param("name") String name);
+}
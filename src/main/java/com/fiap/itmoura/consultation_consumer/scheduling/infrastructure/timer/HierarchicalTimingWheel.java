@@ -0,0 +1,285 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.timer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Timing wheel hierárquico (4 níveis de 256 slots) para lembretes identificados por UUID.
+ *
+ * <p>As entradas ficam em arrays primitivos (struct-of-arrays) encadeadas por índice dentro de cada slot,
+ * e um índice de endereçamento aberto mapeia o UUID para a entrada. Agendar, reagendar e cancelar são O(1);
+ * cada entrada desce no máximo um nível por cascata até chegar ao nível 0, onde expira no tick exato.
+ * Com tick de 1s o alcance é de 2^32 ticks (~136 anos). Não é otimizado para concorrência: os métodos
+ * públicos são sincronizados.
+ */
+public class HierarchicalTimingWheel {
+
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+    private static final int NIL = -1;
+
+    private final long tickMillis;
+    private final int[] slotHeads = new int[LEVELS * WHEEL_SIZE];
+    private long currentTick;
+
+    private long[] idMsb;
+    private long[] idLsb;
+    private long[] deadlineTick;
+    private int[] next;
+    private int[] prev;
+    private int[] slotOf;
+    private int freeHead = NIL;
+    private int allocated;
+    private int size;
+
+    private int[] index;
+
+    public HierarchicalTimingWheel(long tickMillis, long startMillis, int initialCapacity) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        Arrays.fill(slotHeads, NIL);
+
+        int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 1);
+        idMsb = new long[capacity];
+        idLsb = new long[capacity];
+        deadlineTick = new long[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        slotOf = new int[capacity];
+        index = new int[capacity * 2];
+        Arrays.fill(index, NIL);
+    }
+
+    /**
+     * Agenda (ou reagenda) o lembrete. Prazos no passado expiram no próximo tick.
+     *
+     * @return true se o id ainda não estava agendado
+     */
+    public synchronized boolean schedule(UUID id, long deadlineMillis) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+
+        int entry = find(msb, lsb);
+        boolean created = entry == NIL;
+        if (created) {
+            entry = allocate(msb, lsb);
+            insertIndex(entry);
+            size++;
+        } else {
+            unlink(entry);
+        }
+        deadlineTick[entry] = tick;
+        place(entry);
+        return created;
+    }
+
+    public synchronized boolean cancel(UUID id) {
+        int entry = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (entry == NIL) {
+            return false;
+        }
+        unlink(entry);
+        removeIndex(entry);
+        release(entry);
+        size--;
+        return true;
+    }
+
+    public synchronized boolean contains(UUID id) {
+        return find(id.getMostSignificantBits(), id.getLeastSignificantBits()) != NIL;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Avança o relógio até {@code nowMillis} e devolve os ids que expiraram, na ordem dos ticks.
+     */
+    public synchronized List<UUID> advanceTo(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<UUID> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                long levelMask = (1L << (WHEEL_BITS * level)) - 1;
+                if ((currentTick & levelMask) == 0) {
+                    cascade(level, (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK));
+                }
+            }
+
+            int slot = (int) (currentTick & WHEEL_MASK);
+            int entry = slotHeads[slot];
+            slotHeads[slot] = NIL;
+            while (entry != NIL) {
+                int following = next[entry];
+                expired.add(new UUID(idMsb[entry], idLsb[entry]));
+                removeIndex(entry);
+                release(entry);
+                size--;
+                entry = following;
+            }
+        }
+        return expired;
+    }
+
+    private void cascade(int level, int slot) {
+        int head = level * WHEEL_SIZE + slot;
+        int entry = slotHeads[head];
+        slotHeads[head] = NIL;
+        while (entry != NIL) {
+            int following = next[entry];
+            place(entry);
+            entry = following;
+        }
+    }
+
+    private void place(int entry) {
+        long deadline = Math.min(deadlineTick[entry], currentTick + MAX_DELTA);
+        long delta = deadline - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        link(entry, level * WHEEL_SIZE + (int) ((deadline >>> (WHEEL_BITS * level)) & WHEEL_MASK));
+    }
+
+    private void link(int entry, int head) {
+        int first = slotHeads[head];
+        next[entry] = first;
+        prev[entry] = NIL;
+        if (first != NIL) {
+            prev[first] = entry;
+        }
+        slotHeads[head] = entry;
+        slotOf[entry] = head;
+    }
+
+    private void unlink(int entry) {
+        int before = prev[entry];
+        int after = next[entry];
+        if (before != NIL) {
+            next[before] = after;
+        } else {
+            slotHeads[slotOf[entry]] = after;
+        }
+        if (after != NIL) {
+            prev[after] = before;
+        }
+    }
+
+    private int allocate(long msb, long lsb) {
+        int entry;
+        if (freeHead != NIL) {
+            entry = freeHead;
+            freeHead = next[entry];
+        } else {
+            if (allocated == idMsb.length) {
+                grow();
+            }
+            entry = allocated++;
+        }
+        idMsb[entry] = msb;
+        idLsb[entry] = lsb;
+        return entry;
+    }
+
+    private void release(int entry) {
+        next[entry] = freeHead;
+        slotOf[entry] = NIL;
+        freeHead = entry;
+    }
+
+    private void grow() {
+        int capacity = idMsb.length * 2;
+        idMsb = Arrays.copyOf(idMsb, capacity);
+        idLsb = Arrays.copyOf(idLsb, capacity);
+        deadlineTick = Arrays.copyOf(deadlineTick, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        slotOf = Arrays.copyOf(slotOf, capacity);
+    }
+
+    private int find(long msb, long lsb) {
+        int mask = index.length - 1;
+        for (int i = hash(msb, lsb) & mask; index[i] != NIL; i = (i + 1) & mask) {
+            int entry = index[i];
+            if (idMsb[entry] == msb && idLsb[entry] == lsb) {
+                return entry;
+            }
+        }
+        return NIL;
+    }
+
+    private void insertIndex(int entry) {
+        if ((size + 1) * 2 > index.length) {
+            rehash(index.length * 2);
+        }
+        int mask = index.length - 1;
+        int i = hash(idMsb[entry], idLsb[entry]) & mask;
+        while (index[i] != NIL) {
+            i = (i + 1) & mask;
+        }
+        index[i] = entry;
+    }
+
+    // remoção com backward shift para manter as sequências de sondagem linear sem tombstones
+    private void removeIndex(int entry) {
+        int mask = index.length - 1;
+        int i = hash(idMsb[entry], idLsb[entry]) & mask;
+        while (index[i] != entry) {
+            i = (i + 1) & mask;
+        }
+        index[i] = NIL;
+
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            int candidate = index[j];
+            if (candidate == NIL) {
+                return;
+            }
+            int home = hash(idMsb[candidate], idLsb[candidate]) & mask;
+            boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (!stays) {
+                index[i] = candidate;
+                index[j] = NIL;
+                i = j;
+            }
+        }
+    }
+
+    private void rehash(int length) {
+        int[] old = index;
+        index = new int[length];
+        Arrays.fill(index, NIL);
+        int mask = length - 1;
+        for (int entry : old) {
+            if (entry == NIL) {
+                continue;
+            }
+            int i = hash(idMsb[entry], idLsb[entry]) & mask;
+            while (index[i] != NIL) {
+                i = (i + 1) & mask;
+            }
+            index[i] = entry;
+        }
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,10 @@
+-- start_date atual de cada consulta. A chave primária de consultation é (id, start_date), então achar uma consulta
+-- só pelo id sonda o índice de todas as partições; remarcação e mudança de status sem data leem a partição aqui.
+-- Também garante no banco a unicidade do id entre partições.
+CREATE TABLE consultation_key (
+    id         uuid         NOT NULL PRIMARY KEY,
+    start_date timestamp(6) NOT NULL
+);
+
+INSERT INTO consultation_key (id, start_date)
+SELECT id, start_date FROM consultation;
@@ -0,0 +1,9 @@
+-- Esquema original da tabela de consultas. Bancos que já existiam antes das migrações entram com
+-- baseline nesta versão (spring.flyway.baseline-on-migrate).
+CREATE TABLE consultation (
+    id          uuid         NOT NULL PRIMARY KEY,
+    start_date  timestamp(6) NOT NULL,
+    final_date  timestamp(6) NOT NULL,
+    status      varchar(255),
+    description varchar(255)
+);
@@ -0,0 +1,8 @@
+-- leases dos shards do job de lembretes. IF NOT EXISTS (aqui e nas V3-V5) porque bancos com baseline na V1 podem
+-- já ter essas tabelas, criadas fora das migrações.
+CREATE TABLE IF NOT EXISTS reminder_shard_lease (
+    shard_id      integer      NOT NULL PRIMARY KEY,
+    owner         varchar(255),
+    lease_until   timestamp(6),
+    completed_for date
+);
@@ -0,0 +1,6 @@
+-- posição do modo contínuo
+CREATE TABLE IF NOT EXISTS reminder_watermark (
+    name            varchar(255) NOT NULL PRIMARY KEY,
+    last_start_date timestamp(6) NOT NULL,
+    last_id         uuid
+);
@@ -0,0 +1,10 @@
+-- eventos já processados (IdempotencyGuard)
+CREATE TABLE IF NOT EXISTS processed_event (
+    consultation_id uuid         NOT NULL,
+    event_version   bigint       NOT NULL,
+    processed_at    timestamp(6) NOT NULL,
+    PRIMARY KEY (consultation_id, event_version)
+);
+
+-- purge e warm-up do filtro leem por processed_at
+CREATE INDEX IF NOT EXISTS processed_event_processed_at_idx ON processed_event (processed_at);
@@ -0,0 +1,10 @@
+-- marcada na mesma transação que grava o lembrete no outbox
+ALTER TABLE consultation ADD COLUMN IF NOT EXISTS reminder_sent_at timestamp(6);
+
+-- outbox drenado pelo ReminderOutboxRelay em ordem de id
+CREATE TABLE IF NOT EXISTS reminder_outbox (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    consultation_id uuid          NOT NULL,
+    payload         varchar(2000) NOT NULL,
+    created_at      timestamp(6)  NOT NULL
+);
@@ -0,0 +1,42 @@
+-- Converte consultation em tabela particionada por faixa mensal de start_date (PostgreSQL 12+). Depois desta
+-- migração o ConsultationPartitionMaintenance cria as partições futuras e arquiva as antigas.
+ALTER TABLE consultation RENAME TO consultation_legacy;
+ALTER TABLE consultation_legacy RENAME CONSTRAINT consultation_pkey TO consultation_legacy_pkey;
+
+-- a chave primária de uma tabela particionada precisa conter a chave de partição;
+-- a unicidade do id é garantida pelo upsert (remarcação apaga a linha da data antiga)
+CREATE TABLE consultation (
+    id               uuid         NOT NULL,
+    start_date       timestamp(6) NOT NULL,
+    final_date       timestamp(6) NOT NULL,
+    status           varchar(255),
+    description      varchar(255),
+    reminder_sent_at timestamp(6),
+    PRIMARY KEY (id, start_date)
+) PARTITION BY RANGE (start_date);
+
+-- só recebe linhas fora das partições criadas; deve ficar vazia enquanto a manutenção estiver em dia
+CREATE TABLE consultation_default PARTITION OF consultation DEFAULT;
+
+-- uma partição por mês, do histórico existente até três meses à frente; os listeners sobem antes da
+-- manutenção, então o mês atual precisa existir já aqui
+DO $$
+DECLARE
+    month date;
+BEGIN
+    FOR month IN
+        SELECT generate_series(date_trunc('month', least(min(start_date), now())),
+                               date_trunc('month', greatest(max(start_date), now())) + interval '3 months',
+                               interval '1 month')::date
+        FROM consultation_legacy
+    LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF consultation FOR VALUES FROM (%L) TO (%L)',
+                       'consultation_p' || to_char(month, 'YYYYMM'), month, (month + interval '1 month')::date);
+    END LOOP;
+END $$;
+
+INSERT INTO consultation (id, start_date, final_date, status, description, reminder_sent_at)
+SELECT id, start_date, final_date, status, description, reminder_sent_at
+FROM consultation_legacy;
+
+DROP TABLE consultation_legacy;
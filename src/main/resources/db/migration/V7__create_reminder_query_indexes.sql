@@ -0,0 +1,12 @@
+-- Índices das consultas por faixa de start_date. Criados na tabela particionada, são replicados em cada
+-- partição, inclusive nas criadas depois pela manutenção.
+
+-- cobre o keyset dos lembretes (startDate, id -> id, startDate, finalDate, status) com index-only scan
+CREATE INDEX consultation_start_date_covering_idx
+    ON consultation (start_date) INCLUDE (status, final_date, id);
+
+-- só consultas que ainda podem receber lembrete (ConsultationStatusEnum SCHEDULED/CONFIRMED); a ordem
+-- (start_date, id) é a mesma do keyset, então a paginação não precisa ordenar
+CREATE INDEX consultation_active_start_date_idx
+    ON consultation (start_date, id) INCLUDE (final_date, status)
+    WHERE status IN ('SCHEDULED', 'CONFIRMED');
@@ -0,0 +1,2 @@
+-- o outbox passa a levar também as confirmações gravadas pelo consumer; linhas antigas são lembretes
+ALTER TABLE reminder_outbox ADD COLUMN IF NOT EXISTS notification_type varchar(32) NOT NULL DEFAULT 'REMINDER';
@@ -0,0 +1,5 @@
+-- consultas ativas ainda sem lembrete: a varredura atrás do watermark do modo contínuo lê só as poucas linhas
+-- pendentes do intervalo, e a linha sai do índice assim que o lembrete vai para o outbox
+CREATE INDEX consultation_unsent_reminder_idx
+    ON consultation (start_date, id) INCLUDE (final_date, status)
+    WHERE reminder_sent_at IS NULL AND status IN ('SCHEDULED', 'CONFIRMED');
@@ -1,23 +1,29 @@
 package com.fiap.itmoura.consultation_consumer.scheduling.application.job;
 
 import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ConsultationService;
-import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ReminderOutboxService;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
 import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ReminderProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,130 +32,124 @@ class ConsultationSchedulingTest {
     @Mock
     private ConsultationService consultationService;
 
+    @Spy
+    private ReminderProperties reminderProperties = new ReminderProperties();
+
+    @Mock
+    private ShardedReminderRunner shardedReminderRunner;
+
+    @Mock
+    private ReminderOutboxService reminderOutboxService;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private ConsultationScheduling consultationScheduling;
 
-    private ByteArrayOutputStream outputStream;
-    private PrintStream originalOut;
-    private Consultation consultation1;
-    private Consultation consultation2;
+    private ConsultationReminder consultation1;
+    private ConsultationReminder consultation2;
 
     @BeforeEach
     void setUp() {
-        outputStream = new ByteArrayOutputStream();
-        originalOut = System.out;
-        System.setOut(new PrintStream(outputStream));
-
-        consultation1 = new Consultation();
-        consultation1.setId(UUID.randomUUID());
-        consultation1.setStartDate(LocalDateTime.now().plusDays(1).withHour(10).withMinute(0));
-        consultation1.setFinalDate(LocalDateTime.now().plusDays(1).withHour(11).withMinute(0));
-        consultation1.setDescription("Consultation 1");
-        consultation1.setStatus(ConsultationStatusEnum.SCHEDULED);
-
-        consultation2 = new Consultation();
-        consultation2.setId(UUID.randomUUID());
-        consultation2.setStartDate(LocalDateTime.now().plusDays(1).withHour(14).withMinute(0));
-        consultation2.setFinalDate(LocalDateTime.now().plusDays(1).withHour(15).withMinute(0));
-        consultation2.setDescription("Consultation 2");
-        consultation2.setStatus(ConsultationStatusEnum.CONFIRMED);
+        consultation1 = new ConsultationReminder(
+            UUID.randomUUID(),
+            LocalDateTime.now().plusDays(1).withHour(10).withMinute(0),
+            LocalDateTime.now().plusDays(1).withHour(11).withMinute(0),
+            ConsultationStatusEnum.SCHEDULED);
+
+        consultation2 = new ConsultationReminder(
+            UUID.randomUUID(),
+            LocalDateTime.now().plusDays(1).withHour(14).withMinute(0),
+            LocalDateTime.now().plusDays(1).withHour(15).withMinute(0),
+            ConsultationStatusEnum.CONFIRMED);
     }
 
     @Test
     void shouldExecuteScheduleJobSuccessfully() {
-        List<Consultation> consultations = Arrays.asList(consultation1, consultation2);
-        when(consultationService.findAllConsultationTomorrow()).thenReturn(consultations);
+        givenConsultationsTomorrow(Arrays.asList(consultation1, consultation2));
 
         consultationScheduling.schedule();
 
-        verify(consultationService).findAllConsultationTomorrow();
-        
-        String output = outputStream.toString();
-        assertTrue(output.contains("===== SCHEDULING JOB ====="));
-        assertTrue(output.contains("===== LEMBRETE DE CONSULTA ====="));
-        assertTrue(output.contains("===== FINALIZANDO JOB ====="));
+        verify(consultationService).forEachReminderTomorrow(eq(500), any());
     }
 
     @Test
-    void shouldPrintConsultationsWhenFound() {
-        List<Consultation> consultations = Arrays.asList(consultation1, consultation2);
-        when(consultationService.findAllConsultationTomorrow()).thenReturn(consultations);
+    void shouldQueueRemindersWhenFound() {
+        givenConsultationsTomorrow(Arrays.asList(consultation1, consultation2));
 
         consultationScheduling.schedule();
 
-        String output = outputStream.toString();
-        assertTrue(output.contains(consultation1.toString()));
-        assertTrue(output.contains(consultation2.toString()));
+        verify(reminderOutboxService).record(List.of(consultation1, consultation2));
     }
 
     @Test
     void shouldExecuteJobWhenNoConsultationsFound() {
-        when(consultationService.findAllConsultationTomorrow()).thenReturn(Arrays.asList());
+        givenConsultationsTomorrow(Arrays.asList());
 
         consultationScheduling.schedule();
 
-        verify(consultationService).findAllConsultationTomorrow();
-        
-        String output = outputStream.toString();
-        assertTrue(output.contains("===== SCHEDULING JOB ====="));
-        assertTrue(output.contains("===== LEMBRETE DE CONSULTA ====="));
-        assertTrue(output.contains("===== FINALIZANDO JOB ====="));
+        verify(consultationService).forEachReminderTomorrow(eq(500), any());
     }
 
     @Test
     void shouldCallConsultationServiceOnlyOnce() {
-        List<Consultation> consultations = Arrays.asList(consultation1);
-        when(consultationService.findAllConsultationTomorrow()).thenReturn(consultations);
+        givenConsultationsTomorrow(Arrays.asList(consultation1));
 
         consultationScheduling.schedule();
 
-        verify(consultationService, times(1)).findAllConsultationTomorrow();
+        verify(consultationService, times(1)).forEachReminderTomorrow(anyInt(), any());
+        verify(consultationService, never()).findAllConsultationTomorrow();
     }
 
     @Test
-    void shouldPrintJobMessagesInCorrectOrder() {
-        when(consultationService.findAllConsultationTomorrow()).thenReturn(Arrays.asList());
+    void shouldHandleServiceException() {
+        when(consultationService.forEachReminderTomorrow(anyInt(), any())).thenThrow(new RuntimeException("Database error"));
+
+        assertThrows(RuntimeException.class, () -> consultationScheduling.schedule());
+        
+        verify(consultationService).forEachReminderTomorrow(eq(500), any());
+    }
+
+    @Test
+    void shouldUseConfiguredChunkSize() {
+        reminderProperties.setChunkSize(50);
+        givenConsultationsTomorrow(Arrays.asList());
 
         consultationScheduling.schedule();
 
-        String output = outputStream.toString();
-        String[] lines = output.split(System.lineSeparator());
-        
-        boolean foundSchedulingJob = false;
-        boolean foundLembrete = false;
-        boolean foundFinalizando = false;
-        
-        for (String line : lines) {
-            if (line.contains("===== SCHEDULING JOB =====")) {
-                foundSchedulingJob = true;
-                assertFalse(foundLembrete);
-                assertFalse(foundFinalizando);
-            } else if (line.contains("===== LEMBRETE DE CONSULTA =====")) {
-                foundLembrete = true;
-                assertTrue(foundSchedulingJob);
-                assertFalse(foundFinalizando);
-            } else if (line.contains("===== FINALIZANDO JOB =====")) {
-                foundFinalizando = true;
-                assertTrue(foundSchedulingJob);
-                assertTrue(foundLembrete);
-            }
-        }
-        
-        assertTrue(foundSchedulingJob);
-        assertTrue(foundLembrete);
-        assertTrue(foundFinalizando);
+        verify(consultationService).forEachReminderTomorrow(eq(50), any());
     }
 
     @Test
-    void shouldHandleServiceException() {
-        when(consultationService.findAllConsultationTomorrow()).thenThrow(new RuntimeException("Database error"));
+    void shouldTimeQueryAndDispatchPhases() {
+        givenConsultationsTomorrow(Arrays.asList(consultation1, consultation2));
 
-        assertThrows(RuntimeException.class, () -> consultationScheduling.schedule());
-        
-        verify(consultationService).findAllConsultationTomorrow();
+        consultationScheduling.schedule();
+
+        assertEquals(1, meterRegistry.get("consultation.reminder.job.phase").tag("phase", "query").timer().count());
+        assertEquals(1, meterRegistry.get("consultation.reminder.job.phase").tag("phase", "dispatch").timer().count());
+        assertEquals(2, meterRegistry.get("consultation.reminder.job.reminders").counter().count());
     }
 
-    void tearDown() {
-        System.setOut(originalOut);
+    @Test
+    void shouldDelegateToShardedRunnerWhenShardingIsEnabled() {
+        reminderProperties.getSharding().setEnabled(true);
+
+        consultationScheduling.schedule();
+
+        verify(shardedReminderRunner).run(eq(LocalDate.now().plusDays(1)), any());
+        verify(consultationService, never()).forEachReminderTomorrow(anyInt(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenConsultationsTomorrow(List<ConsultationReminder> consultations) {
+        when(consultationService.forEachReminderTomorrow(anyInt(), any())).thenAnswer(invocation -> {
+            Consumer<List<ConsultationReminder>> chunkConsumer = invocation.getArgument(1);
+            if (!consultations.isEmpty()) {
+                chunkConsumer.accept(consultations);
+            }
+            return (long) consultations.size();
+        });
     }
 }
@@ -0,0 +1,136 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.application.job;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ConsultationService;
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ReminderOutboxService;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ReminderProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderWatermark;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContinuousReminderDispatcherTest {
+
+    @Mock
+    private ConsultationService consultationService;
+
+    @Mock
+    private ReminderWatermarkRepository watermarkRepository;
+
+    @Spy
+    private ReminderProperties reminderProperties = new ReminderProperties();
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ReminderOutboxService reminderOutboxService;
+
+    @InjectMocks
+    private ContinuousReminderDispatcher dispatcher;
+
+    private ReminderWatermark watermark;
+
+    @BeforeEach
+    void setUp() {
+        reminderProperties.setChunkSize(2);
+        watermark = new ReminderWatermark(ContinuousReminderDispatcher.WATERMARK, LocalDateTime.now().minusMinutes(1));
+        lenient().when(watermarkRepository.existsById(ContinuousReminderDispatcher.WATERMARK)).thenReturn(true);
+        lenient().when(watermarkRepository.lockByName(ContinuousReminderDispatcher.WATERMARK)).thenReturn(Optional.of(watermark));
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void shouldAdvanceWatermarkToLastDispatchedReminder() {
+        LocalDateTime start = watermark.getLastStartDate();
+        ConsultationReminder first = reminder(start.plusHours(23));
+        ConsultationReminder second = reminder(start.plusHours(24));
+        when(consultationService.findRemindersAfter(eq(start), isNull(), any(), eq(2))).thenReturn(List.of(first, second));
+        when(consultationService.findRemindersAfter(eq(second.startDate()), eq(second.id()), any(), eq(2))).thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        assertEquals(second.startDate(), watermark.getLastStartDate());
+        assertEquals(second.id(), watermark.getLastId());
+        verify(watermarkRepository).save(watermark);
+        verify(reminderOutboxService).record(List.of(first, second));
+    }
+
+    @Test
+    void shouldOnlyLookAheadUpToConfiguredLead() {
+        when(consultationService.findRemindersAfter(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        LocalDateTime before = LocalDateTime.now().plusHours(24);
+        dispatcher.dispatch();
+        LocalDateTime after = LocalDateTime.now().plusHours(24);
+
+        verify(consultationService).findRemindersAfter(any(), any(),
+            argThat(horizon -> !horizon.isBefore(before) && !horizon.isAfter(after)), eq(2));
+        verify(watermarkRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldStopTickAfterMaxChunks() {
+        reminderProperties.getContinuous().setMaxChunksPerTick(3);
+        when(consultationService.findRemindersAfter(any(), any(), any(), anyInt()))
+            .thenAnswer(invocation -> List.of(reminder(LocalDateTime.now().plusHours(1)), reminder(LocalDateTime.now().plusHours(2))));
+
+        dispatcher.dispatch();
+
+        verify(consultationService, times(3)).findRemindersAfter(any(), any(), any(), anyInt());
+        // três páginas do keyset e uma da varredura, que volta vazia
+        verify(transactionTemplate, times(4)).execute(any());
+    }
+
+    @Test
+    void shouldSweepUnsentRemindersBookedBehindTheWatermark() {
+        watermark.setLastStartDate(LocalDateTime.now().plusHours(10));
+        ConsultationReminder lateBooking = reminder(LocalDateTime.now().plusHours(2));
+        when(consultationService.findRemindersAfter(any(), any(), any(), anyInt())).thenReturn(List.of());
+        when(consultationService.findUnsentReminders(any(), eq(watermark.getLastStartDate()), eq(2))).thenReturn(List.of(lateBooking));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+        LocalDateTime after = LocalDateTime.now();
+
+        verify(consultationService).findUnsentReminders(argThat(from -> !from.isBefore(before) && !from.isAfter(after)),
+            eq(watermark.getLastStartDate()), eq(2));
+        verify(reminderOutboxService).record(List.of(lateBooking));
+        verify(watermarkRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldCreateWatermarkOnFirstRun() {
+        when(watermarkRepository.existsById(ContinuousReminderDispatcher.WATERMARK)).thenReturn(false);
+        when(consultationService.findRemindersAfter(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        verify(watermarkRepository).saveAndFlush(argThat(created ->
+            ContinuousReminderDispatcher.WATERMARK.equals(created.getName()) && created.getLastId() == null));
+    }
+
+    private ConsultationReminder reminder(LocalDateTime startDate) {
+        return new ConsultationReminder(UUID.randomUUID(), startDate, startDate.plusHours(1), ConsultationStatusEnum.SCHEDULED);
+    }
+}
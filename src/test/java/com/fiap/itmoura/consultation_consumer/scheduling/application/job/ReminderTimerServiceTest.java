@@ -0,0 +1,185 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.application.job;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ConsultationService;
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ReminderOutboxService;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationsSavedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ReminderProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderTimerServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 3, 10, 9, 0);
+
+    @Mock
+    private ConsultationService consultationService;
+
+    @Mock
+    private ReminderOutboxService reminderOutboxService;
+
+    private final ReminderProperties reminderProperties = new ReminderProperties();
+
+    private long clock;
+    private ReminderTimerService timerService;
+
+    @BeforeEach
+    void setUp() {
+        reminderProperties.setLead(Duration.ofHours(24));
+        clock = millis(NOW);
+        timerService = new ReminderTimerService(consultationService, reminderProperties, reminderOutboxService, () -> clock);
+    }
+
+    @Test
+    void shouldFireReminderExactlyLeadBeforeStart() {
+        Consultation consultation = consultation(NOW.plusDays(2), ConsultationStatusEnum.SCHEDULED);
+        timerService.onConsultationsSaved(new ConsultationsSavedEvent(List.of(consultation)));
+        when(consultationService.findRemindersByIds(eq(List.of(consultation.getId())), any(), any()))
+            .thenReturn(List.of(reminder(consultation)));
+
+        clock = millis(NOW.plusDays(1).minusSeconds(1));
+        timerService.tick();
+        verify(consultationService, never()).findRemindersByIds(any(), any(), any());
+
+        clock = millis(NOW.plusDays(1));
+        timerService.tick();
+        verify(consultationService).findRemindersByIds(List.of(consultation.getId()), NOW.plusDays(1), NOW.plusDays(9));
+        verify(reminderOutboxService).record(List.of(reminder(consultation)));
+        assertEquals(0, timerService.pendingReminders());
+    }
+
+    @Test
+    void shouldRemoveReminderWhenConsultationIsCancelled() {
+        Consultation consultation = consultation(NOW.plusDays(2), ConsultationStatusEnum.SCHEDULED);
+        timerService.onConsultationsSaved(new ConsultationsSavedEvent(List.of(consultation)));
+        assertEquals(1, timerService.pendingReminders());
+
+        consultation.setStatus(ConsultationStatusEnum.CANCELLED);
+        timerService.onConsultationsSaved(new ConsultationsSavedEvent(List.of(consultation)));
+
+        assertEquals(0, timerService.pendingReminders());
+    }
+
+    @Test
+    void shouldIgnoreConsultationsOutsideHorizonOrAlreadyStarted() {
+        reminderProperties.getTimer().setHorizon(Duration.ofDays(7));
+        timerService.onConsultationsSaved(new ConsultationsSavedEvent(List.of(
+            consultation(NOW.plusDays(30), ConsultationStatusEnum.SCHEDULED),
+            consultation(NOW.minusHours(1), ConsultationStatusEnum.SCHEDULED))));
+
+        assertEquals(0, timerService.pendingReminders());
+    }
+
+    @Test
+    void shouldRescheduleWhenConsultationMovedLaterOutsideConsumer() {
+        Consultation consultation = consultation(NOW.plusDays(2), ConsultationStatusEnum.SCHEDULED);
+        timerService.onConsultationsSaved(new ConsultationsSavedEvent(List.of(consultation)));
+        consultation.setStartDate(NOW.plusDays(3));
+        when(consultationService.findRemindersByIds(any(), any(), any())).thenReturn(List.of(reminder(consultation)));
+
+        clock = millis(NOW.plusDays(1));
+        timerService.tick();
+
+        assertEquals(1, timerService.pendingReminders());
+        verifyNoInteractions(reminderOutboxService);
+    }
+
+    @Test
+    void shouldKeepDueRemindersWhenLookupFails() {
+        Consultation consultation = consultation(NOW.plusDays(2), ConsultationStatusEnum.SCHEDULED);
+        timerService.onConsultationsSaved(new ConsultationsSavedEvent(List.of(consultation)));
+        when(consultationService.findRemindersByIds(any(), any(), any())).thenThrow(new IllegalStateException("db down"));
+
+        clock = millis(NOW.plusDays(1));
+        assertThrows(IllegalStateException.class, () -> timerService.tick());
+
+        assertEquals(1, timerService.pendingReminders());
+    }
+
+    @Test
+    void shouldKeepDueRemindersWhenOutboxWriteFails() {
+        Consultation consultation = consultation(NOW.plusDays(2), ConsultationStatusEnum.SCHEDULED);
+        timerService.onConsultationsSaved(new ConsultationsSavedEvent(List.of(consultation)));
+        when(consultationService.findRemindersByIds(any(), any(), any())).thenReturn(List.of(reminder(consultation)));
+        when(reminderOutboxService.record(any())).thenThrow(new IllegalStateException("db down"));
+
+        clock = millis(NOW.plusDays(1));
+        assertThrows(IllegalStateException.class, () -> timerService.tick());
+
+        assertEquals(1, timerService.pendingReminders());
+    }
+
+    @Test
+    void shouldRebuildUpcomingWindowFromRepository() {
+        reminderProperties.getTimer().setHorizon(Duration.ofDays(7));
+        List<ConsultationReminder> stored = List.of(
+            new ConsultationReminder(UUID.randomUUID(), NOW.plusDays(2), NOW.plusDays(2).plusHours(1), ConsultationStatusEnum.CONFIRMED),
+            new ConsultationReminder(UUID.randomUUID(), NOW.plusDays(3), NOW.plusDays(3).plusHours(1), ConsultationStatusEnum.COMPLETED));
+        when(consultationService.forEachUnsentReminderBetween(eq(NOW), eq(NOW.plusDays(8)), anyInt(), any()))
+            .thenAnswer(invocation -> {
+                invocation.<Consumer<List<ConsultationReminder>>>getArgument(3).accept(stored);
+                return (long) stored.size();
+            });
+
+        timerService.rebuild();
+
+        assertEquals(1, timerService.pendingReminders());
+    }
+
+    @Test
+    void shouldFireDeadlinesMissedDuringDowntimeOnNextTick() {
+        // começa em 2h: o prazo (start - 24h) venceu enquanto o serviço estava parado
+        ConsultationReminder overdue = new ConsultationReminder(UUID.randomUUID(), NOW.plusHours(2), NOW.plusHours(3),
+            ConsultationStatusEnum.SCHEDULED);
+        when(consultationService.forEachUnsentReminderBetween(eq(NOW), any(), anyInt(), any()))
+            .thenAnswer(invocation -> {
+                invocation.<Consumer<List<ConsultationReminder>>>getArgument(3).accept(List.of(overdue));
+                return 1L;
+            });
+        when(consultationService.findRemindersByIds(eq(List.of(overdue.id())), any(), any())).thenReturn(List.of(overdue));
+
+        timerService.rebuild();
+        clock += reminderProperties.getTimer().getTick().toMillis();
+        timerService.tick();
+
+        verify(reminderOutboxService).record(List.of(overdue));
+        assertEquals(0, timerService.pendingReminders());
+    }
+
+    private static Consultation consultation(LocalDateTime startDate, ConsultationStatusEnum status) {
+        Consultation consultation = new Consultation();
+        consultation.setId(UUID.randomUUID());
+        consultation.setStartDate(startDate);
+        consultation.setFinalDate(startDate.plusHours(1));
+        consultation.setStatus(status);
+        return consultation;
+    }
+
+    private static ConsultationReminder reminder(Consultation consultation) {
+        return new ConsultationReminder(consultation.getId(), consultation.getStartDate(), consultation.getFinalDate(),
+            consultation.getStatus());
+    }
+
+    private static long millis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,139 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.application.job;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ConsultationService;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ReminderProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderShardLease;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderShardLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShardedReminderRunnerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 15);
+
+    @Mock
+    private ConsultationService consultationService;
+
+    @Mock
+    private ReminderShardLeaseRepository leaseRepository;
+
+    @Spy
+    private ReminderProperties reminderProperties = new ReminderProperties();
+
+    @InjectMocks
+    private ShardedReminderRunner shardedReminderRunner;
+
+    @BeforeEach
+    void setUp() {
+        reminderProperties.getSharding().setShards(4);
+        reminderProperties.getSharding().setNodeId("node-a");
+        reminderProperties.getSharding().setMaxWait(Duration.ZERO);
+        reminderProperties.getSharding().setPollInterval(Duration.ofMillis(1));
+        lenient().when(leaseRepository.findAllById(any()))
+            .thenReturn(IntStream.range(0, 4).mapToObj(ReminderShardLease::new).toList());
+    }
+
+    @Test
+    void shouldProcessEveryShardItClaims() {
+        when(leaseRepository.findPendingShards(DAY, 4)).thenReturn(List.of(0, 1, 2, 3), List.of());
+        when(leaseRepository.claim(anyInt(), eq("node-a"), eq(DAY), any(), any())).thenReturn(1);
+        when(leaseRepository.renew(anyInt(), eq("node-a"), any())).thenReturn(1);
+        givenOneReminderPerShard();
+
+        List<ConsultationReminder> sent = new ArrayList<>();
+        long total = shardedReminderRunner.run(DAY, sent::addAll);
+
+        assertEquals(4, total);
+        assertEquals(4, sent.size());
+        for (int shard = 0; shard < 4; shard++) {
+            verify(leaseRepository).complete(shard, "node-a", DAY);
+        }
+    }
+
+    @Test
+    void shouldSplitTheDayIntoContiguousSlices() {
+        when(leaseRepository.findPendingShards(DAY, 4)).thenReturn(List.of(0, 1, 2, 3), List.of());
+        when(leaseRepository.claim(anyInt(), anyString(), any(), any(), any())).thenReturn(1);
+
+        shardedReminderRunner.run(DAY, chunk -> { });
+
+        verify(consultationService).forEachReminderBetween(eq(DAY.atStartOfDay()), eq(DAY.atTime(5, 59, 59, 999_999_000)), anyInt(), any());
+        verify(consultationService).forEachReminderBetween(eq(DAY.atTime(6, 0)), eq(DAY.atTime(11, 59, 59, 999_999_000)), anyInt(), any());
+        verify(consultationService).forEachReminderBetween(eq(DAY.atTime(12, 0)), eq(DAY.atTime(17, 59, 59, 999_999_000)), anyInt(), any());
+        verify(consultationService).forEachReminderBetween(eq(DAY.atTime(18, 0)), eq(DAY.atTime(LocalTime.MAX)), anyInt(), any());
+    }
+
+    @Test
+    void shouldSkipShardsLeasedByOtherNodes() {
+        when(leaseRepository.findPendingShards(DAY, 4)).thenReturn(List.of(0, 1, 2, 3), List.of(1, 3));
+        when(leaseRepository.claim(anyInt(), anyString(), any(), any(), any()))
+            .thenAnswer(invocation -> invocation.<Integer>getArgument(0) % 2 == 0 ? 1 : 0);
+
+        shardedReminderRunner.run(DAY, chunk -> { });
+
+        verify(leaseRepository).complete(0, "node-a", DAY);
+        verify(leaseRepository).complete(2, "node-a", DAY);
+        verify(leaseRepository, never()).complete(eq(1), anyString(), any());
+        verify(leaseRepository, never()).complete(eq(3), anyString(), any());
+    }
+
+    @Test
+    void shouldAbandonShardWhenLeaseIsLost() {
+        when(leaseRepository.findPendingShards(DAY, 4)).thenReturn(List.of(0), List.of());
+        when(leaseRepository.claim(eq(0), anyString(), any(), any(), any())).thenReturn(1);
+        when(leaseRepository.renew(eq(0), anyString(), any())).thenReturn(0);
+        givenOneReminderPerShard();
+
+        long total = shardedReminderRunner.run(DAY, chunk -> { });
+
+        assertEquals(0, total);
+        verify(leaseRepository, never()).complete(anyInt(), anyString(), any());
+    }
+
+    @Test
+    void shouldCreateMissingShardRows() {
+        when(leaseRepository.findAllById(any())).thenReturn(List.of(new ReminderShardLease(0), new ReminderShardLease(1)));
+        when(leaseRepository.findPendingShards(DAY, 4)).thenReturn(List.of());
+
+        shardedReminderRunner.run(DAY, chunk -> { });
+
+        verify(leaseRepository).saveAndFlush(new ReminderShardLease(2));
+        verify(leaseRepository).saveAndFlush(new ReminderShardLease(3));
+        verify(leaseRepository, times(2)).saveAndFlush(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenOneReminderPerShard() {
+        when(consultationService.forEachReminderBetween(any(), any(), anyInt(), any())).thenAnswer(invocation -> {
+            LocalDateTime startDate = invocation.getArgument(0);
+            Consumer<List<ConsultationReminder>> chunkConsumer = invocation.getArgument(3);
+            chunkConsumer.accept(List.of(new ConsultationReminder(UUID.randomUUID(), startDate, startDate.plusHours(1),
+                ConsultationStatusEnum.SCHEDULED)));
+            return 1L;
+        });
+    }
+}
@@ -1,7 +1,12 @@
 package com.fiap.itmoura.consultation_consumer.scheduling.application.usecase;
 
 import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
 import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusChangedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusesChangedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationsSavedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.cache.UpcomingConsultationCache;
 import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ConsultationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,16 +14,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +37,12 @@ class ConsultationServiceTest {
     @Mock
     private ConsultationRepository repository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UpcomingConsultationCache upcomingCache;
+
     @InjectMocks
     private ConsultationService consultationService;
 
@@ -112,4 +128,147 @@ class ConsultationServiceTest {
         assertEquals(consultation2, result.get(0));
         assertEquals(consultation1, result.get(1));
     }
+
+    @Test
+    void shouldUpsertAllConsultationsInOneCall() {
+        List<Consultation> consultations = Arrays.asList(consultation1, consultation2);
+        when(repository.upsertAll(consultations)).thenReturn(2);
+
+        int persisted = consultationService.saveAll(consultations);
+
+        assertEquals(2, persisted);
+        verify(repository, times(1)).upsertAll(consultations);
+        verify(eventPublisher).publishEvent(new ConsultationsSavedEvent(consultations));
+    }
+
+    @Test
+    void shouldNotTouchRepositoryWhenBatchIsEmpty() {
+        int persisted = consultationService.saveAll(List.of());
+
+        assertEquals(0, persisted);
+        verifyNoInteractions(repository, eventPublisher);
+    }
+
+    @Test
+    void shouldSkipQueryWhenNoIdsToLoad() {
+        assertTrue(consultationService.findRemindersByIds(List.of(), LocalDateTime.now(), LocalDateTime.now().plusDays(1)).isEmpty());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void shouldWalkRemindersTomorrowUsingKeyset() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        LocalDateTime startOfDay = tomorrow.atStartOfDay();
+        LocalDateTime endOfDay = tomorrow.atTime(LocalTime.MAX);
+        PageRequest page = PageRequest.of(0, 2);
+
+        ConsultationReminder reminder1 = reminder(tomorrow.atTime(10, 0));
+        ConsultationReminder reminder2 = reminder(tomorrow.atTime(14, 0));
+        ConsultationReminder reminder3 = reminder(tomorrow.atTime(16, 0));
+
+        when(repository.findFirstReminderChunk(startOfDay, endOfDay, page))
+                .thenReturn(Arrays.asList(reminder1, reminder2));
+        when(repository.findNextReminderChunk(reminder2.startDate(), reminder2.id(), endOfDay, page))
+                .thenReturn(List.of(reminder3));
+
+        List<List<ConsultationReminder>> chunks = new ArrayList<>();
+        long total = consultationService.forEachReminderTomorrow(2, chunks::add);
+
+        assertEquals(3, total);
+        assertEquals(2, chunks.size());
+        assertEquals(Arrays.asList(reminder1, reminder2), chunks.get(0));
+        assertEquals(List.of(reminder3), chunks.get(1));
+        verify(repository, never()).findAllConsultationTomorrow(any(), any());
+    }
+
+    @Test
+    void shouldStopWalkingWhenFullChunkIsFollowedByEmptyOne() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        when(repository.findFirstReminderChunk(any(), any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(Arrays.asList(reminder(tomorrow.atTime(10, 0)), reminder(tomorrow.atTime(14, 0))));
+        when(repository.findNextReminderChunk(any(), any(), any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of());
+
+        List<List<ConsultationReminder>> chunks = new ArrayList<>();
+        long total = consultationService.forEachReminderTomorrow(2, chunks::add);
+
+        assertEquals(2, total);
+        assertEquals(1, chunks.size());
+        verify(repository, times(1)).findNextReminderChunk(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldNotCallConsumerWhenNoRemindersTomorrow() {
+        when(repository.findFirstReminderChunk(any(), any(), any())).thenReturn(List.of());
+
+        long total = consultationService.forEachReminderTomorrow(500, chunk -> fail("No chunk expected"));
+
+        assertEquals(0, total);
+        verify(repository, never()).findNextReminderChunk(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldServeRemindersFromCacheInChunksWhenItCoversTheRange() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        List<ConsultationReminder> cached = List.of(reminder(tomorrow.atTime(10, 0)), reminder(tomorrow.atTime(14, 0)),
+                reminder(tomorrow.atTime(16, 0)));
+        when(upcomingCache.findBetween(tomorrow.atStartOfDay(), tomorrow.atTime(LocalTime.MAX))).thenReturn(Optional.of(cached));
+
+        List<List<ConsultationReminder>> chunks = new ArrayList<>();
+        long total = consultationService.forEachReminderTomorrow(2, chunks::add);
+
+        assertEquals(3, total);
+        assertEquals(List.of(cached.subList(0, 2), cached.subList(2, 3)), chunks);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void shouldApplyLatestStatusPerConsultationInIdOrder() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        ConsultationStatusChangedEvent confirmed = new ConsultationStatusChangedEvent(first, null, ConsultationStatusEnum.CONFIRMED);
+        ConsultationStatusChangedEvent cancelled = new ConsultationStatusChangedEvent(first, null, ConsultationStatusEnum.CANCELLED);
+        ConsultationStatusChangedEvent completed = new ConsultationStatusChangedEvent(second, null, ConsultationStatusEnum.COMPLETED);
+        List<ConsultationStatusChangedEvent> expected = first.compareTo(second) < 0
+            ? List.of(cancelled, completed) : List.of(completed, cancelled);
+        when(repository.updateStatuses(expected)).thenReturn(List.of(first, second));
+
+        List<UUID> updated = consultationService.updateStatuses(List.of(confirmed, completed, cancelled));
+
+        assertEquals(List.of(first, second), updated);
+        verify(eventPublisher).publishEvent(new ConsultationStatusesChangedEvent(expected));
+        verify(repository, never()).findAllById(any());
+        verify(repository, never()).saveAll(any());
+    }
+
+    @Test
+    void shouldPublishOnlyStatusChangesThatUpdatedARow() {
+        UUID changed = UUID.randomUUID();
+        ConsultationStatusChangedEvent cancelled = new ConsultationStatusChangedEvent(changed, null, ConsultationStatusEnum.CANCELLED);
+        ConsultationStatusChangedEvent unchanged = new ConsultationStatusChangedEvent(UUID.randomUUID(), null, ConsultationStatusEnum.CONFIRMED);
+        when(repository.updateStatuses(any())).thenReturn(List.of(changed));
+
+        consultationService.updateStatuses(List.of(cancelled, unchanged));
+
+        verify(eventPublisher).publishEvent(new ConsultationStatusesChangedEvent(List.of(cancelled)));
+    }
+
+    @Test
+    void shouldNotPublishWhenNoStatusChanged() {
+        when(repository.updateStatuses(any())).thenReturn(List.of());
+
+        consultationService.updateStatuses(List.of(new ConsultationStatusChangedEvent(UUID.randomUUID(), null, ConsultationStatusEnum.CONFIRMED)));
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldSkipEmptyStatusChanges() {
+        assertTrue(consultationService.updateStatuses(List.of()).isEmpty());
+        verifyNoInteractions(repository);
+    }
+
+    private ConsultationReminder reminder(LocalDateTime startDate) {
+        return new ConsultationReminder(UUID.randomUUID(), startDate, startDate.plusHours(1), ConsultationStatusEnum.SCHEDULED);
+    }
 }
@@ -0,0 +1,101 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.application.usecase;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Notification;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.NotificationTypeEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ConsultationRepository;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderOutboxEntry;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderOutboxServiceTest {
+
+    @Mock
+    private ConsultationRepository consultationRepository;
+
+    @Mock
+    private ReminderOutboxRepository outboxRepository;
+
+    @InjectMocks
+    private ReminderOutboxService reminderOutboxService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWriteOutboxOnlyForConsultationsNotYetReminded() {
+        ConsultationReminder pending = reminder();
+        ConsultationReminder alreadySent = reminder();
+        when(consultationRepository.markReminderSent(anyList(), any())).thenReturn(List.of(pending.id()));
+
+        int recorded = reminderOutboxService.record(List.of(pending, alreadySent));
+
+        assertEquals(1, recorded);
+        ArgumentCaptor<List<ReminderOutboxEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).appendAll(entries.capture());
+        assertEquals(1, entries.getValue().size());
+        ReminderOutboxEntry entry = entries.getValue().get(0);
+        assertEquals(pending.id(), entry.getConsultationId());
+        assertEquals(NotificationTypeEnum.REMINDER, entry.getNotificationType());
+        assertEquals(Notification.reminder(pending).content(), entry.getPayload());
+    }
+
+    @Test
+    void shouldLockConsultationsInIdOrder() {
+        ConsultationReminder first = reminder();
+        ConsultationReminder second = reminder();
+        List<ConsultationReminder> sorted = first.id().compareTo(second.id()) < 0 ? List.of(first, second) : List.of(second, first);
+
+        reminderOutboxService.record(List.of(second, first, second));
+
+        verify(consultationRepository).markReminderSent(eq(sorted), any(LocalDateTime.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWriteConfirmationForEveryConsultation() {
+        Consultation consultation = new Consultation();
+        consultation.setId(UUID.randomUUID());
+        consultation.setStartDate(LocalDateTime.of(2030, 1, 15, 10, 30));
+        consultation.setFinalDate(LocalDateTime.of(2030, 1, 15, 11, 0));
+        consultation.setStatus(ConsultationStatusEnum.SCHEDULED);
+
+        assertEquals(1, reminderOutboxService.recordConfirmations(List.of(consultation)));
+
+        ArgumentCaptor<List<ReminderOutboxEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).appendAll(entries.capture());
+        ReminderOutboxEntry entry = entries.getValue().get(0);
+        assertEquals(consultation.getId(), entry.getConsultationId());
+        assertEquals(NotificationTypeEnum.CONFIRMATION, entry.getNotificationType());
+        assertEquals(Notification.confirmation(consultation).content(), entry.getPayload());
+        verifyNoInteractions(consultationRepository);
+    }
+
+    @Test
+    void shouldSkipEmptyChunks() {
+        assertEquals(0, reminderOutboxService.record(List.of()));
+
+        verifyNoInteractions(consultationRepository, outboxRepository);
+    }
+
+    private static ConsultationReminder reminder() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new ConsultationReminder(UUID.randomUUID(), start, start.plusHours(1), ConsultationStatusEnum.SCHEDULED);
+    }
+}
@@ -0,0 +1,67 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.cache;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusChangedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ConsultationConsumerProperties;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UpcomingConsultationCacheInvalidatorTest {
+
+    @Mock
+    private UpcomingConsultationCache cache;
+
+    @Mock
+    private ConsumerFactory<String, String> consumerFactory;
+
+    private UpcomingConsultationCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        invalidator = new UpcomingConsultationCacheInvalidator(cache, consumerFactory, new ConsultationConsumerProperties());
+    }
+
+    @Test
+    void shouldCheckEveryDecodedConsultationEventAgainstTheCache() {
+        LocalDateTime startDate = LocalDateTime.now().plusDays(1);
+        ConsultationEvent event = new ConsultationEvent(UUID.randomUUID(), startDate, startDate.plusMinutes(30),
+            ConsultationStatusEnum.SCHEDULED, "Check-up");
+
+        invalidator.onConsultationEvents(Arrays.asList(record(event), record(null)));
+
+        verify(cache).invalidateIfChanged(new ConsultationReminder(event.id(), startDate, startDate.plusMinutes(30), ConsultationStatusEnum.SCHEDULED));
+        verifyNoMoreInteractions(cache);
+    }
+
+    @Test
+    void shouldCheckStatusChangesWithId() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime startDate = LocalDateTime.now().plusDays(1);
+
+        invalidator.onStatusChanges(List.of(
+            record(new ConsultationStatusChangedEvent(id, startDate, ConsultationStatusEnum.CANCELLED)),
+            record(new ConsultationStatusChangedEvent(null, startDate, ConsultationStatusEnum.CANCELLED))));
+
+        verify(cache).invalidateStatusIfChanged(id, startDate, ConsultationStatusEnum.CANCELLED);
+        verifyNoMoreInteractions(cache);
+    }
+
+    private static <T> ConsumerRecord<String, T> record(T value) {
+        return new ConsumerRecord<>("topic", 0, 0L, null, value);
+    }
+}
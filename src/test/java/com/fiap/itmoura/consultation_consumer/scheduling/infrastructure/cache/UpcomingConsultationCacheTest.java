@@ -0,0 +1,249 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.cache;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusChangedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusesChangedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ConsultationCacheProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ConsultationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UpcomingConsultationCacheTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 10, 15, 12, 0);
+    private static final LocalDate TOMORROW = NOW.toLocalDate().plusDays(1);
+    private static final LocalDateTime TOMORROW_START = TOMORROW.atStartOfDay();
+    private static final LocalDateTime TOMORROW_END = TOMORROW.atTime(LocalTime.MAX);
+
+    @Mock
+    private ConsultationRepository repository;
+
+    private final ConsultationCacheProperties properties = new ConsultationCacheProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong(millis(NOW));
+    private UpcomingConsultationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UpcomingConsultationCache(repository, properties, meterRegistry, clock::get);
+    }
+
+    @Test
+    void shouldServeRangeInsideLoadedWindowInKeysetOrder() {
+        ConsultationReminder morning = reminder(TOMORROW.atTime(10, 0), ConsultationStatusEnum.SCHEDULED);
+        ConsultationReminder afternoon = reminder(TOMORROW.atTime(14, 0), ConsultationStatusEnum.CONFIRMED);
+        when(repository.findFirstReminderChunk(NOW, NOW.plusHours(48), PageRequest.of(0, 1000)))
+            .thenReturn(List.of(morning, afternoon));
+
+        cache.reconcile();
+
+        assertEquals(Optional.of(List.of(morning, afternoon)), cache.findBetween(TOMORROW_START, TOMORROW_END));
+        assertEquals(Optional.of(List.of(afternoon)), cache.findBetween(TOMORROW.atTime(12, 0), TOMORROW_END));
+        assertEquals(2, cache.size());
+        assertEquals(2, meterRegistry.get("consultation.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void shouldMissBeforeWarmUpAndOutsideTheWindow() {
+        when(repository.findFirstReminderChunk(any(), any(), any())).thenReturn(List.of());
+
+        assertTrue(cache.findBetween(TOMORROW_START, TOMORROW_END).isEmpty());
+        cache.reconcile();
+        assertTrue(cache.findBetween(TOMORROW_START, NOW.plusHours(72)).isEmpty());
+        assertTrue(cache.findBetween(NOW.minusHours(1), TOMORROW_END).isEmpty());
+
+        assertEquals(3, meterRegistry.get("consultation.cache.requests").tag("result", "miss").counter().count());
+        assertEquals(0.0, cache.hitRatio());
+    }
+
+    @Test
+    void shouldApplyCreationRescheduleAndCancellationFromConfirmedSaves() {
+        when(repository.findFirstReminderChunk(any(), any(), any())).thenReturn(List.of());
+        cache.reconcile();
+        UUID id = UUID.randomUUID();
+
+        cache.apply(new ConsultationReminder(id, TOMORROW.atTime(9, 0), TOMORROW.atTime(9, 30), ConsultationStatusEnum.SCHEDULED));
+        assertEquals(TOMORROW.atTime(9, 0), cache.findBetween(TOMORROW_START, TOMORROW_END).orElseThrow().get(0).startDate());
+
+        cache.apply(new ConsultationReminder(id, TOMORROW.atTime(16, 0), TOMORROW.atTime(16, 30), ConsultationStatusEnum.SCHEDULED));
+        List<ConsultationReminder> rescheduled = cache.findBetween(TOMORROW_START, TOMORROW_END).orElseThrow();
+        assertEquals(1, rescheduled.size());
+        assertEquals(TOMORROW.atTime(16, 0), rescheduled.get(0).startDate());
+
+        cache.apply(new ConsultationReminder(id, TOMORROW.atTime(16, 0), TOMORROW.atTime(16, 30), ConsultationStatusEnum.CANCELLED));
+        assertEquals(Optional.of(List.of()), cache.findBetween(TOMORROW_START, TOMORROW_END));
+    }
+
+    @Test
+    void shouldApplyConfirmedStatusChangesToCachedConsultations() {
+        ConsultationReminder scheduled = reminder(TOMORROW.atTime(10, 0), ConsultationStatusEnum.SCHEDULED);
+        ConsultationReminder other = reminder(TOMORROW.atTime(14, 0), ConsultationStatusEnum.SCHEDULED);
+        when(repository.findFirstReminderChunk(any(), any(), any())).thenReturn(List.of(scheduled, other));
+        cache.reconcile();
+
+        cache.onStatusesChanged(new ConsultationStatusesChangedEvent(List.of(
+            new ConsultationStatusChangedEvent(scheduled.id(), null, ConsultationStatusEnum.CONFIRMED),
+            new ConsultationStatusChangedEvent(other.id(), other.startDate(), ConsultationStatusEnum.CANCELLED),
+            new ConsultationStatusChangedEvent(UUID.randomUUID(), TOMORROW.atTime(11, 0), ConsultationStatusEnum.COMPLETED))));
+
+        assertEquals(Optional.of(List.of(new ConsultationReminder(scheduled.id(), scheduled.startDate(), scheduled.finalDate(),
+            ConsultationStatusEnum.CONFIRMED))), cache.findBetween(TOMORROW_START, TOMORROW_END));
+        assertEquals(0, meterRegistry.get("consultation.cache.invalidations").counter().count());
+    }
+
+    @Test
+    void shouldInvalidateWhenUnknownConsultationIsReactivated() {
+        when(repository.findFirstReminderChunk(any(), any(), any())).thenReturn(List.of());
+        cache.reconcile();
+
+        // sem finalDate no evento, a consulta não pode entrar no cache
+        cache.onStatusesChanged(new ConsultationStatusesChangedEvent(List.of(
+            new ConsultationStatusChangedEvent(UUID.randomUUID(), TOMORROW.atTime(11, 0), ConsultationStatusEnum.SCHEDULED))));
+
+        assertTrue(cache.findBetween(TOMORROW_START, TOMORROW_END).isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldReplayStatusChangeCommittedDuringReload() {
+        ConsultationReminder scheduled = reminder(TOMORROW.atTime(10, 0), ConsultationStatusEnum.SCHEDULED);
+        // a recarga lê o status antigo e o cancelamento é confirmado antes da troca do snapshot
+        when(repository.findFirstReminderChunk(any(), any(), any())).thenAnswer(invocation -> {
+            cache.onStatusesChanged(new ConsultationStatusesChangedEvent(List.of(
+                new ConsultationStatusChangedEvent(scheduled.id(), scheduled.startDate(), ConsultationStatusEnum.CANCELLED))));
+            return List.of(scheduled);
+        });
+
+        cache.reconcile();
+
+        assertEquals(Optional.of(List.of()), cache.findBetween(TOMORROW_START, TOMORROW_END));
+    }
+
+    @Test
+    void shouldOnlyInvalidateOnKafkaEventsThatWouldChangeTheAnswer() {
+        ConsultationReminder cached = reminder(TOMORROW.atTime(10, 0), ConsultationStatusEnum.SCHEDULED);
+        when(repository.findFirstReminderChunk(any(), any(), any())).thenReturn(List.of(cached));
+        cache.reconcile();
+
+        // já confirmado pela gravação, fora da janela ou inativo e fora do cache: nada muda
+        cache.invalidateIfChanged(cached);
+        cache.invalidateIfChanged(reminder(NOW.plusDays(5), ConsultationStatusEnum.SCHEDULED));
+        cache.invalidateIfChanged(reminder(TOMORROW.atTime(11, 0), ConsultationStatusEnum.CANCELLED));
+        cache.invalidateStatusIfChanged(cached.id(), cached.startDate(), ConsultationStatusEnum.SCHEDULED);
+        assertEquals(Optional.of(List.of(cached)), cache.findBetween(TOMORROW_START, TOMORROW_END));
+
+        // remarcação ainda não confirmada: o valor não entra, mas o cache deixa de responder
+        cache.invalidateIfChanged(new ConsultationReminder(cached.id(), TOMORROW.atTime(15, 0), TOMORROW.atTime(15, 30),
+            ConsultationStatusEnum.SCHEDULED));
+        assertTrue(cache.findBetween(TOMORROW_START, TOMORROW_END).isEmpty());
+        assertEquals(1, meterRegistry.get("consultation.cache.invalidations").counter().count());
+    }
+
+    @Test
+    void shouldMissAfterInvalidationUntilRefreshed() {
+        when(repository.findFirstReminderChunk(any(), any(), any())).thenReturn(List.of());
+        cache.reconcile();
+
+        // reativação de consulta que o cache não conhece
+        cache.invalidateStatusIfChanged(UUID.randomUUID(), TOMORROW.atTime(11, 0), ConsultationStatusEnum.CONFIRMED);
+        assertTrue(cache.findBetween(TOMORROW_START, TOMORROW_END).isEmpty());
+
+        cache.refreshIfInvalidated();
+
+        assertTrue(cache.findBetween(TOMORROW_START, TOMORROW_END).isPresent());
+        verify(repository, times(2)).findFirstReminderChunk(any(), any(), any());
+        assertEquals(1, meterRegistry.get("consultation.cache.invalidations").counter().count());
+    }
+
+    @Test
+    void shouldNotReloadWhenNothingWasInvalidated() {
+        when(repository.findFirstReminderChunk(any(), any(), any())).thenReturn(List.of());
+        cache.reconcile();
+
+        cache.refreshIfInvalidated();
+
+        verify(repository, times(1)).findFirstReminderChunk(any(), any(), any());
+    }
+
+    @Test
+    void shouldMissWhenSnapshotIsOlderThanTtl() {
+        when(repository.findFirstReminderChunk(any(), any(), any())).thenReturn(List.of());
+        cache.reconcile();
+
+        clock.addAndGet(properties.getTtl().toMillis() + 1);
+
+        assertTrue(cache.findBetween(TOMORROW_START, TOMORROW_END).isEmpty());
+    }
+
+    @Test
+    void shouldShrinkWindowWhenMaxSizeIsExceeded() {
+        properties.setMaxSize(2);
+        when(repository.findFirstReminderChunk(any(), any(), any())).thenReturn(List.of(
+            reminder(TOMORROW.atTime(10, 0), ConsultationStatusEnum.SCHEDULED),
+            reminder(TOMORROW.atTime(14, 0), ConsultationStatusEnum.SCHEDULED)));
+        cache.reconcile();
+
+        cache.apply(reminder(TOMORROW.atTime(20, 0), ConsultationStatusEnum.SCHEDULED));
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.findBetween(TOMORROW_START, TOMORROW_END).isEmpty());
+        assertEquals(2, cache.findBetween(TOMORROW_START, TOMORROW.atTime(19, 59)).orElseThrow().size());
+        assertEquals(1, meterRegistry.get("consultation.cache.evictions").counter().count());
+    }
+
+    @Test
+    void shouldRecordDriftBetweenCachedAndReloadedSnapshots() {
+        ConsultationReminder kept = reminder(TOMORROW.atTime(10, 0), ConsultationStatusEnum.SCHEDULED);
+        ConsultationReminder missed = reminder(TOMORROW.atTime(14, 0), ConsultationStatusEnum.SCHEDULED);
+        ConsultationReminder unseen = reminder(TOMORROW.atTime(15, 0), ConsultationStatusEnum.SCHEDULED);
+        when(repository.findFirstReminderChunk(any(), any(), eq(PageRequest.of(0, 1000))))
+            .thenReturn(List.of(kept, missed))
+            .thenReturn(List.of(kept, unseen));
+
+        cache.reconcile();
+        cache.reconcile();
+
+        assertEquals(Optional.of(List.of(kept, unseen)), cache.findBetween(TOMORROW_START, TOMORROW_END));
+        assertEquals(2, meterRegistry.get("consultation.cache.reconcile.drift").summary().totalAmount());
+    }
+
+    @Test
+    void shouldAlwaysMissWhenDisabled() {
+        properties.setEnabled(false);
+
+        cache.reconcile();
+        cache.apply(reminder(TOMORROW.atTime(10, 0), ConsultationStatusEnum.SCHEDULED));
+
+        assertTrue(cache.findBetween(TOMORROW_START, TOMORROW_END).isEmpty());
+        verifyNoInteractions(repository);
+    }
+
+    private static ConsultationReminder reminder(LocalDateTime startDate, ConsultationStatusEnum status) {
+        return new ConsultationReminder(UUID.randomUUID(), startDate, startDate.plusMinutes(30), status);
+    }
+
+    private static long millis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,129 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.ConsultationEventProcessor;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization.ConsultationEventDeserializer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+/**
+ * Modo batch com o wiring de produção: o registro que falha em todas as tentativas e o payload que não decodifica
+ * vão para o mesmo -dlt dos outros modos, e o resto do lote é gravado.
+ */
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.kafka.consumer.auto-offset-reset=earliest",
+    "spring.kafka.consumer.consultation.mode=batch",
+    "spring.kafka.consumer.consultation.topic=" + KafkaBatchDeadLetterIntegrationTest.TOPIC,
+    "spring.kafka.consumer.consultation.retry.attempts=3",
+    "spring.kafka.consumer.consultation.retry.initial-interval=100ms",
+    "spring.kafka.consumer.consultation.retry.multiplier=2",
+    "spring.kafka.consumer.consultation.retry.max-interval=1s"
+})
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = 1, topics = KafkaBatchDeadLetterIntegrationTest.TOPIC)
+class KafkaBatchDeadLetterIntegrationTest {
+
+    static final String TOPIC = "test.consultation.batch";
+    private static final String UNDECODABLE = "not a consultation";
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @MockitoBean
+    private ConsultationEventProcessor processor;
+
+    @Test
+    void shouldDeadLetterOnlyTheFailingRecordsAndPersistTheRest() {
+        Set<String> persisted = ConcurrentHashMap.newKeySet();
+        when(processor.process(anyList())).thenAnswer(invocation -> {
+            List<ConsultationEvent> events = invocation.<List<ConsumerRecord<String, ConsultationEvent>>>getArgument(0).stream()
+                .map(ConsumerRecord::value)
+                .toList();
+            if (events.stream().anyMatch(event -> event.description().startsWith("fail-"))) {
+                throw new IllegalStateException("constraint violation");
+            }
+            events.forEach(event -> persisted.add(event.description()));
+            return new ConsultationEventProcessor.Result(0, events.size());
+        });
+
+        for (int i = 0; i < 10; i++) {
+            kafkaTemplate.send(TOPIC, payload(i == 3 || i == 7 ? "fail-" + i : "ok-" + i));
+        }
+        kafkaTemplate.send(TOPIC, UNDECODABLE);
+        kafkaTemplate.send(TOPIC, payload("ok-last"));
+        kafkaTemplate.flush();
+
+        List<ConsumerRecord<String, byte[]>> deadLetters = readDeadLetters(3);
+
+        assertEquals(UNDECODABLE, new String(deadLetters.get(2).value(), StandardCharsets.UTF_8));
+        ConsultationEventDeserializer deserializer = new ConsultationEventDeserializer();
+        List<String> failed = deadLetters.subList(0, 2).stream()
+            .map(record -> deserializer.deserialize(record.topic(), record.headers(), record.value()).description())
+            .toList();
+        assertEquals(List.of("fail-3", "fail-7"), failed);
+        deadLetters.forEach(record -> {
+            assertEquals(TOPIC, header(record, KafkaHeaders.DLT_ORIGINAL_TOPIC));
+            assertNotNull(header(record, KafkaHeaders.DLT_EXCEPTION_FQCN));
+        });
+
+        await().atMost(Duration.ofSeconds(30)).until(() -> persisted.size() == 9);
+        assertTrue(persisted.contains("ok-last"));
+    }
+
+    private List<ConsumerRecord<String, byte[]>> readDeadLetters(int expected) {
+        Map<String, Object> config = KafkaTestUtils.consumerProps("batch-dlt-reader", "false", broker);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        List<ConsumerRecord<String, byte[]>> deadLetters = new ArrayList<>();
+        try (Consumer<String, byte[]> consumer = new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
+                new ByteArrayDeserializer()).createConsumer()) {
+            consumer.subscribe(List.of(TOPIC + "-dlt"));
+            await().atMost(Duration.ofSeconds(30)).until(() -> {
+                KafkaTestUtils.getRecords(consumer, Duration.ofMillis(500)).forEach(deadLetters::add);
+                return deadLetters.size() >= expected;
+            });
+        }
+        return deadLetters;
+    }
+
+    private static String payload(String description) {
+        return """
+            {"id":"%s","startDate":"15/01/2030 10:30","finalDate":"15/01/2030 11:00","status":"SCHEDULED","description":"%s"}
+            """.formatted(UUID.randomUUID(), description).strip();
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+}
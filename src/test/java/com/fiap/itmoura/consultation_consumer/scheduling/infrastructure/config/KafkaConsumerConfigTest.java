@@ -0,0 +1,113 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.ConsultationListenerAutoscaler;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.ConsumerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class KafkaConsumerConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConsultationConsumerProperties properties = new ConsultationConsumerProperties();
+    private final DefaultKafkaConsumerFactory<String, String> consumerFactory =
+        new DefaultKafkaConsumerFactory<>(Map.of(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092"));
+    private final DefaultKafkaProducerFactory<String, String> producerFactory =
+        new DefaultKafkaProducerFactory<>(Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092"));
+    private KafkaConsumerConfig config;
+
+    @BeforeEach
+    void setUp() {
+        ConsultationConsumerProperties.FetchProfile throughput = new ConsultationConsumerProperties.FetchProfile();
+        throughput.setFetchMinBytes(262_144);
+        throughput.setFetchMaxWait(Duration.ofMillis(250));
+        throughput.setMaxPollRecords(2_000);
+        throughput.setMaxPartitionFetchBytes(4_194_304);
+        throughput.setFetchMaxBytes(67_108_864);
+        throughput.setReceiveBufferBytes(1_048_576);
+        properties.setTopic("test.consultation.topic");
+        properties.setFetchProfiles(Map.of("throughput", throughput));
+        config = new KafkaConsumerConfig(properties, new ReminderProperties(), new ConsumerMetrics(meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void shouldApplyTheWholeProfileWithModeSettingsOnTop() {
+        properties.setFetchProfile("throughput");
+        properties.getBatch().setSize(300);
+
+        Properties batch = config.consultationBatchListenerContainerFactory(consumerFactory, producerFactory)
+            .getContainerProperties().getKafkaConsumerProperties();
+        Properties parallel = config.consultationParallelListenerContainerFactory(consumerFactory)
+            .getContainerProperties().getKafkaConsumerProperties();
+
+        assertEquals("262144", batch.getProperty(ConsumerConfig.FETCH_MIN_BYTES_CONFIG));
+        assertEquals("250", batch.getProperty(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG));
+        assertEquals("4194304", batch.getProperty(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG));
+        assertEquals("67108864", batch.getProperty(ConsumerConfig.FETCH_MAX_BYTES_CONFIG));
+        assertEquals("1048576", batch.getProperty(ConsumerConfig.RECEIVE_BUFFER_CONFIG));
+        assertEquals("300", batch.getProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+        assertEquals("2000", parallel.getProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+    }
+
+    @Test
+    void shouldKeepClientDefaultsWithoutProfile() {
+        properties.getParallel().setMaxPollRecords(100);
+
+        assertTrue(config.consultationBatchListenerContainerFactory(consumerFactory, producerFactory)
+            .getContainerProperties().getKafkaConsumerProperties().isEmpty());
+        Properties parallel = config.consultationParallelListenerContainerFactory(consumerFactory)
+            .getContainerProperties().getKafkaConsumerProperties();
+        assertEquals(1, parallel.size());
+        assertEquals("100", parallel.getProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+    }
+
+    @Test
+    void shouldRejectUnknownProfile() {
+        properties.setFetchProfile("turbo");
+
+        assertThrows(IllegalStateException.class, () -> config.consultationBatchListenerContainerFactory(consumerFactory, producerFactory));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldApplyProfileOnlyToTheSingleModeConsultationListener() {
+        properties.setFetchProfile("throughput");
+        ConcurrentMessageListenerContainer<String, ConsultationEvent> consultation = mock(ConcurrentMessageListenerContainer.class);
+        ConcurrentMessageListenerContainer<String, ConsultationEvent> retry = mock(ConcurrentMessageListenerContainer.class);
+        ContainerProperties consultationProperties = new ContainerProperties("test.consultation.topic");
+        when(consultation.getListenerId()).thenReturn(ConsultationListenerAutoscaler.LISTENER_ID);
+        when(consultation.getContainerProperties()).thenReturn(consultationProperties);
+        when(retry.getListenerId()).thenReturn(ConsultationListenerAutoscaler.LISTENER_ID + "-retry-1000");
+
+        config.consultationFetchProfileCustomizer().configure(consultation);
+        config.consultationFetchProfileCustomizer().configure(retry);
+
+        assertEquals("2000", consultationProperties.getKafkaConsumerProperties().getProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+        verify(retry, never()).getContainerProperties();
+    }
+
+    @Test
+    void shouldBindClientPollMetricsOnOwnConsumerFactories() {
+        assertTrue(config.consultationSingleListenerContainerFactory(consumerFactory).getConsumerFactory().getListeners()
+            .stream().anyMatch(MicrometerConsumerListener.class::isInstance));
+        assertTrue(config.consultationBatchListenerContainerFactory(consumerFactory, producerFactory).getConsumerFactory().getListeners()
+            .stream().anyMatch(MicrometerConsumerListener.class::isInstance));
+        assertTrue(config.consultationStatusListenerContainerFactory(consumerFactory).getConsumerFactory().getListeners()
+            .stream().anyMatch(MicrometerConsumerListener.class::isInstance));
+    }
+}
@@ -0,0 +1,76 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.ConsultationEventProcessor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Evento JSON sem campo obrigatório no modo single: o deserializer o rejeita e o registro vai para o -dlt com os
+ * bytes originais, sem passar pelo processamento nem travar a partição.
+ */
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.kafka.consumer.auto-offset-reset=earliest",
+    "spring.kafka.consumer.consultation.mode=single",
+    "spring.kafka.consumer.consultation.topic=" + KafkaIncompleteEventIntegrationTest.TOPIC
+})
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = 1, topics = KafkaIncompleteEventIntegrationTest.TOPIC)
+class KafkaIncompleteEventIntegrationTest {
+
+    static final String TOPIC = "test.consultation.incomplete";
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @MockitoBean
+    private ConsultationEventProcessor processor;
+
+    @Test
+    void shouldDeadLetterEventWithoutStartDateWithItsOriginalBytes() {
+        String incomplete = """
+            {"id":"%s","finalDate":"15/01/2030 11:00","status":"SCHEDULED","description":"sem início"}
+            """.formatted(UUID.randomUUID()).strip();
+        kafkaTemplate.send(TOPIC, incomplete);
+        kafkaTemplate.flush();
+
+        Map<String, Object> config = KafkaTestUtils.consumerProps("incomplete-dlt-reader", "false", broker);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, byte[]> consumer = new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
+                new ByteArrayDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, TOPIC + "-dlt");
+            ConsumerRecord<String, byte[]> deadLetter = KafkaTestUtils.getSingleRecord(consumer, TOPIC + "-dlt", Duration.ofSeconds(60));
+
+            assertEquals(incomplete, new String(deadLetter.value(), StandardCharsets.UTF_8));
+            assertEquals(TOPIC, new String(deadLetter.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_TOPIC).value(),
+                StandardCharsets.UTF_8));
+        }
+        verify(processor, never()).process(anyList());
+    }
+}
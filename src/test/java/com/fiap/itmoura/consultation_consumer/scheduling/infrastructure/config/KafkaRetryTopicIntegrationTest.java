@@ -0,0 +1,144 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.ConsultationEventProcessor;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization.ConsultationEventDeserializer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+/**
+ * Modo single com o wiring de produção (SchedulingKafkaConsumer + {@link KafkaConsumerConfig#consultationRetryTopics});
+ * só o processamento é trocado por um que falha sempre para parte das mensagens.
+ */
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.kafka.consumer.auto-offset-reset=earliest",
+    "spring.kafka.consumer.consultation.mode=single",
+    "spring.kafka.consumer.consultation.topic=" + KafkaRetryTopicIntegrationTest.TOPIC,
+    "spring.kafka.consumer.consultation.retry.attempts=3",
+    "spring.kafka.consumer.consultation.retry.initial-interval=5s",
+    "spring.kafka.consumer.consultation.retry.multiplier=2",
+    "spring.kafka.consumer.consultation.retry.max-interval=10s"
+})
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = 1, topics = KafkaRetryTopicIntegrationTest.TOPIC)
+class KafkaRetryTopicIntegrationTest {
+
+    static final String TOPIC = "test.consultation.flaky";
+    private static final int HEALTHY = 40;
+    private static final int FAILING = 10;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @MockitoBean
+    private ConsultationEventProcessor processor;
+
+    @Test
+    void shouldKeepConsumingMainTopicWhileFailedRecordsWaitInRetryTopics() {
+        // ordem em que as descrições chegaram ao processamento, contando cada tentativa
+        List<String> attempts = new CopyOnWriteArrayList<>();
+        when(processor.process(anyList())).thenAnswer(invocation -> {
+            String description = invocation.<List<ConsumerRecord<String, ConsultationEvent>>>getArgument(0).get(0).value().description();
+            attempts.add(description);
+            if (description.startsWith("fail-")) {
+                throw new IllegalStateException("smtp unavailable");
+            }
+            return new ConsultationEventProcessor.Result(0, 1);
+        });
+
+        for (int i = 0; i < HEALTHY + FAILING; i++) {
+            // uma em cada cinco mensagens falha sempre
+            kafkaTemplate.send(TOPIC, payload(i % 5 == 0 ? "fail-" + i : "ok-" + i));
+        }
+        kafkaTemplate.flush();
+
+        List<ConsumerRecord<String, ConsultationEvent>> deadLetters = readDeadLetters();
+        assertEquals(FAILING, deadLetters.size());
+        for (ConsumerRecord<String, ConsultationEvent> deadLetter : deadLetters) {
+            String description = deadLetter.value().description();
+            assertTrue(description.startsWith("fail-"));
+            assertEquals(TOPIC, header(deadLetter, KafkaHeaders.DLT_ORIGINAL_TOPIC));
+            assertEquals("smtp unavailable", header(deadLetter, KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+            // tópico principal + 2 tópicos de retry
+            assertEquals(3, attempts.stream().filter(description::equals).count());
+        }
+
+        // nenhuma falha segurou a partição: o tópico principal inteiro passou antes da primeira nova tentativa
+        assertEquals(HEALTHY, attempts.stream().filter(description -> description.startsWith("ok-")).count());
+        int lastHealthy = lastIndexOf(attempts, "ok-");
+        List<String> seen = new ArrayList<>();
+        for (int i = 0; i < attempts.size(); i++) {
+            if (!seen.contains(attempts.get(i))) {
+                seen.add(attempts.get(i));
+            } else {
+                assertTrue(i > lastHealthy, "retry of " + attempts.get(i) + " ran before the main topic was drained");
+            }
+        }
+    }
+
+    private static int lastIndexOf(List<String> attempts, String prefix) {
+        for (int i = attempts.size() - 1; i >= 0; i--) {
+            if (attempts.get(i).startsWith(prefix)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private List<ConsumerRecord<String, ConsultationEvent>> readDeadLetters() {
+        Map<String, Object> config = KafkaTestUtils.consumerProps("dlt-reader", "false", broker);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        List<ConsumerRecord<String, ConsultationEvent>> deadLetters = new ArrayList<>();
+        try (Consumer<String, ConsultationEvent> consumer = new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
+                new ConsultationEventDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, TOPIC + "-dlt");
+            await().atMost(Duration.ofSeconds(60)).until(() -> {
+                ConsumerRecords<String, ConsultationEvent> records = KafkaTestUtils.getRecords(consumer, Duration.ofMillis(500));
+                records.forEach(deadLetters::add);
+                return deadLetters.size() >= FAILING;
+            });
+        }
+        return deadLetters;
+    }
+
+    private static String payload(String description) {
+        return """
+            {"id":"%s","startDate":"15/01/2030 10:30","finalDate":"15/01/2030 11:00","status":"SCHEDULED","description":"%s"}
+            """.formatted(UUID.randomUUID(), description).strip();
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,112 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.InvalidNotificationRecordException;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.notification.NotificationDispatcher;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Notificação que o dispatcher nunca aceita: o registro é entregue de novo com backoff e, esgotadas as tentativas,
+ * vai para o -dlt do tópico de notificações em vez de ser confirmado e perdido. Registro inválido vai sem novas
+ * tentativas.
+ */
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.kafka.consumer.auto-offset-reset=earliest",
+    "consultation.reminder.outbox.topic=" + ReminderNotificationDeadLetterIntegrationTest.TOPIC,
+    "consultation.reminder.outbox.relay-enabled=false",
+    "consultation.reminder.outbox.redelivery.attempts=3",
+    "consultation.reminder.outbox.redelivery.initial-interval=100ms",
+    "consultation.reminder.outbox.redelivery.max-interval=200ms"
+})
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = 1, topics = ReminderNotificationDeadLetterIntegrationTest.TOPIC)
+class ReminderNotificationDeadLetterIntegrationTest {
+
+    static final String TOPIC = "test.reminder.notification";
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @MockitoBean
+    private NotificationDispatcher notificationDispatcher;
+
+    @Test
+    void shouldDeadLetterNotificationAfterRedeliveryAttempts() {
+        when(notificationDispatcher.enqueue(any()))
+            .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("Notification queue full or dispatcher stopped")));
+        String consultationId = UUID.randomUUID().toString();
+        kafkaTemplate.send(TOPIC, consultationId, "undeliverable");
+        kafkaTemplate.flush();
+
+        ConsumerRecord<String, String> deadLetter = readDeadLetter("undeliverable");
+
+        assertEquals(consultationId, deadLetter.key());
+        assertEquals(TOPIC, header(deadLetter, KafkaHeaders.DLT_ORIGINAL_TOPIC));
+        verify(notificationDispatcher, times(3)).enqueue(any());
+    }
+
+    @Test
+    void shouldDeadLetterRecordWithoutKey() {
+        kafkaTemplate.send(TOPIC, null, "without key");
+        kafkaTemplate.flush();
+
+        ConsumerRecord<String, String> deadLetter = readDeadLetter("without key");
+
+        assertNull(deadLetter.key());
+        String stackTrace = header(deadLetter, KafkaHeaders.DLT_EXCEPTION_STACKTRACE);
+        assertTrue(stackTrace.contains(InvalidNotificationRecordException.class.getName()), stackTrace);
+        assertTrue(stackTrace.contains("has no consultation id key"), stackTrace);
+        verify(notificationDispatcher, never()).enqueue(any());
+    }
+
+    // os dois testes dividem o broker, então o -dlt pode ter o registro do outro
+    private ConsumerRecord<String, String> readDeadLetter(String value) {
+        Map<String, Object> config = KafkaTestUtils.consumerProps("dlt-reader-" + UUID.randomUUID(), "false", broker);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        List<ConsumerRecord<String, String>> deadLetters = new ArrayList<>();
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
+                new StringDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, TOPIC + "-dlt");
+            await().atMost(Duration.ofSeconds(60)).until(() -> {
+                KafkaTestUtils.getRecords(consumer, Duration.ofMillis(500)).forEach(deadLetters::add);
+                return deadLetters.stream().anyMatch(record -> value.equals(record.value()));
+            });
+        }
+        return deadLetters.stream().filter(record -> value.equals(record.value())).findFirst().orElseThrow();
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+}
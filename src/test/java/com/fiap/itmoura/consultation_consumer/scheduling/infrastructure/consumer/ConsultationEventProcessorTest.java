@@ -0,0 +1,113 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ConsultationService;
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ReminderOutboxService;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.idempotency.IdempotencyGuard;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultationEventProcessorTest {
+
+    @Mock
+    private ConsultationService consultationService;
+
+    @Mock
+    private IdempotencyGuard idempotencyGuard;
+
+    @Mock
+    private ReminderOutboxService outboxService;
+
+    @InjectMocks
+    private ConsultationEventProcessor processor;
+
+    @Test
+    void shouldPersistConfirmAndMarkUnprocessedEvents() {
+        UUID id = UUID.randomUUID();
+        ConsumerRecord<String, ConsultationEvent> record = record(0, event(id, "Consulta de rotina"));
+        when(idempotencyGuard.filterUnprocessed(List.of(record))).thenReturn(List.of(record));
+        when(consultationService.saveAll(anyList())).thenReturn(1);
+
+        ConsultationEventProcessor.Result result = processor.process(List.of(record));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Consultation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(consultationService).saveAll(captor.capture());
+        Consultation persisted = captor.getValue().get(0);
+        assertEquals(id, persisted.getId());
+        assertEquals(LocalDateTime.of(2030, 1, 15, 10, 30), persisted.getStartDate());
+        assertEquals(LocalDateTime.of(2030, 1, 15, 11, 0), persisted.getFinalDate());
+        assertEquals(ConsultationStatusEnum.SCHEDULED, persisted.getStatus());
+        assertEquals("Consulta de rotina", persisted.getDescription());
+
+        verify(outboxService).recordConfirmations(captor.getValue());
+        verify(idempotencyGuard).markProcessed(List.of(record));
+        assertEquals(new ConsultationEventProcessor.Result(0, 1), result);
+    }
+
+    @Test
+    void shouldSkipAlreadyProcessedEvents() {
+        ConsumerRecord<String, ConsultationEvent> processed = record(0, event(UUID.randomUUID(), "Redelivered"));
+        ConsumerRecord<String, ConsultationEvent> fresh = record(1, event(UUID.randomUUID(), "New"));
+        when(idempotencyGuard.filterUnprocessed(List.of(processed, fresh))).thenReturn(List.of(fresh));
+        when(consultationService.saveAll(anyList())).thenReturn(1);
+
+        ConsultationEventProcessor.Result result = processor.process(List.of(processed, fresh));
+
+        verify(idempotencyGuard).markProcessed(List.of(fresh));
+        verify(outboxService).recordConfirmations(argThat(consultations -> consultations.size() == 1));
+        assertEquals(1, result.duplicates());
+    }
+
+    @Test
+    void shouldNotMarkEventsWhenSaveFails() {
+        ConsumerRecord<String, ConsultationEvent> record = record(0, event(UUID.randomUUID(), "Consulta"));
+        when(idempotencyGuard.filterUnprocessed(List.of(record))).thenReturn(List.of(record));
+        when(consultationService.saveAll(anyList())).thenThrow(new IllegalStateException("database unavailable"));
+
+        assertThrows(IllegalStateException.class, () -> processor.process(List.of(record)));
+
+        verify(idempotencyGuard, never()).markProcessed(anyList());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void shouldWriteConfirmationsInTheSaveTransactionBeforeMarkingProcessed() {
+        ConsumerRecord<String, ConsultationEvent> record = record(0, event(UUID.randomUUID(), "Consulta"));
+        when(idempotencyGuard.filterUnprocessed(List.of(record))).thenReturn(List.of(record));
+        when(consultationService.saveAll(anyList())).thenReturn(1);
+
+        processor.process(List.of(record));
+
+        InOrder inOrder = inOrder(consultationService, outboxService, idempotencyGuard);
+        inOrder.verify(consultationService).saveAll(anyList());
+        inOrder.verify(outboxService).recordConfirmations(anyList());
+        inOrder.verify(idempotencyGuard).markProcessed(List.of(record));
+    }
+
+    private static ConsumerRecord<String, ConsultationEvent> record(long offset, ConsultationEvent event) {
+        return new ConsumerRecord<>("test.consultation.topic", 0, offset, null, event);
+    }
+
+    private static ConsultationEvent event(UUID id, String description) {
+        return new ConsultationEvent(id, LocalDateTime.of(2030, 1, 15, 10, 30), LocalDateTime.of(2030, 1, 15, 11, 0),
+            ConsultationStatusEnum.SCHEDULED, description);
+    }
+}
@@ -0,0 +1,146 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ConsultationConsumerProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultationListenerAutoscalerTest {
+
+    private static final String TOPIC = "test.consultation.topic";
+    private static final List<TopicPartition> PARTITIONS = IntStream.range(0, 6)
+        .mapToObj(partition -> new TopicPartition(TOPIC, partition)).toList();
+
+    @Mock
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Mock
+    private ConcurrentMessageListenerContainer<String, String> container;
+
+    @Mock
+    private ConsumerMetrics consumerMetrics;
+
+    @Mock
+    private ObjectProvider<DataSource> dataSource;
+
+    @Mock
+    private KafkaAdmin kafkaAdmin;
+
+    private final ConsultationConsumerProperties properties = new ConsultationConsumerProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong millis = new AtomicLong(1_000_000L);
+    private ConsultationListenerAutoscaler autoscaler;
+
+    @BeforeEach
+    void setUp() {
+        properties.setTopic(TOPIC);
+        properties.getAutoscaling().setStableChecks(3);
+        properties.getAutoscaling().setCooldown(Duration.ofMinutes(1));
+        lenient().when(listenerRegistry.getListenerContainer(ConsultationListenerAutoscaler.LISTENER_ID)).thenReturn(container);
+        lenient().when(container.isRunning()).thenReturn(true);
+        lenient().when(container.getConcurrency()).thenReturn(1);
+        lenient().when(container.getAssignedPartitions()).thenReturn(PARTITIONS);
+        Node node = new Node(0, "localhost", 9092);
+        lenient().when(kafkaAdmin.describeTopics(TOPIC)).thenReturn(Map.of(TOPIC, new TopicDescription(TOPIC, false,
+            PARTITIONS.stream().map(p -> new TopicPartitionInfo(p.partition(), node, List.of(node), List.of(node))).toList())));
+        autoscaler = new ConsultationListenerAutoscaler(listenerRegistry, consumerMetrics, dataSource, kafkaAdmin, properties,
+            meterRegistry, millis::get);
+    }
+
+    @Test
+    void shouldScaleUpProportionallyToLagCappedAtPartitionCount() {
+        when(consumerMetrics.lag(PARTITIONS)).thenReturn(40_000L);
+
+        autoscaler.evaluate();
+        autoscaler.evaluate();
+        verify(container, never()).stop(any(Runnable.class));
+        autoscaler.evaluate();
+
+        // 40000 / 5000 pediria 8 consumers, mas o tópico só tem 6 partições
+        restartAndVerifyConcurrency(6);
+    }
+
+    @Test
+    void shouldScaleDownWhenProcessingIsSlowAndRespectCooldown() {
+        Timer processing = meterRegistry.timer("processing");
+        when(consumerMetrics.processingTimer(TOPIC)).thenReturn(processing);
+        when(consumerMetrics.lag(PARTITIONS)).thenReturn(40_000L);
+        when(container.getConcurrency()).thenReturn(4);
+
+        for (int i = 0; i < 3; i++) {
+            processing.record(Duration.ofSeconds(2));
+            autoscaler.evaluate();
+        }
+        restartAndVerifyConcurrency(3);
+
+        // dentro do cooldown nada muda, mesmo com a latência alta
+        clearInvocations(container);
+        for (int i = 0; i < 3; i++) {
+            processing.record(Duration.ofSeconds(2));
+            autoscaler.evaluate();
+        }
+        verify(container, never()).stop(any(Runnable.class));
+    }
+
+    @Test
+    void shouldPausePartitionsWhileDatabasePoolHasWaitersAndResumeBelowThreshold() {
+        HikariDataSource hikari = mock(HikariDataSource.class);
+        HikariPoolMXBean pool = mock(HikariPoolMXBean.class);
+        when(dataSource.getIfAvailable()).thenReturn(hikari);
+        when(hikari.getHikariPoolMXBean()).thenReturn(pool);
+        when(hikari.getMaximumPoolSize()).thenReturn(30);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(3);
+        when(consumerMetrics.lag(PARTITIONS)).thenReturn(40_000L);
+
+        autoscaler.evaluate();
+        autoscaler.evaluate();
+
+        PARTITIONS.forEach(partition -> verify(container).pausePartition(partition));
+        verify(container, never()).resumePartition(any());
+
+        when(pool.getThreadsAwaitingConnection()).thenReturn(0);
+        when(pool.getActiveConnections()).thenReturn(25);
+        autoscaler.evaluate();
+        verify(container, never()).resumePartition(any());
+
+        when(pool.getActiveConnections()).thenReturn(10);
+        autoscaler.evaluate();
+        PARTITIONS.forEach(partition -> verify(container).resumePartition(partition));
+        // com o pool saturado o lag cresceu, mas não houve mudança de concurrency
+        verify(container, never()).stop(any(Runnable.class));
+    }
+
+    private void restartAndVerifyConcurrency(int expected) {
+        ArgumentCaptor<Runnable> callback = ArgumentCaptor.forClass(Runnable.class);
+        verify(container).stop(callback.capture());
+        callback.getValue().run();
+        verify(container).setConcurrency(expected);
+        verify(container).start();
+    }
+}
@@ -0,0 +1,61 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.application.usecase.ConsultationService;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusChangedEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultationStatusKafkaConsumerTest {
+
+    private static final String TOPIC = "test.consultation.status";
+
+    @Mock
+    private ConsultationService consultationService;
+
+    @InjectMocks
+    private ConsultationStatusKafkaConsumer consultationStatusKafkaConsumer;
+
+    @Test
+    void shouldApplyWholeBatchInSingleCall() {
+        ConsultationStatusChangedEvent cancelled = change(ConsultationStatusEnum.CANCELLED);
+        ConsultationStatusChangedEvent confirmed = change(ConsultationStatusEnum.CONFIRMED);
+        when(consultationService.updateStatuses(List.of(cancelled, confirmed))).thenReturn(List.of(cancelled.id()));
+
+        consultationStatusKafkaConsumer.consume(List.of(record(0, cancelled), record(1, confirmed)));
+
+        verify(consultationService, times(1)).updateStatuses(List.of(cancelled, confirmed));
+    }
+
+    @Test
+    void shouldSkipUndecodableAndIncompleteRecords() {
+        ConsultationStatusChangedEvent cancelled = change(ConsultationStatusEnum.CANCELLED);
+        when(consultationService.updateStatuses(List.of(cancelled))).thenReturn(List.of(cancelled.id()));
+
+        consultationStatusKafkaConsumer.consume(List.of(
+            record(0, null),
+            record(1, new ConsultationStatusChangedEvent(UUID.randomUUID(), null, null)),
+            record(2, cancelled)));
+
+        verify(consultationService).updateStatuses(List.of(cancelled));
+    }
+
+    private static ConsultationStatusChangedEvent change(ConsultationStatusEnum status) {
+        return new ConsultationStatusChangedEvent(UUID.randomUUID(), LocalDateTime.now().plusDays(1), status);
+    }
+
+    private static ConsumerRecord<String, ConsultationStatusChangedEvent> record(long offset, ConsultationStatusChangedEvent change) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, change == null ? null : change.id().toString(), change);
+    }
+}
@@ -0,0 +1,122 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConsumerMetricsTest {
+
+    private static final String TOPIC = "test.consultation.topic";
+
+    @Mock
+    private Consumer<String, String> consumer;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong millis = new AtomicLong(1_000_000L);
+    private final AtomicLong nanos = new AtomicLong();
+    private ConsumerMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new ConsumerMetrics(meterRegistry, millis::get, nanos::get);
+    }
+
+    @Test
+    void shouldCountAndTimeSuccessfulRecordAndTrackLag() {
+        when(consumer.currentLag(new TopicPartition(TOPIC, 1))).thenReturn(OptionalLong.of(42));
+        RecordInterceptor<String, String> interceptor = metrics.recordInterceptor();
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(TOPIC, 1, 10L, "key", "value");
+
+        interceptor.intercept(record, consumer);
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(15));
+        interceptor.success(record, consumer);
+        interceptor.afterRecord(record, consumer);
+
+        assertEquals(1, meterRegistry.get("consultation.consumer.records").tags("topic", TOPIC, "partition", "1").counter().count());
+        assertEquals(15, meterRegistry.get("consultation.consumer.processing").tag("topic", TOPIC).timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(42, meterRegistry.get("consultation.consumer.lag").tags("topic", TOPIC, "partition", "1").gauge().value());
+    }
+
+    @Test
+    void shouldRecordEndToEndLatencyFromProducerTimestamp() {
+        when(consumer.currentLag(any())).thenReturn(OptionalLong.empty());
+        RecordInterceptor<String, String> interceptor = metrics.recordInterceptor();
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(TOPIC, 0, 7L, millis.get() - 250, TimestampType.CREATE_TIME,
+            0, 0, "key", "value", new RecordHeaders(), Optional.empty());
+
+        interceptor.intercept(record, consumer);
+        interceptor.success(record, consumer);
+
+        assertEquals(250, meterRegistry.get("consultation.consumer.end_to_end").tag("topic", TOPIC).timer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldSumLagOfRequestedPartitionsOnly() {
+        when(consumer.currentLag(any())).thenReturn(OptionalLong.of(100));
+        RecordInterceptor<String, String> interceptor = metrics.recordInterceptor();
+        interceptor.intercept(new ConsumerRecord<>(TOPIC, 0, 0L, "a", "1"), consumer);
+        interceptor.intercept(new ConsumerRecord<>(TOPIC, 1, 0L, "b", "2"), consumer);
+
+        assertEquals(100, metrics.lag(List.of(new TopicPartition(TOPIC, 0), new TopicPartition(TOPIC, 2))));
+        assertEquals(200, metrics.lag(List.of(new TopicPartition(TOPIC, 0), new TopicPartition(TOPIC, 1))));
+    }
+
+    @Test
+    void shouldCountFailedRecordAsError() {
+        when(consumer.currentLag(any())).thenReturn(OptionalLong.empty());
+        RecordInterceptor<String, String> interceptor = metrics.recordInterceptor();
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(TOPIC, 0, 5L, "key", "value");
+
+        interceptor.intercept(record, consumer);
+        interceptor.failure(record, new IllegalStateException("boom"), consumer);
+        interceptor.afterRecord(record, consumer);
+
+        assertEquals(1, meterRegistry.get("consultation.consumer.errors").tags("topic", TOPIC, "partition", "0").counter().count());
+        assertNull(meterRegistry.find("consultation.consumer.records").counter());
+        // sem posição ainda o consumer não sabe o lag: nada de gauge zerado
+        assertNull(meterRegistry.find("consultation.consumer.lag").gauge());
+    }
+
+    @Test
+    void shouldAttributeBatchDurationToEveryRecordPerPartition() {
+        TopicPartition first = new TopicPartition(TOPIC, 0);
+        TopicPartition second = new TopicPartition(TOPIC, 1);
+        when(consumer.currentLag(any())).thenReturn(OptionalLong.of(0));
+        ConsumerRecords<String, String> batch = new ConsumerRecords<>(Map.of(
+            first, List.of(new ConsumerRecord<>(TOPIC, 0, 0L, "a", "1"), new ConsumerRecord<>(TOPIC, 0, 1L, "b", "2")),
+            second, List.of(new ConsumerRecord<>(TOPIC, 1, 0L, "c", "3"))));
+        BatchInterceptor<String, String> interceptor = metrics.batchInterceptor();
+
+        interceptor.intercept(batch, consumer);
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        interceptor.success(batch, consumer);
+
+        assertEquals(2, meterRegistry.get("consultation.consumer.records").tags("partition", "0").counter().count());
+        assertEquals(1, meterRegistry.get("consultation.consumer.records").tags("partition", "1").counter().count());
+        assertEquals(3, meterRegistry.get("consultation.consumer.processing").timer().count());
+        assertEquals(100, meterRegistry.get("consultation.consumer.processing").timer().max(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,100 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyOrderedExecutorTest {
+
+    private KeyOrderedExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new KeyOrderedExecutor(Executors.newVirtualThreadPerTaskExecutor(), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void shouldKeepOrderForSameKey() throws Exception {
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[100];
+
+        for (int i = 0; i < futures.length; i++) {
+            int value = i;
+            futures[i] = executor.submit("consultation-1", () -> executed.add(value));
+        }
+        CompletableFuture.allOf(futures).get(5, TimeUnit.SECONDS);
+
+        for (int i = 0; i < futures.length; i++) {
+            assertEquals(i, executed.get(i));
+        }
+    }
+
+    @Test
+    void shouldRunDifferentKeysInParallel() throws Exception {
+        CountDownLatch blocker = new CountDownLatch(1);
+        CompletableFuture<Void> slow = executor.submit("consultation-1", () -> await(blocker));
+
+        CompletableFuture<Void> other = executor.submit("consultation-2", () -> { });
+
+        other.get(5, TimeUnit.SECONDS);
+        assertFalse(slow.isDone());
+        blocker.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldWaitForPreviousTaskOfSameKey() throws Exception {
+        CountDownLatch blocker = new CountDownLatch(1);
+        CompletableFuture<Void> first = executor.submit("consultation-1", () -> await(blocker));
+        CompletableFuture<Void> second = executor.submit("consultation-1", () -> { });
+
+        Thread.sleep(100);
+        assertFalse(second.isDone());
+
+        blocker.countDown();
+        second.get(5, TimeUnit.SECONDS);
+        assertTrue(first.isDone());
+    }
+
+    @Test
+    void shouldContinueKeyQueueAfterFailure() throws Exception {
+        CompletableFuture<Void> failing = executor.submit("consultation-1", () -> {
+            throw new IllegalStateException("SMTP error");
+        });
+        CompletableFuture<Void> next = executor.submit("consultation-1", () -> { });
+
+        next.get(5, TimeUnit.SECONDS);
+        assertTrue(failing.isCompletedExceptionally());
+    }
+
+    @Test
+    void shouldReleaseKeyWhenQueueIsDrained() throws Exception {
+        executor.submit("consultation-1", () -> { }).get(5, TimeUnit.SECONDS);
+
+        Thread.sleep(50);
+        assertEquals(0, executor.pendingKeys());
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
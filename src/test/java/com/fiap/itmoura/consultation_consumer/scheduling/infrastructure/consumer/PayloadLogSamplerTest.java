@@ -0,0 +1,34 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadLogSamplerTest {
+
+    @Test
+    void shouldSampleFirstMessageAndThenOneEveryN() {
+        PayloadLogSampler sampler = new PayloadLogSampler(3);
+
+        assertTrue(sampler.sample());
+        assertFalse(sampler.sample());
+        assertFalse(sampler.sample());
+        assertTrue(sampler.sample());
+    }
+
+    @Test
+    void shouldSampleEveryMessageWhenNIsOne() {
+        PayloadLogSampler sampler = new PayloadLogSampler(1);
+
+        assertTrue(sampler.sample());
+        assertTrue(sampler.sample());
+    }
+
+    @Test
+    void shouldNeverSampleWhenDisabled() {
+        PayloadLogSampler sampler = new PayloadLogSampler(0);
+
+        assertFalse(sampler.sample());
+        assertFalse(sampler.sample());
+    }
+}
@@ -0,0 +1,80 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Notification;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.NotificationTypeEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.notification.NotificationDispatcher;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.outbox.ReminderOutboxRelay;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderNotificationConsumerTest {
+
+    private static final String TOPIC = "test.reminder.notification";
+
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    @InjectMocks
+    private ReminderNotificationConsumer consumer;
+
+    @Test
+    void shouldEnqueueNotificationWithTypeFromHeader() {
+        UUID consultationId = UUID.randomUUID();
+        CompletableFuture<Void> delivery = new CompletableFuture<>();
+        when(notificationDispatcher.enqueue(new Notification(NotificationTypeEnum.CONFIRMATION, consultationId, "content")))
+            .thenReturn(delivery);
+
+        assertSame(delivery, consumer.consume(record(consultationId.toString(), "CONFIRMATION")));
+    }
+
+    @Test
+    void shouldTreatRecordsWithoutTypeHeaderAsReminders() {
+        UUID consultationId = UUID.randomUUID();
+        when(notificationDispatcher.enqueue(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        consumer.consume(record(consultationId.toString(), null));
+
+        verify(notificationDispatcher).enqueue(new Notification(NotificationTypeEnum.REMINDER, consultationId, "content"));
+    }
+
+    @Test
+    void shouldFailRecordsWithoutValidConsultationIdKey() {
+        assertInvalid(consumer.consume(record(null, "REMINDER")), "has no consultation id key");
+        assertInvalid(consumer.consume(record("not-a-uuid", "REMINDER")), "invalid consultation id key 'not-a-uuid'");
+        verifyNoInteractions(notificationDispatcher);
+    }
+
+    @Test
+    void shouldFailRecordsWithUnknownNotificationType() {
+        assertInvalid(consumer.consume(record(UUID.randomUUID().toString(), "PROMOTION")), "unknown notification type 'PROMOTION'");
+        verifyNoInteractions(notificationDispatcher);
+    }
+
+    private static void assertInvalid(CompletableFuture<Void> delivery, String message) {
+        ExecutionException failure = assertThrows(ExecutionException.class, delivery::get);
+        assertInstanceOf(InvalidNotificationRecordException.class, failure.getCause());
+        assertTrue(failure.getCause().getMessage().contains(message), failure.getCause().getMessage());
+    }
+
+    private static ConsumerRecord<String, String> record(String key, String type) {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(TOPIC, 0, 0, key, "content");
+        if (type != null) {
+            record.headers().add(ReminderOutboxRelay.NOTIFICATION_TYPE_HEADER, type.getBytes(StandardCharsets.UTF_8));
+        }
+        return record;
+    }
+}
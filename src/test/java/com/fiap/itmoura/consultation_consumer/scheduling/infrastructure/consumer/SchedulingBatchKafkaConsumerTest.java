@@ -0,0 +1,101 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulingBatchKafkaConsumerTest {
+
+    private static final String TOPIC = "test.consultation.topic";
+
+    @Mock
+    private ConsultationEventProcessor processor;
+
+    @InjectMocks
+    private SchedulingBatchKafkaConsumer schedulingBatchKafkaConsumer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(processor.process(anyList())).thenAnswer(invocation ->
+            new ConsultationEventProcessor.Result(0, invocation.<List<?>>getArgument(0).size()));
+    }
+
+    @Test
+    void shouldProcessWholeBatchInSingleCall() {
+        List<ConsumerRecord<String, ConsultationEvent>> records = List.of(
+            record(0, event(UUID.randomUUID(), "Consultation 1")),
+            record(1, event(UUID.randomUUID(), "Consultation 2")),
+            record(2, event(UUID.randomUUID(), "Consultation 3"))
+        );
+
+        schedulingBatchKafkaConsumer.consume(records);
+
+        verify(processor, times(1)).process(records);
+    }
+
+    @Test
+    void shouldSkipTombstones() {
+        ConsumerRecord<String, ConsultationEvent> valid = record(1, event(UUID.randomUUID(), "Valid consultation"));
+
+        schedulingBatchKafkaConsumer.consume(List.of(record(0, null), valid));
+
+        verify(processor).process(List.of(valid));
+    }
+
+    @Test
+    void shouldPersistRecordsBeforeUndecodablePayloadAndPointHandlerAtIt() {
+        ConsumerRecord<String, ConsultationEvent> before = record(0, event(UUID.randomUUID(), "Before"));
+        ConsumerRecord<String, ConsultationEvent> undecodable = record(1, null);
+        undecodable.headers().add(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, new byte[0]);
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class, () ->
+            schedulingBatchKafkaConsumer.consume(List.of(before, undecodable, record(2, event(UUID.randomUUID(), "After")))));
+
+        assertSame(undecodable, failure.getRecord());
+        verify(processor).process(List.of(before));
+        verifyNoMoreInteractions(processor);
+    }
+
+    @Test
+    void shouldRetryOneByOneAndPointHandlerAtFirstFailingRecord() {
+        ConsumerRecord<String, ConsultationEvent> ok = record(0, event(UUID.randomUUID(), "Ok"));
+        ConsumerRecord<String, ConsultationEvent> broken = record(1, event(UUID.randomUUID(), "Broken"));
+        ConsumerRecord<String, ConsultationEvent> notReached = record(2, event(UUID.randomUUID(), "Not reached"));
+        doThrow(new IllegalStateException("constraint violation")).when(processor).process(List.of(ok, broken, notReached));
+        doThrow(new IllegalStateException("constraint violation")).when(processor).process(List.of(broken));
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class, () ->
+            schedulingBatchKafkaConsumer.consume(List.of(ok, broken, notReached)));
+
+        assertSame(broken, failure.getRecord());
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        verify(processor).process(List.of(ok));
+        verify(processor, never()).process(List.of(notReached));
+    }
+
+    private ConsumerRecord<String, ConsultationEvent> record(long offset, ConsultationEvent value) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, null, value);
+    }
+
+    private ConsultationEvent event(UUID id, String description) {
+        return new ConsultationEvent(id, LocalDateTime.of(2030, 1, 15, 10, 30), LocalDateTime.of(2030, 1, 15, 11, 0),
+            ConsultationStatusEnum.SCHEDULED, description);
+    }
+}
@@ -1,124 +1,86 @@
 package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
 
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ConsultationConsumerProperties;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.logging.log4j.ThreadContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class SchedulingKafkaConsumerTest {
 
-    @InjectMocks
-    private SchedulingKafkaConsumer schedulingKafkaConsumer;
+    private static final String TOPIC = "test.consultation.topic";
+
+    @Mock
+    private ConsultationEventProcessor processor;
 
-    private ByteArrayOutputStream outputStream;
-    private PrintStream originalOut;
+    private SchedulingKafkaConsumer schedulingKafkaConsumer;
 
     @BeforeEach
     void setUp() {
-        outputStream = new ByteArrayOutputStream();
-        originalOut = System.out;
-        System.setOut(new PrintStream(outputStream));
-    }
-
-    @Test
-    void shouldConsumeMessageAndPrintToConsole() {
-        String testMessage = "Test consultation message";
-
-        schedulingKafkaConsumer.consume(testMessage);
-
-        String output = outputStream.toString();
-        assertTrue(output.contains("===== MESSAGE RECEIVED ====="));
-        assertTrue(output.contains(testMessage));
-        assertTrue(output.contains("===== SIMULANDO ENVIO DE EMAIL ====="));
+        schedulingKafkaConsumer = new SchedulingKafkaConsumer(processor, new ConsultationConsumerProperties());
     }
 
     @Test
-    void shouldConsumeEmptyMessage() {
-        String emptyMessage = "";
+    void shouldProcessDecodedEventThroughSharedPath() {
+        ConsumerRecord<String, ConsultationEvent> record = record(event("Consulta de rotina"));
 
-        schedulingKafkaConsumer.consume(emptyMessage);
+        schedulingKafkaConsumer.consume(record);
 
-        String output = outputStream.toString();
-        assertTrue(output.contains("===== MESSAGE RECEIVED ====="));
-        assertTrue(output.contains("===== SIMULANDO ENVIO DE EMAIL ====="));
+        verify(processor).process(List.of(record));
     }
 
     @Test
-    void shouldConsumeNullMessage() {
-        schedulingKafkaConsumer.consume(null);
+    void shouldIgnoreTombstone() {
+        schedulingKafkaConsumer.consume(record(null));
 
-        String output = outputStream.toString();
-        assertTrue(output.contains("===== MESSAGE RECEIVED ====="));
-        assertTrue(output.contains("null"));
-        assertTrue(output.contains("===== SIMULANDO ENVIO DE EMAIL ====="));
+        verifyNoInteractions(processor);
     }
 
     @Test
-    void shouldConsumeJsonMessage() {
-        String jsonMessage = "{\"id\":\"123\",\"description\":\"Medical consultation\"}";
-
-        schedulingKafkaConsumer.consume(jsonMessage);
+    void shouldPropagateFailureSoTheRecordGoesToRetryTopics() {
+        when(processor.process(any())).thenThrow(new IllegalStateException("database unavailable"));
 
-        String output = outputStream.toString();
-        assertTrue(output.contains("===== MESSAGE RECEIVED ====="));
-        assertTrue(output.contains(jsonMessage));
-        assertTrue(output.contains("===== SIMULANDO ENVIO DE EMAIL ====="));
+        assertThrows(IllegalStateException.class, () -> schedulingKafkaConsumer.consume(record(event("Consulta"))));
     }
 
     @Test
-    void shouldConsumeMessageWithSpecialCharacters() {
-        String specialMessage = "Consulta médica às 14:30 - Paciente: João & Maria";
-
-        schedulingKafkaConsumer.consume(specialMessage);
-
-        String output = outputStream.toString();
-        assertTrue(output.contains("===== MESSAGE RECEIVED ====="));
-        assertTrue(output.contains(specialMessage));
-        assertTrue(output.contains("===== SIMULANDO ENVIO DE EMAIL ====="));
+    void shouldExposePartitionAndOffsetInLogContextWhileProcessing() {
+        Map<String, String> contextDuringProcessing = new HashMap<>();
+        when(processor.process(any())).thenAnswer(invocation -> {
+            contextDuringProcessing.putAll(ThreadContext.getImmutableContext());
+            return new ConsultationEventProcessor.Result(0, 1);
+        });
+
+        schedulingKafkaConsumer.consume(record(event("Context test message")));
+
+        assertEquals(TOPIC, contextDuringProcessing.get(KafkaLogContext.TOPIC));
+        assertEquals("3", contextDuringProcessing.get(KafkaLogContext.PARTITION));
+        assertEquals("42", contextDuringProcessing.get(KafkaLogContext.OFFSET));
+        assertNull(ThreadContext.get(KafkaLogContext.OFFSET));
     }
 
-    @Test
-    void shouldPrintMessagesInCorrectOrder() {
-        String testMessage = "Order test message";
-
-        schedulingKafkaConsumer.consume(testMessage);
-
-        String output = outputStream.toString();
-        String[] lines = output.split(System.lineSeparator());
-        
-        boolean foundMessageReceived = false;
-        boolean foundActualMessage = false;
-        boolean foundEmailSimulation = false;
-        
-        for (String line : lines) {
-            if (line.contains("===== MESSAGE RECEIVED =====")) {
-                foundMessageReceived = true;
-                assertFalse(foundActualMessage);
-                assertFalse(foundEmailSimulation);
-            } else if (line.contains(testMessage)) {
-                foundActualMessage = true;
-                assertTrue(foundMessageReceived);
-                assertFalse(foundEmailSimulation);
-            } else if (line.contains("===== SIMULANDO ENVIO DE EMAIL =====")) {
-                foundEmailSimulation = true;
-                assertTrue(foundMessageReceived);
-                assertTrue(foundActualMessage);
-            }
-        }
-        
-        assertTrue(foundMessageReceived);
-        assertTrue(foundActualMessage);
-        assertTrue(foundEmailSimulation);
+    private static ConsumerRecord<String, ConsultationEvent> record(ConsultationEvent event) {
+        return new ConsumerRecord<>(TOPIC, 3, 42L, null, event);
     }
 
-    void tearDown() {
-        System.setOut(originalOut);
+    private static ConsultationEvent event(String description) {
+        return new ConsultationEvent(UUID.randomUUID(), LocalDateTime.of(2030, 1, 15, 10, 30),
+            LocalDateTime.of(2030, 1, 15, 11, 0), ConsultationStatusEnum.SCHEDULED, description);
     }
 }
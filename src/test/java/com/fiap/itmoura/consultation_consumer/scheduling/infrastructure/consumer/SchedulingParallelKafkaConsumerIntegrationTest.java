@@ -0,0 +1,123 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization.ConsultationEventDeserializer;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+/**
+ * Modo parallel com o wiring de produção: um registro cujo processamento falha não pode ser confirmado antes de
+ * ser republicado nos tópicos de retry, e termina no -dlt em vez de sumir.
+ */
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.kafka.consumer.auto-offset-reset=earliest",
+    "spring.kafka.consumer.consultation.mode=parallel",
+    "spring.kafka.consumer.consultation.topic=" + SchedulingParallelKafkaConsumerIntegrationTest.TOPIC,
+    "spring.kafka.consumer.consultation.retry.attempts=2",
+    "spring.kafka.consumer.consultation.retry.initial-interval=1s"
+})
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = 1, topics = SchedulingParallelKafkaConsumerIntegrationTest.TOPIC)
+class SchedulingParallelKafkaConsumerIntegrationTest {
+
+    static final String TOPIC = "test.consultation.parallel";
+    private static final String GROUP = "test-group";
+    private static final int RECORDS = 20;
+    private static final int FAILING = 4;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @MockitoBean
+    private ConsultationEventProcessor processor;
+
+    @Test
+    void shouldRecoverFailedRecordsBeforeCommittingPastThem() throws Exception {
+        Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        when(processor.process(anyList())).thenAnswer(invocation -> {
+            ConsultationEvent event = invocation.<List<ConsumerRecord<String, ConsultationEvent>>>getArgument(0).get(0).value();
+            attempts.computeIfAbsent(event.description(), ignored -> new AtomicInteger()).incrementAndGet();
+            if (event.description().startsWith("fail-")) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return new ConsultationEventProcessor.Result(0, 1);
+        });
+
+        for (int i = 0; i < RECORDS; i++) {
+            kafkaTemplate.send(TOPIC, payload(i % 5 == 0 ? "fail-" + i : "ok-" + i));
+        }
+        kafkaTemplate.flush();
+
+        List<ConsumerRecord<String, ConsultationEvent>> deadLetters = read(Pattern.compile(Pattern.quote(TOPIC + "-dlt")), FAILING);
+        assertTrue(deadLetters.stream().allMatch(record -> record.value().description().startsWith("fail-")));
+        // tópico principal + 1 tópico de retry
+        deadLetters.forEach(record -> assertEquals(2, attempts.get(record.value().description()).get()));
+
+        // o commit passa dos registros que falharam só depois de republicados
+        await().atMost(Duration.ofSeconds(30)).until(() -> committedOffset() == RECORDS);
+        assertEquals(FAILING, read(Pattern.compile(Pattern.quote(TOPIC) + "-retry.*"), FAILING).size());
+    }
+
+    private long committedOffset() throws Exception {
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+            OffsetAndMetadata offset = admin.listConsumerGroupOffsets(GROUP).partitionsToOffsetAndMetadata().get()
+                .get(new TopicPartition(TOPIC, 0));
+            return offset == null ? -1 : offset.offset();
+        }
+    }
+
+    private List<ConsumerRecord<String, ConsultationEvent>> read(Pattern topics, int expected) {
+        Map<String, Object> config = KafkaTestUtils.consumerProps("reader-" + UUID.randomUUID(), "false", broker);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        List<ConsumerRecord<String, ConsultationEvent>> records = new ArrayList<>();
+        try (Consumer<String, ConsultationEvent> consumer = new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
+                new ConsultationEventDeserializer()).createConsumer()) {
+            consumer.subscribe(topics);
+            await().atMost(Duration.ofSeconds(30)).until(() -> {
+                KafkaTestUtils.getRecords(consumer, Duration.ofMillis(500)).forEach(records::add);
+                return records.size() >= expected;
+            });
+        }
+        return records;
+    }
+
+    private static String payload(String description) {
+        return """
+            {"id":"%s","startDate":"15/01/2030 10:30","finalDate":"15/01/2030 11:00","status":"SCHEDULED","description":"%s"}
+            """.formatted(UUID.randomUUID(), description).strip();
+    }
+}
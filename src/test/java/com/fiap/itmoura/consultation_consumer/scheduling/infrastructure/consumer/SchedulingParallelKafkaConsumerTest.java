@@ -0,0 +1,96 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulingParallelKafkaConsumerTest {
+
+    private static final String TOPIC = "test.consultation.topic";
+
+    @Mock
+    private ConsultationEventProcessor processor;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private KeyOrderedExecutor executor;
+    private SchedulingParallelKafkaConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        executor = new KeyOrderedExecutor(Executors.newVirtualThreadPerTaskExecutor(), Duration.ofSeconds(5));
+        consumer = new SchedulingParallelKafkaConsumer(processor, executor, new ConsumerMetrics(meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void shouldCompleteOnlyAfterTheEventWasProcessed() throws Exception {
+        ConsumerRecord<String, ConsultationEvent> record = record(event("Consulta de rotina"));
+        when(processor.process(List.of(record))).thenReturn(new ConsultationEventProcessor.Result(0, 1));
+
+        consumer.consume(record).get(5, TimeUnit.SECONDS);
+
+        verify(processor).process(List.of(record));
+        assertEquals(1, meterRegistry.get("consultation.consumer.records").counter().count());
+    }
+
+    @Test
+    void shouldCompleteExceptionallySoTheRecordGoesToTheRecovererInsteadOfBeingAcked() {
+        when(processor.process(any())).thenThrow(new IllegalStateException("database unavailable"));
+
+        CompletableFuture<Void> result = consumer.consume(record(event("Consulta")));
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertEquals(1, meterRegistry.get("consultation.consumer.errors").counter().count());
+    }
+
+    @Test
+    void shouldFailTheRecordWhenTheExecutorIsAlreadyClosed() {
+        executor.close();
+
+        CompletableFuture<Void> result = consumer.consume(record(event("Consulta")));
+
+        assertTrue(result.isCompletedExceptionally());
+        verifyNoInteractions(processor);
+    }
+
+    @Test
+    void shouldCompleteTombstoneRightAway() {
+        assertTrue(consumer.consume(record(null)).isDone());
+        verifyNoInteractions(processor);
+    }
+
+    private static ConsumerRecord<String, ConsultationEvent> record(ConsultationEvent event) {
+        return new ConsumerRecord<>(TOPIC, 0, 7L, null, event);
+    }
+
+    private static ConsultationEvent event(String description) {
+        return new ConsultationEvent(UUID.randomUUID(), LocalDateTime.of(2030, 1, 15, 10, 30),
+            LocalDateTime.of(2030, 1, 15, 11, 0), ConsultationStatusEnum.SCHEDULED, description);
+    }
+}
@@ -0,0 +1,86 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsultationEventAvroCodecTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 15, 10, 30);
+
+    @Test
+    void shouldRoundTripEvent() throws Exception {
+        ConsultationEvent event = new ConsultationEvent(UUID.randomUUID(), START, START.plusMinutes(30),
+            ConsultationStatusEnum.CANCELLED, "Consulta médica");
+        ConsultationEvent withoutDescription = new ConsultationEvent(UUID.randomUUID(), START, START.plusMinutes(30),
+            ConsultationStatusEnum.COMPLETED, null);
+
+        assertEquals(event, ConsultationEventAvroCodec.decode(ConsultationEventAvroCodec.encode(event)));
+        assertEquals(withoutDescription, ConsultationEventAvroCodec.decode(ConsultationEventAvroCodec.encode(withoutDescription)));
+    }
+
+    @Test
+    void shouldBeReadableByGenericAvroReaderWithTheSchemaFile() throws Exception {
+        UUID id = UUID.randomUUID();
+        byte[] encoded = ConsultationEventAvroCodec.encode(new ConsultationEvent(id, START, START.plusMinutes(30),
+            ConsultationStatusEnum.CONFIRMED, "Retorno"));
+
+        GenericRecord record = new GenericDatumReader<GenericRecord>(ConsultationEventAvroCodec.SCHEMA)
+            .read(null, DecoderFactory.get().binaryDecoder(encoded, null));
+
+        ByteBuffer idBytes = ByteBuffer.wrap(((GenericData.Fixed) record.get("id")).bytes());
+        assertEquals(id, new UUID(idBytes.getLong(), idBytes.getLong()));
+        assertEquals((int) (START.toEpochSecond(ZoneOffset.UTC) / 60), record.get("startDate"));
+        assertEquals("CONFIRMED", record.get("status").toString());
+        assertEquals("Retorno", record.get("description").toString());
+    }
+
+    @Test
+    void shouldDecodeWhatGenericAvroWriterProduces() throws Exception {
+        UUID id = UUID.randomUUID();
+        GenericRecord record = new GenericData.Record(ConsultationEventAvroCodec.SCHEMA);
+        record.put("id", new GenericData.Fixed(ConsultationEventAvroCodec.SCHEMA.getField("id").schema(),
+            ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array()));
+        record.put("startDate", (int) (START.toEpochSecond(ZoneOffset.UTC) / 60));
+        record.put("finalDate", (int) (START.plusHours(1).toEpochSecond(ZoneOffset.UTC) / 60));
+        record.put("status", new GenericData.EnumSymbol(ConsultationEventAvroCodec.SCHEMA.getField("status").schema(), "SCHEDULED"));
+        record.put("description", null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(ConsultationEventAvroCodec.SCHEMA).write(record, encoder);
+        encoder.flush();
+
+        assertEquals(new ConsultationEvent(id, START, START.plusHours(1), ConsultationStatusEnum.SCHEDULED, null),
+            ConsultationEventAvroCodec.decode(out.toByteArray()));
+    }
+
+    @Test
+    void shouldBeMuchSmallerThanJson() {
+        UUID id = UUID.randomUUID();
+        String json = "{\"id\":\"" + id + "\",\"startDate\":\"15/01/2030 10:30\",\"finalDate\":\"15/01/2030 11:00\","
+            + "\"status\":\"SCHEDULED\",\"description\":\"Consulta de rotina\"}";
+
+        byte[] binary = ConsultationEventAvroCodec.encode(new ConsultationEvent(id, START, START.plusMinutes(30),
+            ConsultationStatusEnum.SCHEDULED, "Consulta de rotina"));
+
+        // 16 (id) + 4 + 4 (datas) + 1 (status) + 1 (union) + 1 + 18 (descrição)
+        assertEquals(45, binary.length);
+        assertTrue(binary.length * 3 < json.getBytes(StandardCharsets.UTF_8).length);
+    }
+}
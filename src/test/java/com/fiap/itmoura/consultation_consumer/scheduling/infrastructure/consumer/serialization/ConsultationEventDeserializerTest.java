@@ -0,0 +1,141 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsultationEventDeserializerTest {
+
+    private static final String TOPIC = "test.consultation.topic";
+
+    private final ConsultationEventDeserializer deserializer = new ConsultationEventDeserializer();
+
+    @Test
+    void shouldDecodeEventFromBytes() {
+        UUID id = UUID.randomUUID();
+
+        ConsultationEvent event = deserializer.deserialize(TOPIC, payload(id, "15/01/2030 10:30", "15/01/2030 11:00"));
+
+        assertEquals(id, event.id());
+        assertEquals(LocalDateTime.of(2030, 1, 15, 10, 30), event.startDate());
+        assertEquals(LocalDateTime.of(2030, 1, 15, 11, 0), event.finalDate());
+        assertEquals(ConsultationStatusEnum.SCHEDULED, event.status());
+        assertEquals("Consulta médica", event.description());
+    }
+
+    @Test
+    void shouldMatchLegacyObjectMapperMapping() throws Exception {
+        UUID id = UUID.randomUUID();
+        byte[] payload = payload(id, "31/12/2029 23:59", "01/01/2030 00:30");
+
+        Consultation legacy = new ObjectMapper().findAndRegisterModules()
+            .readValue(new String(payload, StandardCharsets.UTF_8), Consultation.class);
+
+        assertEquals(legacy, deserializer.deserialize(TOPIC, payload).toConsultation());
+    }
+
+    @Test
+    void shouldReuseCachedDatesWithoutMixingThemUp() {
+        ConsultationEvent first = deserializer.deserialize(TOPIC, payload(UUID.randomUUID(), "15/01/2030 10:30", "15/01/2030 11:00"));
+        ConsultationEvent second = deserializer.deserialize(TOPIC, payload(UUID.randomUUID(), "15/01/2030 10:30", "16/01/2030 10:30"));
+
+        assertSame(first.startDate(), second.startDate());
+        assertEquals(LocalDateTime.of(2030, 1, 16, 10, 30), second.finalDate());
+    }
+
+    @Test
+    void shouldIgnoreUnknownProperties() {
+        UUID id = UUID.randomUUID();
+        byte[] payload = ("{\"id\":\"" + id + "\",\"startDate\":\"15/01/2030 10:30\",\"finalDate\":\"15/01/2030 11:00\","
+            + "\"status\":\"SCHEDULED\",\"patient\":\"João\"}").getBytes(StandardCharsets.UTF_8);
+
+        ConsultationEvent event = deserializer.deserialize(TOPIC, payload);
+
+        assertEquals(id, event.id());
+        assertNull(event.description());
+    }
+
+    @Test
+    void shouldRejectEventsMissingRequiredFields() {
+        String id = "\"id\":\"" + UUID.randomUUID() + "\"";
+        String startDate = "\"startDate\":\"15/01/2030 10:30\"";
+        String finalDate = "\"finalDate\":\"15/01/2030 11:00\"";
+        String status = "\"status\":\"SCHEDULED\"";
+
+        for (String json : new String[] {
+            "{" + startDate + "," + finalDate + "," + status + "}",
+            "{" + id + "," + finalDate + "," + status + "}",
+            "{" + id + "," + startDate + "," + status + "}",
+            "{" + id + "," + startDate + "," + finalDate + "}"
+        }) {
+            assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, json.getBytes(StandardCharsets.UTF_8)), json);
+        }
+    }
+
+    @Test
+    void shouldReturnNullForTombstone() {
+        assertNull(deserializer.deserialize(TOPIC, null));
+        assertNull(deserializer.deserialize(TOPIC, new byte[0]));
+    }
+
+    @Test
+    void shouldRejectDatesOutsidePattern() {
+        assertThrows(SerializationException.class,
+            () -> deserializer.deserialize(TOPIC, payload(UUID.randomUUID(), "2030-01-15T10:30", "15/01/2030 11:00")));
+        assertThrows(SerializationException.class,
+            () -> deserializer.deserialize(TOPIC, payload(UUID.randomUUID(), "31/02/2030 10:30", "15/01/2030 11:00")));
+    }
+
+    @Test
+    void shouldRejectMalformedJson() {
+        assertThrows(SerializationException.class,
+            () -> deserializer.deserialize(TOPIC, "not a json".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void shouldNegotiateFormatFromContentTypeHeader() {
+        UUID id = UUID.randomUUID();
+        ConsultationEvent binary = new ConsultationEvent(id, LocalDateTime.of(2030, 1, 15, 10, 30),
+            LocalDateTime.of(2030, 1, 15, 11, 0), ConsultationStatusEnum.SCHEDULED, "Consulta médica");
+
+        assertEquals(binary, deserializer.deserialize(TOPIC, contentType(ConsultationEventAvroCodec.CONTENT_TYPE),
+            ConsultationEventAvroCodec.encode(binary)));
+        assertEquals(binary, deserializer.deserialize(TOPIC, contentType("application/json; charset=utf-8"),
+            payload(id, "15/01/2030 10:30", "15/01/2030 11:00")));
+        // sem header continua sendo JSON, como os producers antigos publicam
+        assertEquals(binary, deserializer.deserialize(TOPIC, new RecordHeaders(), payload(id, "15/01/2030 10:30", "15/01/2030 11:00")));
+    }
+
+    @Test
+    void shouldRejectUnknownContentTypeAndTruncatedBinary() {
+        byte[] binary = ConsultationEventAvroCodec.encode(new ConsultationEvent(UUID.randomUUID(), LocalDateTime.of(2030, 1, 15, 10, 30),
+            LocalDateTime.of(2030, 1, 15, 11, 0), ConsultationStatusEnum.SCHEDULED, null));
+
+        assertThrows(SerializationException.class,
+            () -> deserializer.deserialize(TOPIC, contentType("application/x-protobuf"), binary));
+        assertThrows(SerializationException.class,
+            () -> deserializer.deserialize(TOPIC, contentType(ConsultationEventAvroCodec.CONTENT_TYPE), Arrays.copyOf(binary, 10)));
+    }
+
+    private static RecordHeaders contentType(String value) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(ConsultationEventDeserializer.CONTENT_TYPE_HEADER, value.getBytes(StandardCharsets.US_ASCII));
+        return headers;
+    }
+
+    private byte[] payload(UUID id, String startDate, String finalDate) {
+        return ("{\"id\":\"" + id + "\",\"startDate\":\"" + startDate + "\",\"finalDate\":\"" + finalDate + "\","
+            + "\"status\":\"SCHEDULED\",\"description\":\"Consulta médica\"}").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,109 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.idempotency;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ConsultationRepository;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ProcessedEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reentrega de ponta a ponta: consome o tópico no modo batch, volta o offset do grupo para 0 e consome a
+ * partição inteira de novo. Nenhum registro pode ser gravado (ou gerar e-mail) duas vezes.
+ */
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.kafka.consumer.auto-offset-reset=earliest",
+    "spring.kafka.consumer.consultation.mode=batch"
+})
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = 1, topics = ConsultationReplayIntegrationTest.TOPIC)
+class ConsultationReplayIntegrationTest {
+
+    static final String TOPIC = "test.consultation.topic";
+    private static final String GROUP = "test-group";
+    private static final int UNIQUE_EVENTS = 10;
+    private static final int RESENT_EVENTS = 5;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    @Autowired
+    private ConsultationRepository consultationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldNotReprocessRecordsWhenPartitionIsReplayedFromOffsetZero() throws Exception {
+        List<String> payloads = new ArrayList<>();
+        for (int i = 0; i < UNIQUE_EVENTS; i++) {
+            payloads.add(payload(UUID.randomUUID(), "Consulta " + i));
+        }
+        // produtor que reenviou parte das mensagens: são registros novos (outro offset) e passam pelo processamento
+        payloads.addAll(payloads.subList(0, RESENT_EVENTS));
+        for (String payload : payloads) {
+            kafkaTemplate.send(TOPIC, payload);
+        }
+        kafkaTemplate.flush();
+
+        await().atMost(Duration.ofSeconds(30)).until(() -> processedEventRepository.count() == payloads.size());
+        assertEquals(0, skipped());
+        assertEquals(payloads.size(), lookups("miss"));
+        assertEquals(UNIQUE_EVENTS, consultationRepository.count());
+
+        registry.getListenerContainers().forEach(MessageListenerContainer::stop);
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+            admin.alterConsumerGroupOffsets(GROUP, Map.of(new TopicPartition(TOPIC, 0), new OffsetAndMetadata(0))).all().get();
+        }
+        registry.getListenerContainers().forEach(MessageListenerContainer::start);
+
+        // a partição inteira volta e cada registro já foi processado
+        await().atMost(Duration.ofSeconds(30)).until(() -> skipped() == payloads.size());
+        assertEquals(payloads.size(), lookups("miss"));
+        assertEquals(payloads.size(), processedEventRepository.count());
+        assertEquals(UNIQUE_EVENTS, consultationRepository.count());
+    }
+
+    private double skipped() {
+        return lookups("duplicate") + lookups("in_batch_duplicate");
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("consultation.dedup.lookups").tag("result", result).counter().count();
+    }
+
+    private static String payload(UUID id, String description) {
+        return """
+            {"id":"%s","startDate":"15/01/2030 10:30","finalDate":"15/01/2030 11:00","status":"SCHEDULED","description":"%s"}
+            """.formatted(id, description).strip();
+    }
+}
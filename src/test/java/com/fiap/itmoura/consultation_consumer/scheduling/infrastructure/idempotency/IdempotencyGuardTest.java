@@ -0,0 +1,167 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.idempotency;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ConsultationConsumerProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ProcessedEvent;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ProcessedEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyGuardTest {
+
+    private static final String TOPIC = "test.consultation.topic";
+
+    @Mock
+    private ProcessedEventRepository repository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private IdempotencyGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        ConsultationConsumerProperties properties = new ConsultationConsumerProperties();
+        properties.getDedup().setExpectedEventsPerGeneration(1_000);
+        guard = new IdempotencyGuard(repository, transactionTemplate, properties, meterRegistry, () -> 1_700_000_000_000L);
+    }
+
+    @Test
+    void shouldPassNewEventsWithoutQueryingDatabase() {
+        List<ConsumerRecord<String, ConsultationEvent>> records = List.of(record(0, event(UUID.randomUUID())), record(1, event(UUID.randomUUID())));
+
+        assertEquals(records, guard.filterUnprocessed(records));
+
+        verify(repository, never()).findKeysByConsultationIds(anyCollection());
+        assertEquals(2, lookups("miss"));
+    }
+
+    @Test
+    void shouldConfirmRedeliveryAgainstProcessedTable() {
+        ConsultationEvent event = event(UUID.randomUUID());
+        guard.markProcessed(List.of(record(7, event)));
+        when(repository.findKeysByConsultationIds(Set.of(event.id())))
+            .thenReturn(List.of(new ProcessedEvent.Key(event.id(), IdempotencyGuard.positionOf(record(7, event)))));
+
+        assertTrue(guard.filterUnprocessed(List.of(record(7, event))).isEmpty());
+        assertEquals(1, lookups("duplicate"));
+    }
+
+    @Test
+    void shouldLetFalsePositiveThroughWhenTableHasNoMatch() {
+        ConsumerRecord<String, ConsultationEvent> record = record(7, event(UUID.randomUUID()));
+        guard.markProcessed(List.of(record));
+        when(repository.findKeysByConsultationIds(any())).thenReturn(List.of());
+
+        assertEquals(List.of(record), guard.filterUnprocessed(List.of(record)));
+        assertEquals(1, lookups("false_positive"));
+    }
+
+    @Test
+    void shouldProcessSameContentAgainWhenItArrivesAtAnotherOffset() {
+        // A -> B -> A: o terceiro evento é igual ao primeiro, mas é uma mudança legítima
+        UUID id = UUID.randomUUID();
+        ConsultationEvent scheduled = event(id);
+        ConsultationEvent cancelled = new ConsultationEvent(id, scheduled.startDate(), scheduled.finalDate(),
+            ConsultationStatusEnum.CANCELLED, scheduled.description());
+        guard.markProcessed(List.of(record(0, scheduled), record(1, cancelled)));
+        // só é consultada se o filtro der falso positivo
+        lenient().when(repository.findKeysByConsultationIds(Set.of(id))).thenReturn(List.of(
+            new ProcessedEvent.Key(id, IdempotencyGuard.positionOf(record(0, scheduled))),
+            new ProcessedEvent.Key(id, IdempotencyGuard.positionOf(record(1, cancelled)))));
+
+        ConsumerRecord<String, ConsultationEvent> rescheduled = record(2, scheduled);
+
+        assertEquals(List.of(rescheduled), guard.filterUnprocessed(List.of(rescheduled)));
+    }
+
+    @Test
+    void shouldKeyRetryTopicRecordsOnTheirOriginalPosition() {
+        ConsultationEvent event = event(UUID.randomUUID());
+        ConsumerRecord<String, ConsultationEvent> retried = new ConsumerRecord<>(TOPIC + "-retry-1000", 0, 0, null, event);
+        retried.headers()
+            .add(KafkaHeaders.DLT_ORIGINAL_TOPIC, TOPIC.getBytes(StandardCharsets.UTF_8))
+            .add(KafkaHeaders.DLT_ORIGINAL_PARTITION, ByteBuffer.allocate(Integer.BYTES).putInt(3).array())
+            .add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES).putLong(42).array())
+            // segundo salto de retry: o primeiro header continua sendo o do tópico principal
+            .add(KafkaHeaders.DLT_ORIGINAL_TOPIC, (TOPIC + "-retry-1000").getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(IdempotencyGuard.positionOf(new ConsumerRecord<>(TOPIC, 3, 42, null, event)), IdempotencyGuard.positionOf(retried));
+        assertNotEquals(IdempotencyGuard.positionOf(new ConsumerRecord<>(TOPIC, 3, 43, null, event)), IdempotencyGuard.positionOf(retried));
+    }
+
+    @Test
+    void shouldDropRepeatedRecordInsideSameBatch() {
+        ConsumerRecord<String, ConsultationEvent> record = record(0, event(UUID.randomUUID()));
+
+        assertEquals(List.of(record), guard.filterUnprocessed(List.of(record, record)));
+        assertEquals(1, lookups("in_batch_duplicate"));
+    }
+
+    @Test
+    void shouldRecordProcessedKeys() {
+        ConsumerRecord<String, ConsultationEvent> record = record(5, event(UUID.randomUUID()));
+
+        guard.markProcessed(List.of(record, record(6, new ConsultationEvent(null, null, null, null, null))));
+
+        verify(repository).insertIgnoringDuplicates(
+            eq(List.of(new ProcessedEvent.Key(record.value().id(), IdempotencyGuard.positionOf(record)))), any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldOnlyRememberKeysAfterCommit() {
+        ConsumerRecord<String, ConsultationEvent> record = record(0, event(UUID.randomUUID()));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            guard.markProcessed(List.of(record));
+            // ainda sem commit: o filtro não conhece a chave
+            guard.filterUnprocessed(List.of(record));
+            assertEquals(1, lookups("miss"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        guard.filterUnprocessed(List.of(record));
+        verify(repository).findKeysByConsultationIds(Set.of(record.value().id()));
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("consultation.dedup.lookups").tag("result", result).counter().count();
+    }
+
+    private static ConsumerRecord<String, ConsultationEvent> record(long offset, ConsultationEvent event) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, null, event);
+    }
+
+    private static ConsultationEvent event(UUID id) {
+        return new ConsultationEvent(id, LocalDateTime.of(2030, 1, 15, 10, 30), LocalDateTime.of(2030, 1, 15, 11, 0),
+            ConsultationStatusEnum.SCHEDULED, "Consulta");
+    }
+}
@@ -0,0 +1,82 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeWindowedBloomFilterTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void shouldNeverReturnFalseNegativeInsideWindow() {
+        TimeWindowedBloomFilter filter = new TimeWindowedBloomFilter(4, HOUR, 10_000, 0.01);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            filter.put(id, i, NOW - (i % 4) * HOUR);
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            assertTrue(filter.mightContain(ids.get(i), i, NOW));
+        }
+    }
+
+    @Test
+    void shouldKeepFalsePositivesNearConfiguredRate() {
+        TimeWindowedBloomFilter filter = new TimeWindowedBloomFilter(1, HOUR, 10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID(), 1L, NOW);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID(), 1L, NOW)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void shouldDistinguishVersionsOfSameConsultation() {
+        TimeWindowedBloomFilter filter = new TimeWindowedBloomFilter(2, HOUR, 1_000, 0.001);
+        UUID id = UUID.randomUUID();
+        filter.put(id, 1L, NOW);
+
+        assertTrue(filter.mightContain(id, 1L, NOW));
+        assertFalse(filter.mightContain(id, 2L, NOW));
+    }
+
+    @Test
+    void shouldForgetGenerationsOlderThanWindow() {
+        TimeWindowedBloomFilter filter = new TimeWindowedBloomFilter(3, HOUR, 1_000, 0.01);
+        UUID id = UUID.randomUUID();
+        filter.put(id, 1L, NOW);
+
+        assertTrue(filter.mightContain(id, 1L, NOW + 2 * HOUR));
+        assertFalse(filter.mightContain(id, 1L, NOW + 3 * HOUR));
+    }
+
+    @Test
+    void shouldReuseExpiredGenerationWithoutLeakingOldKeys() {
+        TimeWindowedBloomFilter filter = new TimeWindowedBloomFilter(2, HOUR, 1_000, 0.01);
+        UUID old = UUID.randomUUID();
+        UUID recent = UUID.randomUUID();
+        filter.put(old, 1L, NOW);
+        // mesmo slot, duas gerações depois: o bitset é zerado antes de receber a chave nova
+        filter.put(recent, 1L, NOW + 2 * HOUR);
+
+        assertTrue(filter.mightContain(recent, 1L, NOW + 2 * HOUR));
+        assertFalse(filter.mightContain(old, 1L, NOW + 2 * HOUR));
+        // chave com timestamp anterior à geração que ocupa o slot é ignorada
+        filter.put(old, 1L, NOW);
+        assertFalse(filter.mightContain(old, 1L, NOW + 2 * HOUR));
+    }
+}
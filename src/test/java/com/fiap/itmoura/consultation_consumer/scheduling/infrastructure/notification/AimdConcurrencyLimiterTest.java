@@ -0,0 +1,117 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AimdConcurrencyLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.SECONDS.toNanos(2);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void shouldGrowAboutOnePerWindowOfFastSends() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 1, 20, THRESHOLD, 0.5);
+
+        for (int window = 0; window < 3; window++) {
+            completeWindow(limiter, FAST);
+        }
+        assertEquals(4, limiter.limit());
+        completeWindow(limiter, FAST);
+        assertEquals(5, limiter.limit());
+    }
+
+    @Test
+    void shouldBackOffOnErrorsAndSlowSends() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(16, 1, 20, THRESHOLD, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.onError();
+        assertEquals(8, limiter.limit());
+
+        assertTrue(limiter.tryAcquire());
+        limiter.onSuccess(THRESHOLD + 1);
+        assertEquals(4, limiter.limit());
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onError();
+        }
+        assertEquals(1, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void shouldCutOnlyOncePerWindow() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(8, 1, 20, THRESHOLD, 0.5);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        // os 8 envios foram feitos com o limite antigo: só o primeiro erro corta
+        for (int i = 0; i < 8; i++) {
+            limiter.onError();
+        }
+
+        assertEquals(4, limiter.limit());
+    }
+
+    @Test
+    void shouldNotAdmitMoreThanLimit() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 1, 20, THRESHOLD, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.onSuccess(FAST);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void shouldSettleBelowProviderCapacityInSimulation() {
+        // provedor simulado: até 6 envios simultâneos respondem em 200ms; acima disso a latência cresce com a
+        // concorrência e a partir de 10 rejeita
+        int capacity = 6;
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(1, 1, 64, THRESHOLD, 0.7);
+        int rejections = 0;
+        int maxLimitAfterWarmUp = 0;
+        int minLimitAfterWarmUp = Integer.MAX_VALUE;
+
+        for (int round = 0; round < 500; round++) {
+            int inFlight = 0;
+            while (limiter.tryAcquire()) {
+                inFlight++;
+            }
+            for (int i = 0; i < inFlight; i++) {
+                if (inFlight >= 10) {
+                    rejections++;
+                    limiter.onError();
+                } else {
+                    limiter.onSuccess(FAST * Math.max(1, inFlight * inFlight / capacity));
+                }
+            }
+            if (round >= 100) {
+                maxLimitAfterWarmUp = Math.max(maxLimitAfterWarmUp, limiter.limit());
+                minLimitAfterWarmUp = Math.min(minLimitAfterWarmUp, limiter.limit());
+            }
+        }
+
+        // oscila entre o ponto em que a latência estoura o limiar e um corte abaixo dele, sem chegar às rejeições
+        assertEquals(0, rejections);
+        assertTrue(maxLimitAfterWarmUp < 10, "max " + maxLimitAfterWarmUp);
+        assertTrue(minLimitAfterWarmUp >= capacity - 1, "min " + minLimitAfterWarmUp);
+    }
+
+    private static void completeWindow(AimdConcurrencyLimiter limiter, long latency) {
+        int window = limiter.limit();
+        for (int i = 0; i < window; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        for (int i = 0; i < window; i++) {
+            limiter.onSuccess(latency);
+        }
+    }
+}
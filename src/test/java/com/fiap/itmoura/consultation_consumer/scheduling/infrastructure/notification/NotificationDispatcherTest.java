@@ -0,0 +1,259 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.notification;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Notification;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.NotificationTypeEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.NotificationProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.ConsultationListenerAutoscaler;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.consumer.ReminderNotificationConsumer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    @Mock
+    private ObjectProvider<KafkaListenerEndpointRegistry> registryProvider;
+
+    @Mock
+    private KafkaListenerEndpointRegistry registry;
+
+    @Mock
+    private MessageListenerContainer consultationContainer;
+
+    @Mock
+    private MessageListenerContainer reminderContainer;
+
+    private final NotificationProperties properties = new NotificationProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecordingSender sender = new RecordingSender();
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        properties.setWorkers(1);
+        properties.setLinger(Duration.ofMillis(20));
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(10));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(50));
+        lenient().when(registryProvider.getIfAvailable()).thenReturn(registry);
+        lenient().when(registry.getListenerContainer(ConsultationListenerAutoscaler.LISTENER_ID)).thenReturn(consultationContainer);
+        lenient().when(registry.getListenerContainer(ReminderNotificationConsumer.LISTENER_ID)).thenReturn(reminderContainer);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        sender.release.countDown();
+        dispatcher.stop();
+    }
+
+    @Test
+    void shouldGroupNotificationsInProviderSizedBatches() {
+        properties.setBatchSize(500);
+        sender.release.countDown();
+        start();
+
+        for (int i = 0; i < 25; i++) {
+            dispatcher.enqueue(notification());
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> sender.sent() == 25);
+        // batch-size configurado é maior, vale o limite do provedor
+        assertTrue(sender.batches.stream().allMatch(batch -> batch.size() <= RecordingSender.MAX_BATCH));
+        assertTrue(sender.batches.size() < 25);
+        assertNotSame(Thread.currentThread(), sender.senderThread);
+    }
+
+    @Test
+    void shouldPauseOnlyTheOutboxListenerAndResumeWhenDrained() {
+        properties.setQueueCapacity(10);
+        properties.setEnqueueTimeout(Duration.ofMillis(100));
+        start();
+
+        // o primeiro lote fica preso no provedor; os próximos enchem a fila
+        dispatcher.enqueue(notification());
+        await().atMost(Duration.ofSeconds(5)).until(() -> sender.senderThread != null);
+        for (int i = 0; i < 10; i++) {
+            dispatcher.enqueue(notification());
+        }
+
+        verify(reminderContainer).pause();
+        // consultas, status e invalidação de cache não passam pela fila e não são pausados
+        verify(consultationContainer, never()).pause();
+        verify(registry, never()).getListenerContainers();
+        assertThrows(RejectedExecutionException.class, () -> dispatcher.enqueue(notification()));
+        assertEquals(1, meterRegistry.get("notification.dispatched").tag("result", "rejected").counter().count());
+
+        sender.release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> sender.sent() == 11);
+        verify(reminderContainer).resume();
+        verify(consultationContainer, never()).resume();
+    }
+
+    @Test
+    void shouldRecordLatencyForEveryStage() {
+        sender.release.countDown();
+        start();
+
+        dispatcher.enqueueAll(List.of(notification(), notification(), notification()));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> sender.sent() == 3);
+        await().atMost(Duration.ofSeconds(5)).until(() -> stageCount("end_to_end") == 3);
+        assertEquals(3, stageCount("enqueue"));
+        assertEquals(3, stageCount("queue"));
+        assertTrue(stageCount("send") >= 1);
+        assertEquals(3, meterRegistry.get("notification.dispatched").tag("result", "sent").counter().count());
+    }
+
+    @Test
+    void shouldRetryFailedBatchInsteadOfDroppingIt() throws Exception {
+        sender.release.countDown();
+        sender.failures.set(2);
+        start();
+
+        CompletableFuture<Void> delivery = dispatcher.enqueue(notification());
+
+        delivery.get(5, TimeUnit.SECONDS);
+        assertEquals(1, sender.sent());
+        assertEquals(2, meterRegistry.get("notification.dispatched").tag("result", "retried").counter().count());
+        assertEquals(0, meterRegistry.get("notification.dispatched").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void shouldFailDeliveryWhenRetriesAreExhaustedAndKeepWorking() throws Exception {
+        properties.getRetry().setMaxAttempts(2);
+        sender.release.countDown();
+        sender.failures.set(2);
+        start();
+
+        CompletableFuture<Void> delivery = dispatcher.enqueue(notification());
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> delivery.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertEquals(1, meterRegistry.get("notification.dispatched").tag("result", "failed").counter().count());
+
+        dispatcher.enqueue(notification()).get(5, TimeUnit.SECONDS);
+        assertEquals(1, sender.sent());
+    }
+
+    @Test
+    void shouldThrottleBatchesToChannelRate() {
+        NotificationProperties.RateLimit rateLimit = new NotificationProperties.RateLimit();
+        rateLimit.setPermitsPerSecond(100);
+        rateLimit.setBurst(10);
+        properties.getRateLimits().put("email", rateLimit);
+        sender.release.countDown();
+        start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 30; i++) {
+            dispatcher.enqueue(notification());
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> sender.sent() == 30);
+        // 10 saem no burst, os outros 20 a 100/s
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(190));
+        assertTrue(meterRegistry.get("notification.rate_limit.wait").tag("channel", "email").timer()
+            .totalTime(TimeUnit.MILLISECONDS) > 0);
+        assertEquals(1, meterRegistry.get("notification.concurrency.limit").gauge().value());
+    }
+
+    @Test
+    void shouldDrainQueueOnShutdown() throws InterruptedException {
+        start();
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            deliveries.add(dispatcher.enqueue(notification()));
+        }
+
+        sender.release.countDown();
+        dispatcher.stop();
+
+        assertEquals(5, sender.sent());
+        assertTrue(deliveries.stream().allMatch(delivery -> delivery.isDone() && !delivery.isCompletedExceptionally()));
+        assertThrows(RejectedExecutionException.class, () -> dispatcher.enqueue(notification()));
+    }
+
+    @Test
+    void shouldFailUndeliveredNotificationsWhenShutdownTimesOut() throws InterruptedException {
+        properties.setShutdownTimeout(Duration.ofMillis(100));
+        start();
+
+        // o provedor segura o primeiro lote além do timeout de shutdown
+        CompletableFuture<Void> inFlight = dispatcher.enqueue(notification());
+        await().atMost(Duration.ofSeconds(5)).until(() -> sender.senderThread != null);
+        CompletableFuture<Void> queued = dispatcher.enqueue(notification());
+        dispatcher.stop();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> inFlight.isDone() && queued.isDone());
+        assertTrue(queued.isCompletedExceptionally());
+    }
+
+    private void start() {
+        dispatcher = new NotificationDispatcher(sender, properties, meterRegistry, registryProvider);
+        dispatcher.start();
+    }
+
+    private long stageCount(String stage) {
+        return meterRegistry.get("notification.stage.latency").tag("stage", stage).timer().count();
+    }
+
+    private static Notification notification() {
+        return new Notification(NotificationTypeEnum.REMINDER, UUID.randomUUID(), "Consulta amanhã às 10:00");
+    }
+
+    private static class RecordingSender implements NotificationSender {
+
+        static final int MAX_BATCH = 10;
+
+        final List<List<Notification>> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger failures = new AtomicInteger();
+        volatile Thread senderThread;
+
+        @Override
+        public int maxBatchSize() {
+            return MAX_BATCH;
+        }
+
+        @Override
+        public void send(List<Notification> notifications) {
+            senderThread = Thread.currentThread();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failures.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                throw new IllegalStateException("provider unavailable");
+            }
+            batches.add(List.copyOf(notifications));
+        }
+
+        int sent() {
+            return batches.stream().mapToInt(List::size).sum();
+        }
+    }
+}
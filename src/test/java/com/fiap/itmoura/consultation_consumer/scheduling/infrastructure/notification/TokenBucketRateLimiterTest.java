@@ -0,0 +1,65 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private long now = TimeUnit.HOURS.toNanos(1);
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5, () -> now);
+
+    @Test
+    void shouldAllowBurstThenRejectUntilRefilled() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(1));
+        }
+        assertFalse(limiter.tryAcquire(1));
+
+        now += TimeUnit.MILLISECONDS.toNanos(100);
+        assertTrue(limiter.tryAcquire(1));
+        assertFalse(limiter.tryAcquire(1));
+    }
+
+    @Test
+    void shouldNotAccumulateMoreThanBurstWhileIdle() {
+        now += TimeUnit.MINUTES.toNanos(10);
+
+        assertEquals(5.0, limiter.availablePermits(), 1e-9);
+        assertTrue(limiter.tryAcquire(5));
+        assertFalse(limiter.tryAcquire(1));
+    }
+
+    @Test
+    void shouldQueueReservationsInTime() {
+        assertEquals(0, limiter.reserve(5));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.reserve(1));
+        // a segunda reserva já contou com a primeira
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(600), limiter.reserve(5));
+        assertFalse(limiter.tryAcquire(1));
+    }
+
+    @Test
+    void shouldSustainConfiguredRateOverSimulatedMinute() {
+        long start = now;
+        long sentAt = start;
+        int sent = 0;
+        // cliente guloso: pede sempre lotes de 3 e espera só o que o limitador mandar
+        while (sentAt - start < TimeUnit.MINUTES.toNanos(1)) {
+            now = sentAt;
+            sentAt += limiter.reserve(3);
+            sent += 3;
+        }
+
+        // 10/s durante 60s mais o burst inicial
+        assertTrue(sent >= 600 && sent <= 600 + 5 + 3, "sent " + sent);
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(0, 5, System::nanoTime));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(10, 0, System::nanoTime));
+    }
+}
@@ -0,0 +1,112 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.outbox;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.NotificationTypeEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.ReminderProperties;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderOutboxEntry;
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence.ReminderOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderOutboxRelayTest {
+
+    private static final String TOPIC = "test.reminder.notification";
+
+    @Mock
+    private ReminderOutboxRepository repository;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ReminderProperties reminderProperties = new ReminderProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReminderOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        reminderProperties.getOutbox().setTopic(TOPIC);
+        reminderProperties.getOutbox().setBatchSize(2);
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        relay = new ReminderOutboxRelay(repository, kafkaTemplate, transactionTemplate, reminderProperties, meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPublishBatchKeyedByConsultationAndDeleteIt() {
+        ReminderOutboxEntry first = entry(1L, NotificationTypeEnum.REMINDER);
+        ReminderOutboxEntry second = entry(2L, NotificationTypeEnum.CONFIRMATION);
+        when(repository.lockNextBatch(2)).thenReturn(List.of(first, second));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        assertEquals(2, relay.relayBatch());
+
+        ArgumentCaptor<ProducerRecord<String, String>> records = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(records.capture());
+        assertPublished(first, records.getAllValues().get(0));
+        assertPublished(second, records.getAllValues().get(1));
+        verify(repository).deleteByIds(List.of(1L, 2L));
+        assertEquals(2, meterRegistry.get("reminder.outbox.published").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepBatchInOutboxWhenBrokerRejects() {
+        when(repository.lockNextBatch(2)).thenReturn(List.of(entry(1L, NotificationTypeEnum.REMINDER), entry(2L, NotificationTypeEnum.REMINDER)));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("not enough replicas")));
+
+        assertThrows(KafkaException.class, () -> relay.relayBatch());
+
+        verify(repository, never()).deleteByIds(anyCollection());
+        assertEquals(0, meterRegistry.get("reminder.outbox.published").counter().count());
+    }
+
+    @Test
+    void shouldNotTouchKafkaWhenOutboxIsEmpty() {
+        when(repository.lockNextBatch(2)).thenReturn(List.of());
+
+        assertEquals(0, relay.relayBatch());
+
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private static void assertPublished(ReminderOutboxEntry entry, ProducerRecord<String, String> record) {
+        assertEquals(TOPIC, record.topic());
+        assertEquals(entry.getConsultationId().toString(), record.key());
+        assertEquals(entry.getPayload(), record.value());
+        assertEquals(entry.getNotificationType().name(),
+            new String(record.headers().lastHeader(ReminderOutboxRelay.NOTIFICATION_TYPE_HEADER).value(), StandardCharsets.UTF_8));
+    }
+
+    private static ReminderOutboxEntry entry(long id, NotificationTypeEnum type) {
+        return new ReminderOutboxEntry(id, UUID.randomUUID(), type, "notificação " + id, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,142 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercita o caminho de COPY do upsertAll num PostgreSQL de verdade: com copy-threshold baixo, todo lote de duas
+ * ou mais consultas passa pela tabela de staging. Sem Docker o teste é ignorado.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+    "consultation.ingest.copy-threshold=2"
+})
+class ConsultationCopyUpsertTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ConsultationRepository consultationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+    @Test
+    void shouldUpdateExistingConsultationsWithoutTouchingReminderSentAt() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        LocalDateTime startDate = tomorrow.atTime(9, 0);
+        consultationRepository.upsertAll(List.of(
+            consultation(first, startDate, ConsultationStatusEnum.SCHEDULED, "Primeira"),
+            consultation(second, startDate.plusHours(1), ConsultationStatusEnum.SCHEDULED, "Segunda")));
+        LocalDateTime sentAt = LocalDateTime.now().withNano(0);
+        jdbcTemplate.update("UPDATE consultation SET reminder_sent_at = ? WHERE id = ?", sentAt, first);
+
+        int persisted = consultationRepository.upsertAll(List.of(
+            consultation(first, startDate, ConsultationStatusEnum.CONFIRMED, "Primeira confirmada"),
+            consultation(second, startDate.plusHours(1), ConsultationStatusEnum.CANCELLED, "Segunda cancelada")));
+
+        assertEquals(2, persisted);
+        assertEquals(2, count("SELECT count(*) FROM consultation WHERE id IN (?, ?)", first, second));
+        Map<String, Object> row = row(first);
+        assertEquals("CONFIRMED", row.get("status"));
+        assertEquals("Primeira confirmada", row.get("description"));
+        assertEquals(sentAt, ((Timestamp) row.get("reminder_sent_at")).toLocalDateTime());
+        assertEquals("CANCELLED", row(second).get("status"));
+    }
+
+    @Test
+    void shouldMoveRescheduledConsultationToTheNewPartition() {
+        UUID rescheduled = UUID.randomUUID();
+        LocalDateTime original = tomorrow.atTime(10, 0);
+        LocalDateTime moved = tomorrow.plusMonths(2).atTime(15, 0);
+        consultationRepository.upsertAll(List.of(
+            consultation(rescheduled, original, ConsultationStatusEnum.SCHEDULED, "Original"),
+            consultation(UUID.randomUUID(), original, ConsultationStatusEnum.SCHEDULED, "Outra")));
+
+        consultationRepository.upsertAll(List.of(
+            consultation(rescheduled, moved, ConsultationStatusEnum.SCHEDULED, "Remarcada"),
+            consultation(UUID.randomUUID(), original, ConsultationStatusEnum.SCHEDULED, "Mais uma")));
+
+        assertEquals(1, count("SELECT count(*) FROM consultation WHERE id = ?", rescheduled));
+        assertEquals(ConsultationPartitionMaintenance.partitionName(YearMonth.from(moved)),
+            jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM consultation WHERE id = ?", String.class, rescheduled));
+        assertEquals(moved, startDate("consultation", rescheduled));
+        assertEquals(moved, startDate("consultation_key", rescheduled));
+    }
+
+    @Test
+    void shouldKeepLastEventOfTheSameIdWithinOneBatch() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime firstDate = tomorrow.atTime(8, 0);
+        LocalDateTime lastDate = tomorrow.plusMonths(1).atTime(11, 0);
+
+        int persisted = consultationRepository.upsertAll(List.of(
+            consultation(id, firstDate, ConsultationStatusEnum.SCHEDULED, "Primeiro evento"),
+            consultation(UUID.randomUUID(), firstDate, ConsultationStatusEnum.SCHEDULED, "Outra consulta"),
+            consultation(id, lastDate, ConsultationStatusEnum.CONFIRMED, "Último evento")));
+
+        // o evento substituído conta como gravado, como no upsert em batch
+        assertEquals(3, persisted);
+        assertEquals(1, count("SELECT count(*) FROM consultation WHERE id = ?", id));
+        Map<String, Object> row = row(id);
+        assertEquals("CONFIRMED", row.get("status"));
+        assertEquals("Último evento", row.get("description"));
+        assertEquals(lastDate, startDate("consultation", id));
+        assertEquals(lastDate, startDate("consultation_key", id));
+    }
+
+    private Map<String, Object> row(UUID id) {
+        return jdbcTemplate.queryForMap("SELECT status, description, reminder_sent_at FROM consultation WHERE id = ?", id);
+    }
+
+    private LocalDateTime startDate(String table, UUID id) {
+        return jdbcTemplate.queryForObject("SELECT start_date FROM " + table + " WHERE id = ?", LocalDateTime.class, id);
+    }
+
+    private int count(String sql, Object... args) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, args);
+        return count == null ? 0 : count;
+    }
+
+    private static Consultation consultation(UUID id, LocalDateTime startDate, ConsultationStatusEnum status, String description) {
+        Consultation consultation = new Consultation();
+        consultation.setId(id);
+        consultation.setStartDate(startDate);
+        consultation.setFinalDate(startDate.plusMinutes(30));
+        consultation.setStatus(status);
+        consultation.setDescription(description);
+        return consultation;
+    }
+}
@@ -0,0 +1,134 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.config.PartitioningProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultationPartitionMaintenanceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 10, 15);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final PartitioningProperties properties = new PartitioningProperties();
+    private ConsultationPartitionMaintenance maintenance;
+
+    @BeforeEach
+    void setUp() {
+        properties.setPremakeMonths(2);
+        long now = TODAY.atTime(3, 30).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<Boolean>>getArgument(0).doInTransaction(null));
+        maintenance = new ConsultationPartitionMaintenance(jdbcTemplate, transactionTemplate, properties, () -> now);
+    }
+
+    @Test
+    void shouldCreateMissingPartitionsAhead() {
+        givenPartitionedTable("consultation_default", "consultation_p202510");
+
+        maintenance.maintain();
+
+        verify(jdbcTemplate, never()).execute(contains("consultation_p202510 PARTITION OF"));
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS consultation_p202511 PARTITION OF consultation"
+            + " FOR VALUES FROM ('2025-11-01') TO ('2025-12-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS consultation_p202512 PARTITION OF consultation"
+            + " FOR VALUES FROM ('2025-12-01') TO ('2026-01-01')");
+    }
+
+    @Test
+    void shouldArchiveExpiredPartitionWithOnlyFinishedConsultations() {
+        givenPartitionedTable("consultation_p202409", "consultation_p202510", "consultation_p202511", "consultation_p202512");
+        when(jdbcTemplate.queryForObject(contains("FROM consultation_p202409 WHERE status"), eq(Integer.class))).thenReturn(0);
+
+        maintenance.maintain();
+
+        verify(jdbcTemplate).execute("ALTER TABLE consultation DETACH PARTITION consultation_p202409");
+        verify(jdbcTemplate).execute("ALTER TABLE consultation_p202409 SET SCHEMA consultation_archive");
+        verify(jdbcTemplate).update(contains("DELETE FROM consultation_key"),
+            eq(LocalDateTime.of(2024, 9, 1, 0, 0)), eq(LocalDateTime.of(2024, 10, 1, 0, 0)));
+        verify(jdbcTemplate, never()).execute(contains("DETACH PARTITION consultation_p2025"));
+    }
+
+    @Test
+    void shouldKeepExpiredPartitionWithActiveConsultations() {
+        givenPartitionedTable("consultation_p202409", "consultation_p202510", "consultation_p202511", "consultation_p202512");
+        when(jdbcTemplate.queryForObject(contains("FROM consultation_p202409 WHERE status"), eq(Integer.class))).thenReturn(3);
+
+        maintenance.maintain();
+
+        verify(jdbcTemplate, never()).execute(contains("DETACH PARTITION"));
+    }
+
+    @Test
+    void shouldSkipWhenDatabaseIsNotPostgres() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+
+        maintenance.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+    }
+
+    @Test
+    void shouldSkipWhenTableIsNotPartitioned() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(contains("pg_partitioned_table"), eq(Integer.class))).thenReturn(0);
+
+        maintenance.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void shouldArchiveOnlyMonthsThatEndedBeforeTheHorizon() {
+        assertTrue(ConsultationPartitionMaintenance.isPastArchiveHorizon(YearMonth.of(2024, 9), TODAY, properties));
+        assertFalse(ConsultationPartitionMaintenance.isPastArchiveHorizon(YearMonth.of(2024, 10), TODAY, properties));
+    }
+
+    @Test
+    void shouldMapPartitionNamesToMonths() {
+        assertEquals("consultation_p202601", ConsultationPartitionMaintenance.partitionName(YearMonth.of(2026, 1)));
+        assertEquals(Optional.of(YearMonth.of(2026, 1)), ConsultationPartitionMaintenance.monthOf("consultation_p202601"));
+        assertEquals(Optional.empty(), ConsultationPartitionMaintenance.monthOf("consultation_default"));
+    }
+
+    @Test
+    void shouldRejectInvalidArchiveSchema() {
+        properties.setArchiveSchema("archive; DROP TABLE consultation");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> new ConsultationPartitionMaintenance(jdbcTemplate, transactionTemplate, properties, () -> 0L));
+    }
+
+    private void givenPartitionedTable(String... partitions) {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(contains("pg_partitioned_table"), eq(Integer.class))).thenReturn(1);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of(partitions));
+    }
+}
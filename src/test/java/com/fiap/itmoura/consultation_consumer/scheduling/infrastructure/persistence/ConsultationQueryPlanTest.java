@@ -0,0 +1,221 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Roda as migrações num PostgreSQL de verdade e confere pelo EXPLAIN do SQL que o Hibernate gera para as consultas
+ * do repositório que elas usam os índices da V7 e leem só a partição do dia. O SQL é capturado por um
+ * {@link StatementInspector} e explicado com os mesmos parâmetros da chamada. Sem Docker o teste é ignorado.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+class ConsultationQueryPlanTest {
+
+    private static final int PAGE_SIZE = 500;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @TestConfiguration
+    static class CaptureConfig {
+
+        @Bean
+        CapturingStatementInspector capturingStatementInspector() {
+            return new CapturingStatementInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer(CapturingStatementInspector inspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    @Autowired
+    private ConsultationRepository consultationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CapturingStatementInspector inspector;
+
+    private final LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        List<Consultation> consultations = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            consultations.add(consultation(tomorrow.atTime(8, 0).plusMinutes(i), i % 4 == 0
+                ? ConsultationStatusEnum.CANCELLED : ConsultationStatusEnum.SCHEDULED));
+            consultations.add(consultation(tomorrow.plusMonths(2).atTime(8, 0).plusMinutes(i), ConsultationStatusEnum.SCHEDULED));
+        }
+        consultationRepository.upsertAll(consultations);
+        jdbcTemplate.execute("ANALYZE consultation");
+        // tabelas pequenas: sem isso o planner prefere seq scan e o teste não diz nada sobre os índices
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL enable_bitmapscan = off");
+    }
+
+    @Test
+    void shouldReadConsultationsOfTheDayFromCoveringIndexOfOnePartition() {
+        LocalDateTime startDate = tomorrow.atStartOfDay();
+        LocalDateTime endDate = tomorrow.atTime(LocalTime.MAX);
+
+        String plan = explainGenerated(() -> consultationRepository.findAllConsultationTomorrow(startDate, endDate),
+            startDate, endDate);
+
+        assertUsesIndex(plan, "consultation_start_date_covering_idx");
+        assertOnlyTomorrowsPartition(plan);
+    }
+
+    @Test
+    void shouldReadFirstReminderChunkFromActiveIndexOfOnePartition() {
+        LocalDateTime startDate = tomorrow.atStartOfDay();
+        LocalDateTime endDate = tomorrow.atTime(LocalTime.MAX);
+
+        String plan = explainGenerated(() -> consultationRepository.findFirstReminderChunk(startDate, endDate,
+            PageRequest.of(0, PAGE_SIZE)), startDate, endDate);
+
+        assertUsesIndex(plan, "consultation_active_start_date_idx");
+        // a ordem do índice parcial é a do keyset
+        assertFalse(plan.contains("Sort"), plan);
+        assertOnlyTomorrowsPartition(plan);
+    }
+
+    @Test
+    void shouldPageActiveRemindersByKeysetFromActiveIndexOfOnePartition() {
+        LocalDateTime lastStartDate = tomorrow.atTime(9, 0);
+        UUID lastId = new UUID(0, 0);
+        LocalDateTime endDate = tomorrow.atTime(LocalTime.MAX);
+
+        String plan = explainGenerated(() -> consultationRepository.findNextReminderChunk(lastStartDate, lastId, endDate,
+            PageRequest.of(0, PAGE_SIZE)), endDate, lastStartDate, lastStartDate, lastStartDate, lastId);
+
+        assertUsesIndex(plan, "consultation_active_start_date_idx");
+        assertFalse(plan.contains("Sort"), plan);
+        assertOnlyTomorrowsPartition(plan);
+    }
+
+    @Test
+    void shouldLocateStatusChangeByConsultationKeyInOnePartition() {
+        Map<String, Object> key = jdbcTemplate.queryForMap("SELECT id, start_date FROM consultation_key WHERE start_date < ? LIMIT 1",
+            tomorrow.plusDays(1).atStartOfDay());
+
+        String plan = explain(ConsultationBulkRepositoryImpl.UPDATE_STATUS_IN_PARTITION,
+            "CONFIRMED", key.get("id"), key.get("start_date"), "CONFIRMED");
+
+        assertOnlyTomorrowsPartition(plan);
+    }
+
+    /**
+     * Roda a consulta pelo repositório, pega o SELECT gerado e o explica com os parâmetros da chamada na ordem em
+     * que aparecem; os que sobram são os da paginação.
+     */
+    private String explainGenerated(Runnable query, Object... parameters) {
+        inspector.clear();
+        query.run();
+        String sql = inspector.lastSelect();
+        long placeholders = sql.chars().filter(c -> c == '?').count();
+        assertTrue(placeholders >= parameters.length, sql);
+
+        List<Object> bound = new ArrayList<>(List.of(parameters));
+        while (bound.size() < placeholders) {
+            bound.add(PAGE_SIZE);
+        }
+        return explain(sql, bound.toArray());
+    }
+
+    private String explain(String sql, Object... parameters) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters));
+    }
+
+    private void assertUsesIndex(String plan, String parentIndex) {
+        // no EXPLAIN aparece o índice da partição, que o PostgreSQL nomeia sozinho; o vínculo com o da V7 vem do catálogo
+        String partitionIndex = jdbcTemplate.queryForObject("""
+            SELECT c.relname FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_index x ON x.indexrelid = c.oid
+            WHERE i.inhparent = to_regclass(?) AND x.indrelid = to_regclass(?)
+            """, String.class, parentIndex, ConsultationPartitionMaintenance.partitionName(YearMonth.from(tomorrow)));
+        assertTrue(plan.contains(partitionIndex), plan);
+    }
+
+    private void assertOnlyTomorrowsPartition(String plan) {
+        assertFalse(plan.contains("Seq Scan"), plan);
+        assertTrue(plan.contains(ConsultationPartitionMaintenance.partitionName(YearMonth.from(tomorrow))), plan);
+        assertFalse(plan.contains(ConsultationPartitionMaintenance.partitionName(YearMonth.from(tomorrow.plusMonths(2)))), plan);
+        assertFalse(plan.contains("consultation_default"), plan);
+    }
+
+    private static Consultation consultation(LocalDateTime startDate, ConsultationStatusEnum status) {
+        Consultation consultation = new Consultation();
+        consultation.setStartDate(startDate);
+        consultation.setFinalDate(startDate.plusMinutes(30));
+        consultation.setDescription("Plan test");
+        consultation.setStatus(status);
+        return consultation;
+    }
+
+    static class CapturingStatementInspector implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        String lastSelect() {
+            for (int i = statements.size() - 1; i >= 0; i--) {
+                if (statements.get(i).stripLeading().toLowerCase().startsWith("select")) {
+                    return statements.get(i);
+                }
+            }
+            throw new AssertionError("Hibernate did not run any SELECT: " + statements);
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
 
 import com.fiap.itmoura.consultation_consumer.scheduling.domain.Consultation;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.ConsultationReminder;
 import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.ConsultationStatusEnum;
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.event.ConsultationStatusChangedEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -157,4 +162,174 @@ class ConsultationRepositoryTest {
         assertTrue(hasScheduled);
         assertTrue(hasConfirmed);
     }
+
+    @Test
+    void shouldUpsertConsultationsInBatch() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        consultationTomorrow1.setStatus(ConsultationStatusEnum.CANCELLED);
+        consultationTomorrow1.setDescription("Cancelled by patient");
+
+        Consultation newConsultation = new Consultation();
+        newConsultation.setId(UUID.randomUUID());
+        newConsultation.setStartDate(tomorrow.atTime(18, 0));
+        newConsultation.setFinalDate(tomorrow.atTime(19, 0));
+        newConsultation.setDescription("Consultation from batch");
+        newConsultation.setStatus(ConsultationStatusEnum.SCHEDULED);
+
+        int persisted = consultationRepository.upsertAll(List.of(consultationTomorrow1, newConsultation));
+        entityManager.clear();
+
+        assertEquals(2, persisted);
+        Consultation updated = entityManager.find(Consultation.class, consultationTomorrow1.getId());
+        assertEquals(ConsultationStatusEnum.CANCELLED, updated.getStatus());
+        assertEquals("Cancelled by patient", updated.getDescription());
+        assertNotNull(entityManager.find(Consultation.class, newConsultation.getId()));
+        assertEquals(3, consultationRepository.findAllConsultationTomorrow(tomorrow.atStartOfDay(), tomorrow.atTime(LocalTime.MAX)).size());
+    }
+
+    @Test
+    void shouldMarkReminderSentOnlyOnce() {
+        LocalDateTime sentAt = LocalDateTime.now().withNano(0);
+
+        List<UUID> first = consultationRepository.markReminderSent(List.of(reminderOf(consultationTomorrow1)), sentAt);
+        List<UUID> second = consultationRepository.markReminderSent(
+            List.of(reminderOf(consultationTomorrow1), reminderOf(consultationTomorrow2)), sentAt.plusMinutes(1));
+        entityManager.clear();
+
+        assertEquals(List.of(consultationTomorrow1.getId()), first);
+        assertEquals(List.of(consultationTomorrow2.getId()), second);
+        assertEquals(sentAt, entityManager.find(Consultation.class, consultationTomorrow1.getId()).getReminderSentAt());
+    }
+
+    @Test
+    void shouldNotMarkReminderForConsultationCancelledAfterTheRead() {
+        ConsultationReminder read = reminderOf(consultationTomorrow1);
+        consultationRepository.updateStatuses(List.of(
+            new ConsultationStatusChangedEvent(consultationTomorrow1.getId(), consultationTomorrow1.getStartDate(), ConsultationStatusEnum.CANCELLED)));
+
+        List<UUID> marked = consultationRepository.markReminderSent(List.of(read), LocalDateTime.now());
+        entityManager.clear();
+
+        assertTrue(marked.isEmpty());
+        assertNull(entityManager.find(Consultation.class, consultationTomorrow1.getId()).getReminderSentAt());
+    }
+
+    @Test
+    void shouldKeepReminderSentAtWhenUpsertingSameConsultation() {
+        LocalDateTime sentAt = LocalDateTime.now().withNano(0);
+        consultationRepository.markReminderSent(List.of(reminderOf(consultationTomorrow1)), sentAt);
+        consultationTomorrow1.setDescription("Updated description");
+
+        consultationRepository.upsertAll(List.of(consultationTomorrow1));
+        entityManager.clear();
+
+        assertEquals(sentAt, entityManager.find(Consultation.class, consultationTomorrow1.getId()).getReminderSentAt());
+    }
+
+    @Test
+    void shouldPageRemindersTomorrowByKeyset() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        LocalDateTime startDate = tomorrow.atStartOfDay();
+        LocalDateTime endDate = tomorrow.atTime(LocalTime.MAX);
+        PageRequest page = PageRequest.of(0, 1);
+
+        List<ConsultationReminder> first = consultationRepository.findFirstReminderChunk(startDate, endDate, page);
+        assertEquals(List.of(reminderOf(consultationTomorrow1)), first);
+
+        List<ConsultationReminder> second = consultationRepository.findNextReminderChunk(
+            consultationTomorrow1.getStartDate(), consultationTomorrow1.getId(), endDate, page);
+        assertEquals(List.of(reminderOf(consultationTomorrow2)), second);
+
+        List<ConsultationReminder> third = consultationRepository.findNextReminderChunk(
+            consultationTomorrow2.getStartDate(), consultationTomorrow2.getId(), endDate, page);
+        assertTrue(third.isEmpty());
+    }
+
+    @Test
+    void shouldNotSkipRemindersSharingTheSameStartDate() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        LocalDateTime endDate = tomorrow.atTime(LocalTime.MAX);
+
+        Consultation sameSlot = new Consultation();
+        sameSlot.setStartDate(consultationTomorrow1.getStartDate());
+        sameSlot.setFinalDate(consultationTomorrow1.getFinalDate());
+        sameSlot.setDescription("Same slot consultation");
+        sameSlot.setStatus(ConsultationStatusEnum.SCHEDULED);
+        entityManager.persistAndFlush(sameSlot);
+
+        List<ConsultationReminder> walked = new ArrayList<>();
+        List<ConsultationReminder> chunk = consultationRepository.findFirstReminderChunk(tomorrow.atStartOfDay(), endDate, PageRequest.of(0, 1));
+        while (!chunk.isEmpty()) {
+            walked.addAll(chunk);
+            ConsultationReminder last = chunk.get(chunk.size() - 1);
+            chunk = consultationRepository.findNextReminderChunk(last.startDate(), last.id(), endDate, PageRequest.of(0, 1));
+        }
+
+        assertEquals(3, walked.size());
+        assertTrue(walked.containsAll(List.of(reminderOf(consultationTomorrow1), reminderOf(consultationTomorrow2), reminderOf(sameSlot))));
+    }
+
+    @Test
+    void shouldFindOnlyUnsentRemindersInRange() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        consultationRepository.markReminderSent(List.of(reminderOf(consultationTomorrow1)), LocalDateTime.now());
+        entityManager.clear();
+
+        List<ConsultationReminder> unsent = consultationRepository.findUnsentReminderChunk(
+            tomorrow.atStartOfDay(), tomorrow.atTime(LocalTime.MAX), PageRequest.of(0, 10));
+
+        assertEquals(List.of(reminderOf(consultationTomorrow2)), unsent);
+        assertEquals(List.of(reminderOf(consultationTomorrow2)), consultationRepository.findNextUnsentReminderChunk(
+            tomorrow.atStartOfDay(), new UUID(0, 0), tomorrow.atTime(LocalTime.MAX), PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void shouldLeaveInactiveConsultationsOutOfReminderChunks() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        LocalDateTime endDate = tomorrow.atTime(LocalTime.MAX);
+        consultationRepository.updateStatuses(List.of(
+            new ConsultationStatusChangedEvent(consultationTomorrow1.getId(), consultationTomorrow1.getStartDate(), ConsultationStatusEnum.CANCELLED)));
+        Consultation completed = new Consultation();
+        completed.setStartDate(tomorrow.atTime(12, 0));
+        completed.setFinalDate(tomorrow.atTime(13, 0));
+        completed.setDescription("Completed consultation");
+        completed.setStatus(ConsultationStatusEnum.COMPLETED);
+        entityManager.persistAndFlush(completed);
+        entityManager.clear();
+
+        List<ConsultationReminder> first = consultationRepository.findFirstReminderChunk(tomorrow.atStartOfDay(), endDate, PageRequest.of(0, 10));
+        List<ConsultationReminder> next = consultationRepository.findNextReminderChunk(
+            tomorrow.atStartOfDay(), new UUID(0, 0), endDate, PageRequest.of(0, 10));
+
+        assertEquals(List.of(reminderOf(consultationTomorrow2)), first);
+        assertEquals(List.of(reminderOf(consultationTomorrow2)), next);
+    }
+
+    @Test
+    void shouldUpdateStatusInPlaceOnlyWhenItChanges() {
+        List<UUID> updated = consultationRepository.updateStatuses(List.of(
+            new ConsultationStatusChangedEvent(consultationTomorrow1.getId(), consultationTomorrow1.getStartDate(), ConsultationStatusEnum.CONFIRMED),
+            new ConsultationStatusChangedEvent(consultationTomorrow2.getId(), consultationTomorrow2.getStartDate(), ConsultationStatusEnum.CONFIRMED),
+            new ConsultationStatusChangedEvent(UUID.randomUUID(), null, ConsultationStatusEnum.CANCELLED)));
+        entityManager.clear();
+
+        assertEquals(List.of(consultationTomorrow1.getId()), updated);
+        Consultation confirmed = entityManager.find(Consultation.class, consultationTomorrow1.getId());
+        assertEquals(ConsultationStatusEnum.CONFIRMED, confirmed.getStatus());
+        assertEquals("Tomorrow consultation 1", confirmed.getDescription());
+    }
+
+    @Test
+    void shouldUpdateStatusByIdWhenEventStartDateIsStale() {
+        List<UUID> updated = consultationRepository.updateStatuses(List.of(new ConsultationStatusChangedEvent(
+            consultationNextWeek.getId(), consultationNextWeek.getStartDate().minusDays(3), ConsultationStatusEnum.CANCELLED)));
+        entityManager.clear();
+
+        assertEquals(List.of(consultationNextWeek.getId()), updated);
+        assertEquals(ConsultationStatusEnum.CANCELLED, entityManager.find(Consultation.class, consultationNextWeek.getId()).getStatus());
+    }
+
+    private ConsultationReminder reminderOf(Consultation consultation) {
+        return new ConsultationReminder(consultation.getId(), consultation.getStartDate(), consultation.getFinalDate(), consultation.getStatus());
+    }
 }
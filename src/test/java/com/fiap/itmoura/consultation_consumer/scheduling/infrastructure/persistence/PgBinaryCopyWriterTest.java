@@ -0,0 +1,69 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PgBinaryCopyWriterTest {
+
+    @Test
+    void shouldWriteHeaderRowsAndTrailer() throws IOException {
+        UUID id = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (PgBinaryCopyWriter writer = new PgBinaryCopyWriter(bytes)) {
+            writer.startRow(5);
+            writer.writeInt(7);
+            writer.writeUuid(id);
+            writer.writeTimestamp(LocalDateTime.of(2000, 1, 1, 0, 0, 1));
+            writer.writeText("Consulta às 10h");
+            writer.writeText(null);
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        byte[] signature = new byte[11];
+        in.readFully(signature);
+        assertArrayEquals(new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0}, signature);
+        assertEquals(0, in.readInt());
+        assertEquals(0, in.readInt());
+
+        assertEquals(5, in.readShort());
+        assertEquals(4, in.readInt());
+        assertEquals(7, in.readInt());
+        assertEquals(16, in.readInt());
+        assertEquals(id.getMostSignificantBits(), in.readLong());
+        assertEquals(id.getLeastSignificantBits(), in.readLong());
+        assertEquals(8, in.readInt());
+        assertEquals(1_000_000L, in.readLong());
+        byte[] text = "Consulta às 10h".getBytes(StandardCharsets.UTF_8);
+        assertEquals(text.length, in.readInt());
+        byte[] written = new byte[text.length];
+        in.readFully(written);
+        assertArrayEquals(text, written);
+        assertEquals(-1, in.readInt());
+
+        assertEquals(-1, in.readShort());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void shouldEncodeTimestampsBeforePostgresEpochAsNegative() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PgBinaryCopyWriter writer = new PgBinaryCopyWriter(bytes)) {
+            writer.startRow(1);
+            writer.writeTimestamp(LocalDateTime.of(1999, 12, 31, 23, 59, 59, 500_000_000));
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        in.skipBytes(11 + 4 + 4 + 2 + 4);
+        assertEquals(-500_000L, in.readLong());
+    }
+}
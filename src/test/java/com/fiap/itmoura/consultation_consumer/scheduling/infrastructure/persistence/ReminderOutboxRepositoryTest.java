@@ -0,0 +1,53 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import com.fiap.itmoura.consultation_consumer.scheduling.domain.enums.NotificationTypeEnum;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ReminderOutboxRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 14, 23, 0);
+
+    @Autowired
+    private ReminderOutboxRepository outboxRepository;
+
+    @Test
+    void shouldLockBatchesInInsertionOrder() {
+        List<ReminderOutboxEntry> entries = IntStream.range(0, 5)
+            .mapToObj(i -> new ReminderOutboxEntry(null, UUID.randomUUID(),
+                i == 0 ? NotificationTypeEnum.CONFIRMATION : NotificationTypeEnum.REMINDER, "lembrete " + i, NOW))
+            .toList();
+        outboxRepository.appendAll(entries);
+
+        List<ReminderOutboxEntry> batch = outboxRepository.lockNextBatch(3);
+
+        assertEquals(List.of("lembrete 0", "lembrete 1", "lembrete 2"), batch.stream().map(ReminderOutboxEntry::getPayload).toList());
+        assertEquals(entries.get(0).getConsultationId(), batch.get(0).getConsultationId());
+        assertEquals(NotificationTypeEnum.CONFIRMATION, batch.get(0).getNotificationType());
+        assertEquals(NotificationTypeEnum.REMINDER, batch.get(1).getNotificationType());
+        assertEquals(NOW, batch.get(0).getCreatedAt());
+    }
+
+    @Test
+    void shouldRemovePublishedEntries() {
+        outboxRepository.appendAll(List.of(
+            new ReminderOutboxEntry(null, UUID.randomUUID(), NotificationTypeEnum.REMINDER, "publicado", NOW),
+            new ReminderOutboxEntry(null, UUID.randomUUID(), NotificationTypeEnum.REMINDER, "pendente", NOW)));
+        ReminderOutboxEntry published = outboxRepository.lockNextBatch(1).get(0);
+
+        assertEquals(1, outboxRepository.deleteByIds(List.of(published.getId())));
+
+        assertEquals(List.of("pendente"), outboxRepository.lockNextBatch(10).stream().map(ReminderOutboxEntry::getPayload).toList());
+    }
+}
@@ -0,0 +1,75 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ReminderShardLeaseRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 15);
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 14, 23, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReminderShardLeaseRepository leaseRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (int shard = 0; shard < 3; shard++) {
+            entityManager.persist(new ReminderShardLease(shard));
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void shouldGrantFreeShardToOnlyOneNode() {
+        assertEquals(1, leaseRepository.claim(0, "node-a", DAY, NOW, NOW.plusMinutes(2)));
+        assertEquals(0, leaseRepository.claim(0, "node-b", DAY, NOW, NOW.plusMinutes(2)));
+    }
+
+    @Test
+    void shouldReassignShardWhenLeaseExpires() {
+        leaseRepository.claim(0, "node-a", DAY, NOW, NOW.plusMinutes(2));
+
+        assertEquals(0, leaseRepository.claim(0, "node-b", DAY, NOW.plusMinutes(1), NOW.plusMinutes(3)));
+        assertEquals(1, leaseRepository.claim(0, "node-b", DAY, NOW.plusMinutes(3), NOW.plusMinutes(5)));
+        assertEquals(0, leaseRepository.renew(0, "node-a", NOW.plusMinutes(6)));
+    }
+
+    @Test
+    void shouldNotHandOutCompletedShardsAgainForSameDay() {
+        leaseRepository.claim(1, "node-a", DAY, NOW, NOW.plusMinutes(2));
+        assertEquals(1, leaseRepository.complete(1, "node-a", DAY));
+
+        assertEquals(0, leaseRepository.claim(1, "node-b", DAY, NOW, NOW.plusMinutes(2)));
+        assertEquals(List.of(0, 2), leaseRepository.findPendingShards(DAY, 3));
+        assertEquals(List.of(0, 1, 2), leaseRepository.findPendingShards(DAY.plusDays(1), 3));
+        assertEquals(1, leaseRepository.claim(1, "node-b", DAY.plusDays(1), NOW.plusDays(1), NOW.plusDays(1).plusMinutes(2)));
+    }
+
+    @Test
+    void shouldOnlyLetOwnerCompleteShard() {
+        leaseRepository.claim(2, "node-a", DAY, NOW, NOW.plusMinutes(2));
+
+        assertEquals(0, leaseRepository.complete(2, "node-b", DAY));
+        assertEquals(List.of(0, 1, 2), leaseRepository.findPendingShards(DAY, 3));
+    }
+
+    @Test
+    void shouldIgnoreShardsAboveConfiguredCount() {
+        assertEquals(List.of(0, 1), leaseRepository.findPendingShards(DAY, 2));
+    }
+}
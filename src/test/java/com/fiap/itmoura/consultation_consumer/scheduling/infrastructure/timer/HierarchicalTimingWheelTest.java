@@ -0,0 +1,103 @@
+package com.fiap.itmoura.consultation_consumer.scheduling.infrastructure.timer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 1_000;
+    private static final long START = 1_700_000_000_000L;
+
+    private HierarchicalTimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HierarchicalTimingWheel(TICK, START, 4);
+    }
+
+    @Test
+    void shouldFireOnExactTickOnEveryLevel() {
+        // um prazo por nível (ticks de 1s): segundos, horas, semanas e um ano à frente
+        long[] deltas = {5_000L, 3_600_000L, 14L * 86_400_000, 365L * 86_400_000};
+        List<UUID> ids = new ArrayList<>();
+        for (long delta : deltas) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            assertTrue(wheel.schedule(id, START + delta));
+        }
+
+        for (int i = 0; i < deltas.length; i++) {
+            assertTrue(wheel.advanceTo(START + deltas[i] - TICK).isEmpty(), "fired early at level " + i);
+            assertEquals(List.of(ids.get(i)), wheel.advanceTo(START + deltas[i]));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldRoundDeadlineUpToNextTick() {
+        UUID id = UUID.randomUUID();
+        wheel.schedule(id, START + 1_500);
+
+        assertTrue(wheel.advanceTo(START + 1_999).isEmpty());
+        assertEquals(List.of(id), wheel.advanceTo(START + 2_000));
+    }
+
+    @Test
+    void shouldFirePastDeadlinesOnNextTick() {
+        UUID id = UUID.randomUUID();
+        wheel.schedule(id, START - 60_000);
+
+        assertEquals(List.of(id), wheel.advanceTo(START + TICK));
+    }
+
+    @Test
+    void shouldNotFireCancelledEntry() {
+        UUID cancelled = UUID.randomUUID();
+        UUID kept = UUID.randomUUID();
+        wheel.schedule(cancelled, START + 3_600_000);
+        wheel.schedule(kept, START + 3_600_000);
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        assertFalse(wheel.contains(cancelled));
+
+        assertEquals(List.of(kept), wheel.advanceTo(START + 3_600_000));
+    }
+
+    @Test
+    void shouldMoveEntryWhenRescheduled() {
+        UUID id = UUID.randomUUID();
+        assertTrue(wheel.schedule(id, START + 10_000));
+        assertFalse(wheel.schedule(id, START + 86_400_000));
+
+        assertTrue(wheel.advanceTo(START + 10_000).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(id), wheel.advanceTo(START + 86_400_000));
+    }
+
+    @Test
+    void shouldGrowPastInitialCapacityAndFireInTickOrder() {
+        int count = 50_000;
+        Set<UUID> expected = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            UUID id = UUID.randomUUID();
+            expected.add(id);
+            wheel.schedule(id, START + (count - i) * 7_000L);
+        }
+        assertEquals(count, wheel.size());
+
+        List<UUID> fired = wheel.advanceTo(START + count * 7_000L);
+
+        assertEquals(count, fired.size());
+        assertEquals(expected, new HashSet<>(fired));
+        assertEquals(0, wheel.size());
+    }
+}